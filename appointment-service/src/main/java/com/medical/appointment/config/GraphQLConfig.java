@@ -0,0 +1,73 @@
+package com.medical.appointment.config;
+
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * ISO-8601 string scalars for the java.time fields of the schema.
+ */
+@Configuration
+public class GraphQLConfig {
+
+    @Bean
+    public RuntimeWiringConfigurer scalarsConfigurer() {
+        return wiring -> wiring
+                .scalar(isoScalar("Date", LocalDate.class, LocalDate::parse))
+                .scalar(isoScalar("Time", LocalTime.class, LocalTime::parse))
+                .scalar(isoScalar("DateTime", LocalDateTime.class, LocalDateTime::parse));
+    }
+
+    private static <T> GraphQLScalarType isoScalar(String name, Class<T> type, Function<String, T> parser) {
+        return GraphQLScalarType.newScalar()
+                .name(name)
+                .coercing(new Coercing<T, String>() {
+                    @Override
+                    public String serialize(Object value, GraphQLContext context, Locale locale) {
+                        if (type.isInstance(value)) {
+                            return value.toString();
+                        }
+                        throw new CoercingSerializeException("Expected " + type.getSimpleName() + " but got " + value);
+                    }
+
+                    @Override
+                    public T parseValue(Object input, GraphQLContext context, Locale locale) {
+                        try {
+                            return parser.apply(input.toString());
+                        } catch (DateTimeParseException e) {
+                            throw new CoercingParseValueException("Invalid " + name + ": " + input);
+                        }
+                    }
+
+                    @Override
+                    public T parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext context, Locale locale) {
+                        if (!(input instanceof StringValue stringValue)) {
+                            throw new CoercingParseLiteralException("Expected a string literal for " + name);
+                        }
+                        try {
+                            return parser.apply(stringValue.getValue());
+                        } catch (DateTimeParseException e) {
+                            throw new CoercingParseLiteralException("Invalid " + name + ": " + stringValue.getValue());
+                        }
+                    }
+                })
+                .build();
+    }
+
+}
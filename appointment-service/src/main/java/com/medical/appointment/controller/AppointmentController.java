@@ -1,21 +1,55 @@
 package com.medical.appointment.controller;
 
+import com.medical.appointment.dto.AppointmentConnection;
 import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.dto.AppointmentInfoBatchInput;
+import com.medical.appointment.dto.AppointmentInfoDTO;
 import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.appointment.dto.CreateAppointmentSeriesInput;
+import com.medical.appointment.dto.DoctorInfoDTO;
+import com.medical.appointment.dto.EarliestSlotDTO;
+import com.medical.appointment.dto.FreeSlotDTO;
+import com.medical.appointment.dto.ImportReport;
+import com.medical.appointment.dto.PatientInfoDTO;
+import com.medical.appointment.dto.SlotCalendarDTO;
+import com.medical.appointment.dto.SlotHoldDTO;
+import com.medical.appointment.dto.SlotHoldInput;
 import com.medical.appointment.dto.TimeSlot;
+import com.medical.appointment.dto.WaitlistEntryDTO;
+import com.medical.appointment.dto.WaitlistInput;
+import com.medical.appointment.service.AgendaExportService;
+import com.medical.appointment.service.AppointmentImportService;
 import com.medical.appointment.service.AppointmentService;
+import com.medical.appointment.service.BookingService;
+import com.medical.appointment.service.EarliestSlotFinder;
+import com.medical.appointment.service.ExportFormat;
+import com.medical.appointment.service.ImportFormat;
 import com.medical.appointment.service.SlotService;
+import com.medical.appointment.service.WaitlistService;
+import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
 import com.medical.common.exception.UnauthorizedException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/appointments")
@@ -24,34 +58,202 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final BookingService bookingService;
     private final SlotService slotService;
+    private final EarliestSlotFinder earliestSlotFinder;
+    private final AppointmentImportService appointmentImportService;
+    private final AgendaExportService agendaExportService;
+    private final WaitlistService waitlistService;
 
     @GetMapping("/{id}")
     public ResponseEntity<AppointmentDTO> getAppointment(@PathVariable Long id) {
         return ResponseEntity.ok(appointmentService.getAppointmentById(id));
     }
 
+    // Lookups of payment-service and video-service, authenticated by InternalCallerFilter;
+    // the patient's contact details are not for other users
+    @GetMapping("/{id}/info")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INTERNAL')")
+    public ResponseEntity<AppointmentInfoDTO> getAppointmentInfo(@PathVariable Long id) {
+        return ResponseEntity.ok(appointmentService.getAppointmentInfo(id));
+    }
+
+    @GetMapping("/{id}/doctor-info")
+    public ResponseEntity<DoctorInfoDTO> getDoctorInfo(@PathVariable Long id) {
+        return ResponseEntity.ok(appointmentService.getAppointmentInfo(id).getDoctor());
+    }
+
+    @GetMapping("/{id}/patient-info")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INTERNAL')")
+    public ResponseEntity<PatientInfoDTO> getPatientInfo(@PathVariable Long id) {
+        return ResponseEntity.ok(appointmentService.getAppointmentInfo(id).getPatient());
+    }
+
+    @PostMapping("/info/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INTERNAL')")
+    public ResponseEntity<List<AppointmentInfoDTO>> getAppointmentInfos(@Valid @RequestBody AppointmentInfoBatchInput input) {
+        return ResponseEntity.ok(appointmentService.getAppointmentInfos(input.getIds()));
+    }
+
     @GetMapping("/patient/{patientId}")
     public ResponseEntity<List<AppointmentDTO>> getPatientAppointments(@PathVariable Long patientId) {
         return ResponseEntity.ok(appointmentService.getAppointmentsByPatient(patientId));
     }
 
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<List<AppointmentDTO>> getDoctorAppointments(@PathVariable Long doctorId) {
-        return ResponseEntity.ok(appointmentService.getAppointmentsByDoctor(doctorId));
+    public ResponseEntity<List<AppointmentDTO>> getDoctorAppointments(@PathVariable Long doctorId, WebRequest request) {
+        return conditional(request, appointmentService.getAgendaETag(doctorId), () -> appointmentService.getAppointmentsByDoctor(doctorId));
+    }
+
+    @GetMapping("/patient/{patientId}/page")
+    public ResponseEntity<AppointmentConnection> getPatientAppointmentsPage(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<AppointmentStatus> status,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer first) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsByPatient(patientId, from, to, status, after, first));
+    }
+
+    @GetMapping("/doctor/{doctorId}/page")
+    public ResponseEntity<AppointmentConnection> getDoctorAppointmentsPage(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<AppointmentStatus> status,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer first) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsByDoctor(doctorId, from, to, status, after, first));
+    }
+
+    /**
+     * Streams the doctor's agenda as it is read from the database.
+     * {@code format=ICS} returns a text/calendar file to import into a calendar client; the request
+     * needs the caller's JWT, so calendar clients cannot poll it as a subscription.
+     */
+    @GetMapping("/doctor/{doctorId}/export")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCTOR') and @doctorRepository.existsByIdAndUserId(#doctorId, principal))")
+    public ResponseEntity<StreamingResponseBody> exportDoctorAgenda(
+            @PathVariable Long doctorId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        // Checked before the body starts streaming, while an error can still become a 400
+        agendaExportService.validateRange(from, to);
+        StreamingResponseBody body = out -> agendaExportService.export(doctorId, from, to, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("agenda-" + doctorId + "." + format.extension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @GetMapping("/slots")
     public ResponseEntity<List<TimeSlot>> getAvailableSlots(
             @RequestParam Long doctorId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return ResponseEntity.ok(slotService.getAvailableSlots(doctorId, date));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        // Polled by the booking screens: unchanged days are answered 304 without sending the slots
+        List<TimeSlot> slots = slotService.getAvailableSlots(doctorId, date);
+        return conditional(request, SlotService.slotsETag(slots), () -> slots);
+    }
+
+    @GetMapping("/slots/range")
+    public ResponseEntity<SlotCalendarDTO> getAvailableSlotsInRange(
+            @RequestParam Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request) {
+        SlotCalendarDTO calendar = slotService.getAvailableSlotsInRange(doctorId, from, to);
+        return conditional(request, SlotService.slotsETag(calendar), () -> calendar);
+    }
+
+    @GetMapping("/slots/free")
+    public ResponseEntity<List<FreeSlotDTO>> getFreeSlots(
+            @RequestParam Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(slotService.getFreeSlots(doctorId, from, to));
+    }
+
+    @GetMapping("/slots/earliest")
+    public ResponseEntity<List<EarliestSlotDTO>> getEarliestSlots(
+            @RequestParam(required = false) String specialty,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) ConsultationType consultationType,
+            @RequestParam(defaultValue = "14") int horizonDays,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(earliestSlotFinder.findEarliest(specialty, city, consultationType, horizonDays, limit));
+    }
+
+    // Drops the cache of this instance only; the others follow through the slots_changed notifications
+    @PostMapping("/slots/cache/evict")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCTOR') and @doctorRepository.existsByIdAndUserId(#doctorId, principal))")
+    public ResponseEntity<Void> evictDoctorSlots(@RequestParam Long doctorId) {
+        slotService.evictDoctorSlots(doctorId);
+        return ResponseEntity.noContent().build();
     }
 
     @PostMapping
     public ResponseEntity<AppointmentDTO> createAppointment(@Valid @RequestBody CreateAppointmentInput input) {
         Long userId = getAuthenticatedUserId();
-        return ResponseEntity.ok(appointmentService.createAppointment(userId, input));
+        return ResponseEntity.ok(bookingService.book(userId, input));
+    }
+
+    @PostMapping("/series")
+    public ResponseEntity<List<AppointmentDTO>> createAppointmentSeries(@Valid @RequestBody CreateAppointmentSeriesInput input) {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(appointmentService.createAppointmentSeries(userId, input));
+    }
+
+    /**
+     * Bulk import from a practice-management export, streamed from the request body
+     * ({@code text/csv} with a header line, or {@code application/x-ndjson}).
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportReport> importAppointments(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request) throws IOException {
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        return ResponseEntity.ok(appointmentImportService.importAppointments(request.getInputStream(), format));
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<SlotHoldDTO> holdSlot(@Valid @RequestBody SlotHoldInput input) {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(appointmentService.holdSlot(userId, input));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        Long userId = getAuthenticatedUserId();
+        appointmentService.releaseHold(userId, holdId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Joins the doctor's cancellation waitlist; a freed slot in the range is held for the patient.
+     */
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryDTO> joinWaitlist(@Valid @RequestBody WaitlistInput input) {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(waitlistService.join(userId, input));
+    }
+
+    @GetMapping("/waitlist")
+    public ResponseEntity<List<WaitlistEntryDTO>> getWaitlistEntries() {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(waitlistService.getEntries(userId));
+    }
+
+    @DeleteMapping("/waitlist/{entryId}")
+    public ResponseEntity<WaitlistEntryDTO> leaveWaitlist(@PathVariable Long entryId) {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(waitlistService.leave(userId, entryId));
     }
 
     @PutMapping("/{appointmentId}/cancel")
@@ -85,4 +287,15 @@ public class AppointmentController {
             throw new UnauthorizedException("Invalid user principal");
         }
     }
+
+    /**
+     * Conditional GET: 304 when If-None-Match matches the tag, the body is only built and sent otherwise.
+     * {@code checkNotModified} also sets the ETag header; no-cache makes clients revalidate every poll.
+     */
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String eTag, Supplier<T> body) {
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(body.get());
+    }
 }
@@ -0,0 +1,39 @@
+package com.medical.appointment.controller;
+
+import com.medical.appointment.dto.AppointmentConnection;
+import com.medical.appointment.service.AppointmentService;
+import com.medical.common.enums.AppointmentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Controller
+@RequiredArgsConstructor
+public class AppointmentGraphQLController {
+
+    private final AppointmentService appointmentService;
+
+    @QueryMapping
+    public AppointmentConnection patientAppointmentsConnection(@Argument Long patientId,
+                                                               @Argument Integer first,
+                                                               @Argument String after,
+                                                               @Argument LocalDate from,
+                                                               @Argument LocalDate to,
+                                                               @Argument List<AppointmentStatus> status) {
+        return appointmentService.getAppointmentsByPatient(patientId, from, to, status, after, first);
+    }
+
+    @QueryMapping
+    public AppointmentConnection doctorAppointmentsConnection(@Argument Long doctorId,
+                                                              @Argument Integer first,
+                                                              @Argument String after,
+                                                              @Argument LocalDate from,
+                                                              @Argument LocalDate to,
+                                                              @Argument List<AppointmentStatus> status) {
+        return appointmentService.getAppointmentsByDoctor(doctorId, from, to, status, after, first);
+    }
+}
@@ -0,0 +1,21 @@
+package com.medical.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of an appointment history, in the GraphQL connection shape; also returned by the REST endpoints.
+ * Pass {@code pageInfo.endCursor} as {@code after} to get the next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentConnection {
+
+    private List<AppointmentEdge> edges;
+    private PageInfo pageInfo;
+
+}
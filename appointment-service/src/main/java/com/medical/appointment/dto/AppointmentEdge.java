@@ -0,0 +1,15 @@
+package com.medical.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentEdge {
+
+    private String cursor;
+    private AppointmentDTO node;
+
+}
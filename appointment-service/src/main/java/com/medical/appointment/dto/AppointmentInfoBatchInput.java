@@ -0,0 +1,15 @@
+package com.medical.appointment.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AppointmentInfoBatchInput {
+
+    @NotEmpty(message = "Appointment ids are required")
+    private List<@NotNull Long> ids;
+
+}
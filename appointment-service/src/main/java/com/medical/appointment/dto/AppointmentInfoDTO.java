@@ -0,0 +1,46 @@
+package com.medical.appointment.dto;
+
+import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * An appointment with its doctor and patient, as other services need it (payment amount, video
+ * room participants). Read in one joined query, for one appointment or a batch of them.
+ */
+@Data
+@NoArgsConstructor
+public class AppointmentInfoDTO {
+
+    private Long id;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private ConsultationType consultationType;
+    private AppointmentStatus status;
+    private Double consultationFee;
+    private DoctorInfoDTO doctor;
+    private PatientInfoDTO patient;
+
+    // Flat row of the joined query
+    public AppointmentInfoDTO(Long id, LocalDate appointmentDate, LocalTime startTime, LocalTime endTime,
+                              ConsultationType consultationType, AppointmentStatus status,
+                              Long doctorId, String doctorFirstName, String doctorLastName, String specialty,
+                              String officeAddress, String city, Double consultationFee,
+                              Long patientId, String patientFirstName, String patientLastName, String phone, String email) {
+        this.id = id;
+        this.appointmentDate = appointmentDate;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.consultationType = consultationType;
+        this.status = status;
+        this.consultationFee = consultationFee;
+        this.doctor = new DoctorInfoDTO(doctorId, doctorFirstName, doctorLastName, specialty, officeAddress, city, consultationFee);
+        this.patient = new PatientInfoDTO(patientId, patientFirstName, patientLastName, phone, email);
+    }
+
+}
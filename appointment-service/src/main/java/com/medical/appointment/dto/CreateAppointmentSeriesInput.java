@@ -0,0 +1,41 @@
+package com.medical.appointment.dto;
+
+import com.medical.common.enums.ConsultationType;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class CreateAppointmentSeriesInput {
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "First appointment date is required")
+    @Future(message = "First appointment date must be in the future")
+    private LocalDate firstDate;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "Consultation type is required")
+    private ConsultationType consultationType;
+
+    @NotNull(message = "Number of occurrences is required")
+    @Min(value = 2, message = "A series has at least 2 occurrences")
+    @Max(value = 52, message = "A series has at most 52 occurrences")
+    private Integer occurrences;
+
+    // Weeks between two occurrences
+    @Min(value = 1, message = "Interval must be at least one week")
+    @Max(value = 4, message = "Interval must be at most 4 weeks")
+    private Integer intervalWeeks = 1;
+
+    private String reason;
+
+}
@@ -0,0 +1,23 @@
+package com.medical.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Compact slot list of one day: slot i starts at minute {@code startMinutes[i]} of the day,
+ * lasts {@code durations[i]} minutes and is free when {@code availability.charAt(i) == '1'}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DaySlotsDTO {
+
+    private LocalDate date;
+    private int[] startMinutes;
+    private int[] durations;
+    private String availability;
+
+}
@@ -0,0 +1,20 @@
+package com.medical.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoctorInfoDTO {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String specialty;
+    private String officeAddress;
+    private String city;
+    private Double consultationFee;
+
+}
@@ -0,0 +1,27 @@
+package com.medical.appointment.dto;
+
+import com.medical.common.enums.ConsultationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarliestSlotDTO {
+
+    private Long doctorId;
+    private String doctorFirstName;
+    private String doctorLastName;
+    private String specialty;
+    private String city;
+    private Double consultationFee;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private ConsultationType consultationType;
+
+}
@@ -0,0 +1,26 @@
+package com.medical.appointment.dto;
+
+import com.medical.appointment.model.SlotInventory;
+import com.medical.common.enums.ConsultationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotDTO {
+
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private ConsultationType consultationType;
+
+    public static FreeSlotDTO fromEntity(SlotInventory slot) {
+        return new FreeSlotDTO(slot.getSlotDate(), slot.getStartTime(), slot.getEndTime(), slot.getConsultationType());
+    }
+
+}
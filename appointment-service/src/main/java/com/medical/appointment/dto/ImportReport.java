@@ -0,0 +1,21 @@
+package com.medical.appointment.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk appointment import. Only the first errors are kept so the report stays
+ * bounded whatever the file size; {@code failedRows} counts all of them.
+ */
+@Data
+public class ImportReport {
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ImportRowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+}
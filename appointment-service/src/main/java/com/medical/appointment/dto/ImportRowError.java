@@ -0,0 +1,16 @@
+package com.medical.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+
+    // 1-based line number in the uploaded file
+    private long line;
+    private String message;
+
+}
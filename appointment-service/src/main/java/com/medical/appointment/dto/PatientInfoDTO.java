@@ -0,0 +1,18 @@
+package com.medical.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientInfoDTO {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String phone;
+    private String email;
+
+}
@@ -0,0 +1,32 @@
+package com.medical.appointment.dto;
+
+import com.medical.common.enums.ConsultationType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * What a reminder needs about an upcoming appointment, read in a single joined query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderDTO {
+
+    private Long appointmentId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private ConsultationType consultationType;
+    private String patientFirstName;
+    private String patientLastName;
+    private String patientEmail;
+    private String doctorFirstName;
+    private String doctorLastName;
+    private String specialty;
+    private String officeAddress;
+    private String city;
+
+}
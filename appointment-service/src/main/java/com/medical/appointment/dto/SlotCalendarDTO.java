@@ -0,0 +1,20 @@
+package com.medical.appointment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotCalendarDTO {
+
+    private Long doctorId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<DaySlotsDTO> days;
+
+}
@@ -0,0 +1,34 @@
+package com.medical.appointment.dto;
+
+import com.medical.appointment.service.SlotHold;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldDTO {
+
+    private String holdId;
+    private Long doctorId;
+    private LocalDate appointmentDate;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Instant expiresAt;
+
+    public static SlotHoldDTO fromHold(SlotHold hold) {
+        return new SlotHoldDTO(
+                hold.id(),
+                hold.day().doctorId(),
+                hold.day().date(),
+                hold.startTime(),
+                hold.endTime(),
+                hold.expiresAt()
+        );
+    }
+}
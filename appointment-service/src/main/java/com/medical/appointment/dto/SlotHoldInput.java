@@ -0,0 +1,27 @@
+package com.medical.appointment.dto;
+
+import com.medical.common.enums.ConsultationType;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class SlotHoldInput {
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Appointment date is required")
+    @Future(message = "Appointment date must be in the future")
+    private LocalDate appointmentDate;
+
+    @NotNull(message = "Start time is required")
+    private LocalTime startTime;
+
+    @NotNull(message = "Consultation type is required")
+    private ConsultationType consultationType;
+
+}
@@ -0,0 +1,51 @@
+package com.medical.appointment.dto;
+
+import com.medical.appointment.model.WaitlistEntry;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.enums.WaitlistStatus;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A waitlist registration; once OFFERED, {@code holdId} reserves the offered slot until {@code offerExpiresAt}.
+ */
+@Data
+public class WaitlistEntryDTO {
+
+    private Long id;
+    private Long patientId;
+    private Long doctorId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private ConsultationType consultationType;
+    private WaitlistStatus status;
+    private String holdId;
+    private LocalDate offeredDate;
+    private LocalTime offeredStartTime;
+    private Instant offerExpiresAt;
+    private LocalDateTime createdAt;
+
+    public static WaitlistEntryDTO fromEntity(WaitlistEntry entry) {
+        if (entry == null) return null;
+
+        WaitlistEntryDTO dto = new WaitlistEntryDTO();
+        dto.setId(entry.getId());
+        dto.setPatientId(entry.getPatientId());
+        dto.setDoctorId(entry.getDoctorId());
+        dto.setFromDate(entry.getDateFrom());
+        dto.setToDate(entry.getDateTo());
+        dto.setConsultationType(entry.getConsultationType());
+        dto.setStatus(entry.getStatus());
+        dto.setHoldId(entry.getHoldId());
+        dto.setOfferedDate(entry.getOfferedDate());
+        dto.setOfferedStartTime(entry.getOfferedStartTime());
+        dto.setOfferExpiresAt(entry.getOfferExpiresAt());
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.medical.appointment.dto;
+
+import com.medical.common.enums.ConsultationType;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class WaitlistInput {
+
+    @NotNull(message = "Doctor ID is required")
+    private Long doctorId;
+
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date must not be in the past")
+    private LocalDate fromDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate toDate;
+
+    @NotNull(message = "Consultation type is required")
+    private ConsultationType consultationType;
+
+}
@@ -14,16 +14,18 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "appointments", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"doctor_id", "appointment_date", "start_time"})
-})
+// One active appointment per (doctor, date, start time): partial unique index uq_appointments_active_slot,
+// which cancelled and expired appointments do not count against
+@Table(name = "appointments")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Appointment {
 
+    // Pooled sequence (database INCREMENT BY 50) so inserts can be JDBC-batched; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "patient_id", nullable = false)
@@ -11,6 +11,9 @@ public class Doctor {
     @Id
     private Long id;
 
+    @Column(name = "user_id")
+    private Long userId;
+
     @Column(name = "first_name")
     private String firstName;
 
@@ -19,6 +22,11 @@ public class Doctor {
 
     private String specialty;
 
+    private String city;
+
+    @Column(name = "office_address")
+    private String officeAddress;
+
     @Column(name = "consultation_fee")
     private Double consultationFee;
 
@@ -0,0 +1,45 @@
+package com.medical.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checkout hold of [startMinute, endMinute) on a doctor-day. Rows are shared by every instance;
+ * an exclusion constraint keeps two holds of the same doctor-day from overlapping.
+ */
+@Entity
+@Table(name = "slot_holds")
+@Data
+public class SlotHoldEntry {
+
+    @Id
+    private String id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "hold_date", nullable = false)
+    private LocalDate holdDate;
+
+    @Column(name = "start_minute", nullable = false)
+    private Integer startMinute;
+
+    @Column(name = "end_minute", nullable = false)
+    private Integer endMinute;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,44 @@
+package com.medical.appointment.model;
+
+import com.medical.common.enums.ConsultationType;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Materialized slot, generated by doctor-service from the availability rules.
+ * This service only reads the rows and keeps {@code taken} in line with the appointments.
+ */
+@Entity
+@Table(name = "slot_inventory")
+@Data
+public class SlotInventory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(name = "availability_id")
+    private Long availabilityId;
+
+    @Column(name = "slot_date")
+    private LocalDate slotDate;
+
+    @Column(name = "start_time")
+    private LocalTime startTime;
+
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "consultation_type")
+    private ConsultationType consultationType;
+
+    @Column(name = "is_taken")
+    private Boolean taken;
+
+}
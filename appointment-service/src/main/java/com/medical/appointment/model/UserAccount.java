@@ -0,0 +1,19 @@
+package com.medical.appointment.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Read-only view of the account owned by auth-service, for the patient's contact email.
+ */
+@Entity
+@Table(name = "users")
+@Data
+public class UserAccount {
+
+    @Id
+    private Long id;
+
+    private String email;
+
+}
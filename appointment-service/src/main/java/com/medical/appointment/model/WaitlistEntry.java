@@ -0,0 +1,63 @@
+package com.medical.appointment.model;
+
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.enums.WaitlistStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A patient waiting for a slot of one doctor between two dates. When an appointment in that range
+ * is cancelled, the slot is held for the first patient in line and the hold is recorded here.
+ */
+@Entity
+@Table(name = "waitlist_entries")
+@Data
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "date_from", nullable = false)
+    private LocalDate dateFrom;
+
+    @Column(name = "date_to", nullable = false)
+    private LocalDate dateTo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "consultation_type", nullable = false)
+    private ConsultationType consultationType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    @Column(name = "hold_id")
+    private String holdId;
+
+    @Column(name = "offered_date")
+    private LocalDate offeredDate;
+
+    @Column(name = "offered_start_time")
+    private LocalTime offeredStartTime;
+
+    @Column(name = "offer_expires_at")
+    private Instant offerExpiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+}
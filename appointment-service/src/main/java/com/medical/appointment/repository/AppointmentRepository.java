@@ -1,31 +1,187 @@
 package com.medical.appointment.repository;
 
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.dto.AppointmentInfoDTO;
+import com.medical.appointment.dto.ReminderDTO;
 import com.medical.appointment.model.Appointment;
 import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    // Read-only views are built straight from the columns: no managed entity, no dirty-checking snapshot
+    String DTO_SELECT = "SELECT new com.medical.appointment.dto.AppointmentDTO(" +
+            "a.id, a.patientId, a.doctorId, a.appointmentDate, a.startTime, a.endTime, " +
+            "a.consultationType, a.status, a.reason, a.notes, a.createdAt, a.updatedAt) " +
+            "FROM Appointment a ";
+
+    String PATIENT_DTO_QUERY = DTO_SELECT + "WHERE a.patientId = :patientId";
+
+    String DOCTOR_DTO_QUERY = DTO_SELECT + "WHERE a.doctorId = :doctorId";
+
+    String ACTIVE_STATUSES = "(com.medical.common.enums.AppointmentStatus.PENDING, com.medical.common.enums.AppointmentStatus.CONFIRMED)";
+
+    // Reminder content, with the patient's email from the account table
+    String REMINDER_SELECT = "SELECT new com.medical.appointment.dto.ReminderDTO(" +
+            "a.id, a.appointmentDate, a.startTime, a.consultationType, " +
+            "p.firstName, p.lastName, u.email, d.firstName, d.lastName, d.specialty, d.officeAddress, d.city) " +
+            "FROM Appointment a JOIN a.patient p JOIN a.doctor d JOIN UserAccount u ON u.id = p.userId ";
+
+    // Appointment, doctor and patient in one row, for the lookups of payment-service and video-service
+    String INFO_SELECT = "SELECT new com.medical.appointment.dto.AppointmentInfoDTO(" +
+            "a.id, a.appointmentDate, a.startTime, a.endTime, a.consultationType, a.status, " +
+            "d.id, d.firstName, d.lastName, d.specialty, d.officeAddress, d.city, d.consultationFee, " +
+            "p.id, p.firstName, p.lastName, p.phone, u.email) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.patient p LEFT JOIN UserAccount u ON u.id = p.userId ";
+
+    // Rows fetched per round trip by export cursors
+    String EXPORT_FETCH_SIZE = "500";
+
     List<Appointment> findByPatientId(Long patientId);
     
     List<Appointment> findByDoctorId(Long doctorId);
     
+    @Query(INFO_SELECT + "WHERE a.id = :id")
+    Optional<AppointmentInfoDTO> findInfoById(Long id);
+
+    @Query(INFO_SELECT + "WHERE a.id IN :ids ORDER BY a.id")
+    List<AppointmentInfoDTO> findInfoByIdIn(Collection<Long> ids);
+
+    @Query(DTO_SELECT + "WHERE a.id = :id")
+    Optional<AppointmentDTO> findDtoById(Long id);
+    
+    @Query(PATIENT_DTO_QUERY)
+    List<AppointmentDTO> findDtosByPatientId(Long patientId);
+    
+    @Query(DOCTOR_DTO_QUERY)
+    List<AppointmentDTO> findDtosByDoctorId(Long doctorId);
+
+    // Changes with every insert, delete or update of the doctor's appointments: the updated_at trigger
+    // sets every touched row to its transaction's start time, which always changes the sum
+    @Query(value = "SELECT count(*) || '-' || coalesce(sum(floor(extract(epoch FROM updated_at) * 1000000)::bigint), 0) " +
+                   "FROM appointments WHERE doctor_id = :doctorId", nativeQuery = true)
+    String findAgendaStamp(Long doctorId);
+    
     List<Appointment> findByDoctorIdAndAppointmentDate(Long doctorId, LocalDate date);
     
     @Query("SELECT a FROM Appointment a WHERE a.doctorId = :doctorId " +
            "AND a.appointmentDate = :date " +
            "AND a.status != 'CANCELLED_BY_PATIENT' " +
-           "AND a.status != 'CANCELLED_BY_DOCTOR'")
+           "AND a.status != 'CANCELLED_BY_DOCTOR' " +
+           "AND a.status != 'EXPIRED'")
     List<Appointment> findActiveByDoctorAndDate(Long doctorId, LocalDate date);
     
+    @Query("SELECT a FROM Appointment a WHERE a.doctorId = :doctorId " +
+           "AND a.appointmentDate BETWEEN :from AND :to " +
+           "AND a.status != 'CANCELLED_BY_PATIENT' " +
+           "AND a.status != 'CANCELLED_BY_DOCTOR' " +
+           "AND a.status != 'EXPIRED'")
+    List<Appointment> findActiveByDoctorAndDateBetween(Long doctorId, LocalDate from, LocalDate to);
+    
+    @Query("SELECT a FROM Appointment a WHERE a.doctorId IN :doctorIds " +
+           "AND a.appointmentDate BETWEEN :from AND :to " +
+           "AND a.status != 'CANCELLED_BY_PATIENT' " +
+           "AND a.status != 'CANCELLED_BY_DOCTOR' " +
+           "AND a.status != 'EXPIRED'")
+    List<Appointment> findActiveByDoctorIdInAndDateBetween(Collection<Long> doctorIds, LocalDate from, LocalDate to);
+    
+    // Import chunks: only the doctor-days actually touched, even when a chunk spans years of history
+    @Query("SELECT a FROM Appointment a WHERE a.doctorId IN :doctorIds " +
+           "AND a.appointmentDate IN :dates " +
+           "AND a.status != 'CANCELLED_BY_PATIENT' " +
+           "AND a.status != 'CANCELLED_BY_DOCTOR' " +
+           "AND a.status != 'EXPIRED'")
+    List<Appointment> findActiveByDoctorIdInAndDateIn(Collection<Long> doctorIds, Collection<LocalDate> dates);
+    
+    // Keyset pages on (appointment_date, start_time, id): rows strictly after the cursor, up to :to
+    @Query(DTO_SELECT + "WHERE a.doctorId = :doctorId " +
+           "AND a.appointmentDate <= :to " +
+           "AND a.status IN :statuses " +
+           "AND (a.appointmentDate > :afterDate " +
+           "OR (a.appointmentDate = :afterDate AND a.startTime > :afterTime) " +
+           "OR (a.appointmentDate = :afterDate AND a.startTime = :afterTime AND a.id > :afterId)) " +
+           "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<AppointmentDTO> findDoctorPage(Long doctorId, LocalDate to, Collection<AppointmentStatus> statuses,
+                                           LocalDate afterDate, LocalTime afterTime, Long afterId, Pageable pageable);
+    
+    @Query(DTO_SELECT + "WHERE a.patientId = :patientId " +
+           "AND a.appointmentDate <= :to " +
+           "AND a.status IN :statuses " +
+           "AND (a.appointmentDate > :afterDate " +
+           "OR (a.appointmentDate = :afterDate AND a.startTime > :afterTime) " +
+           "OR (a.appointmentDate = :afterDate AND a.startTime = :afterTime AND a.id > :afterId)) " +
+           "ORDER BY a.appointmentDate, a.startTime, a.id")
+    List<AppointmentDTO> findPatientPage(Long patientId, LocalDate to, Collection<AppointmentStatus> statuses,
+                                            LocalDate afterDate, LocalTime afterTime, Long afterId, Pageable pageable);
+    
     boolean existsByDoctorIdAndAppointmentDateAndStartTimeAndStatusNot(
             Long doctorId, LocalDate date, LocalTime startTime, AppointmentStatus status);
+    
+    // Agenda export: PostgreSQL only honours the fetch size inside a transaction, so the stream must be
+    // consumed (and closed) within one; rows are read through the cursor, never collected into a List
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(DOCTOR_DTO_QUERY + " AND a.appointmentDate BETWEEN :from AND :to " +
+           "ORDER BY a.appointmentDate, a.startTime, a.id")
+    Stream<AppointmentDTO> streamDtosByDoctorId(Long doctorId, LocalDate from, LocalDate to);
+
+    // One reminder window: active appointments starting in [from, to), on the partial index idx_appointments_upcoming
+    @Query(REMINDER_SELECT + "WHERE a.status IN " + ACTIVE_STATUSES + " " +
+           "AND a.consultationType IN :consultationTypes " +
+           "AND (a.appointmentDate > :fromDate OR (a.appointmentDate = :fromDate AND a.startTime >= :fromTime)) " +
+           "AND (a.appointmentDate < :toDate OR (a.appointmentDate = :toDate AND a.startTime < :toTime)) " +
+           "ORDER BY a.appointmentDate, a.startTime")
+    List<ReminderDTO> findReminderWindow(LocalDate fromDate, LocalTime fromTime, LocalDate toDate, LocalTime toTime,
+                                         Collection<ConsultationType> consultationTypes);
+
+    // Active appointments among the given ones whose reminder has not gone out, locked until it is marked sent.
+    // Not SKIP LOCKED: a row being confirmed must not be skipped. Rows are locked in id order, and once the
+    // dispatcher of another instance commits its claim, PostgreSQL re-checks the condition and leaves the row out
+    @Query(value = "SELECT id FROM appointments WHERE id IN (:ids) AND status IN ('PENDING', 'CONFIRMED') " +
+                   "AND reminder_sent_at IS NULL ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockUnsentAppointmentReminders(Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM appointments WHERE id IN (:ids) AND status IN ('PENDING', 'CONFIRMED') " +
+                   "AND consultation_reminder_sent_at IS NULL ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockUnsentConsultationReminders(Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE appointments SET reminder_sent_at = :sentAt WHERE id IN (:ids)", nativeQuery = true)
+    int markAppointmentRemindersSent(Collection<Long> ids, LocalDateTime sentAt);
+
+    @Modifying
+    @Query(value = "UPDATE appointments SET consultation_reminder_sent_at = :sentAt WHERE id IN (:ids)", nativeQuery = true)
+    int markConsultationRemindersSent(Collection<Long> ids, LocalDateTime sentAt);
+
+    @Query(REMINDER_SELECT + "WHERE a.id IN :ids AND a.status IN " + ACTIVE_STATUSES)
+    List<ReminderDTO> findReminders(Collection<Long> ids);
+
+    // Oldest unpaid bookings, on the partial index idx_appointments_pending; rows locked elsewhere
+    // (being confirmed, or claimed by another instance's sweep) are skipped rather than waited for
+    @Query(value = "SELECT * FROM appointments WHERE status = 'PENDING' AND created_at < :createdBefore " +
+                   "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Appointment> lockPendingCreatedBefore(LocalDateTime createdBefore, int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.id = :id")
+    Optional<Appointment> findByIdForUpdate(Long id);
 
 }
@@ -4,11 +4,16 @@ import com.medical.appointment.model.Availability;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AvailabilityRepository extends JpaRepository<Availability, Long> {
 
+    List<Availability> findByDoctorId(Long doctorId);
+
     List<Availability> findByDoctorIdAndDayOfWeek(Long doctorId, Integer dayOfWeek);
 
+    List<Availability> findByDoctorIdIn(Collection<Long> doctorIds);
+
 }
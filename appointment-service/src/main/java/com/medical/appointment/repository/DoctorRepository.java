@@ -0,0 +1,21 @@
+package com.medical.appointment.repository;
+
+import com.medical.appointment.model.Doctor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+
+    // Same filter as doctor-service's DoctorRepository.searchDoctors
+    @Query("SELECT d FROM Doctor d WHERE " +
+           "(:specialty IS NULL OR d.specialty = :specialty) AND " +
+           "(:city IS NULL OR d.city = :city)")
+    List<Doctor> searchDoctors(String specialty, String city);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+}
@@ -0,0 +1,46 @@
+package com.medical.appointment.repository;
+
+import com.medical.appointment.model.SlotHoldEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SlotHoldRepository extends JpaRepository<SlotHoldEntry, String> {
+
+    @Query("SELECT h FROM SlotHoldEntry h WHERE h.doctorId = :doctorId AND h.holdDate = :date " +
+           "AND h.expiresAt > :now ORDER BY h.startMinute")
+    List<SlotHoldEntry> findActive(Long doctorId, LocalDate date, Instant now);
+
+    @Query("SELECT COUNT(h) > 0 FROM SlotHoldEntry h WHERE h.doctorId = :doctorId AND h.holdDate = :date " +
+           "AND h.expiresAt > :now AND h.patientId <> :patientId " +
+           "AND h.startMinute < :end AND :start < h.endMinute")
+    boolean existsHeldByOther(Long doctorId, LocalDate date, int start, int end, Long patientId, Instant now);
+
+    // Lapsed holds of the day still occupy the exclusion constraint until deleted
+    @Modifying
+    @Query("DELETE FROM SlotHoldEntry h WHERE h.doctorId = :doctorId AND h.holdDate = :date " +
+           "AND (h.expiresAt <= :now OR h.patientId = :patientId)")
+    int deleteLapsedOrOwnedBy(Long doctorId, LocalDate date, Long patientId, Instant now);
+
+    // An overlapping hold makes the exclusion constraint skip the row (0) instead of failing the transaction;
+    // a concurrent uncommitted one is waited for first
+    @Modifying
+    @Query(value = "INSERT INTO slot_holds (id, doctor_id, hold_date, start_minute, end_minute, patient_id, expires_at) " +
+           "VALUES (:id, :doctorId, :date, :start, :end, :patientId, :expiresAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfFree(String id, Long doctorId, LocalDate date, int start, int end, Long patientId, Instant expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM SlotHoldEntry h WHERE h.doctorId = :doctorId AND h.holdDate = :date AND h.patientId = :patientId")
+    int deleteByPatient(Long doctorId, LocalDate date, Long patientId);
+
+    @Modifying
+    @Query("DELETE FROM SlotHoldEntry h WHERE h.expiresAt <= :now")
+    int deleteExpired(Instant now);
+
+}
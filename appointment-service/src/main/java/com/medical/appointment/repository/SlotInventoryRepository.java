@@ -0,0 +1,34 @@
+package com.medical.appointment.repository;
+
+import com.medical.appointment.model.SlotInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Repository
+public interface SlotInventoryRepository extends JpaRepository<SlotInventory, Long> {
+
+    // Served by the partial index idx_slot_inventory_free (doctor_id, slot_date, start_time) WHERE NOT is_taken
+    @Query("SELECT s FROM SlotInventory s WHERE s.doctorId = :doctorId " +
+           "AND s.taken = false " +
+           "AND s.slotDate BETWEEN :from AND :to " +
+           "AND (s.slotDate > :today OR s.startTime >= :now) " +
+           "ORDER BY s.slotDate, s.startTime")
+    List<SlotInventory> findFree(Long doctorId, LocalDate from, LocalDate to, LocalDate today, LocalTime now);
+
+    // Recomputes is_taken for every slot of the doctor-day from its active appointments
+    @Modifying
+    @Query(value = "UPDATE slot_inventory s SET is_taken = EXISTS (" +
+           "SELECT 1 FROM appointments a WHERE a.doctor_id = s.doctor_id " +
+           "AND a.appointment_date = s.slot_date " +
+           "AND a.status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'EXPIRED') " +
+           "AND a.start_time < s.end_time AND a.end_time > s.start_time) " +
+           "WHERE s.doctor_id = :doctorId AND s.slot_date = :date", nativeQuery = true)
+    int refreshTaken(Long doctorId, LocalDate date);
+
+}
@@ -0,0 +1,55 @@
+package com.medical.appointment.repository;
+
+import com.medical.appointment.model.WaitlistEntry;
+import com.medical.common.enums.WaitlistStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByPatientIdOrderByCreatedAtDesc(Long patientId);
+
+    boolean existsByPatientIdAndDoctorIdAndStatus(Long patientId, Long doctorId, WaitlistStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WaitlistEntry w WHERE w.id = :id")
+    Optional<WaitlistEntry> findByIdForUpdate(Long id);
+
+    // First patient in line for a freed slot, served by idx_waitlist_doctor_waiting. A waiter locked by
+    // another instance (being offered another slot) is skipped rather than waited for
+    @Query(value = "SELECT * FROM waitlist_entries WHERE doctor_id = :doctorId AND status = 'WAITING' " +
+                   "AND date_from <= :date AND date_to >= :date AND consultation_type IN (:consultationTypes) " +
+                   "AND patient_id <> :excludedPatientId " +
+                   "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<WaitlistEntry> lockFirstWaiting(Long doctorId, LocalDate date, Collection<String> consultationTypes,
+                                             Long excludedPatientId);
+
+    // Lapsed offers, served by idx_waitlist_offered; each one is passed on by a single instance
+    @Query(value = "SELECT * FROM waitlist_entries WHERE status = 'OFFERED' AND offer_expires_at <= :now " +
+                   "ORDER BY offer_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<WaitlistEntry> lockLapsedOffers(Instant now, int limit);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.medical.common.enums.WaitlistStatus.BOOKED " +
+           "WHERE w.status = com.medical.common.enums.WaitlistStatus.OFFERED AND w.patientId = :patientId " +
+           "AND w.doctorId = :doctorId AND w.offeredDate = :date AND w.offeredStartTime = :startTime")
+    int markOfferBooked(Long patientId, Long doctorId, LocalDate date, LocalTime startTime);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.medical.common.enums.WaitlistStatus.EXPIRED " +
+           "WHERE w.status = com.medical.common.enums.WaitlistStatus.WAITING AND w.dateTo < :today")
+    int expireEndedBefore(LocalDate today);
+
+}
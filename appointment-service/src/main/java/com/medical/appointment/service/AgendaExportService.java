@@ -0,0 +1,233 @@
+package com.medical.appointment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.common.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a doctor's agenda as CSV, NDJSON or iCalendar straight from a database cursor.
+ * Each row is written as soon as it is read, so memory does not depend on the length of the history.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgendaExportService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final ObjectMapper objectMapper;
+
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+    }
+
+    /**
+     * Writes the doctor's appointments between {@code from} and {@code to} (both optional), oldest first.
+     * Runs on the response-writing thread; the read-only transaction keeps the cursor open until the last row.
+     */
+    @Transactional(readOnly = true)
+    public void export(Long doctorId, LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        validateRange(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        AgendaWriter agendaWriter = switch (format) {
+            case CSV -> new CsvAgendaWriter(writer);
+            case NDJSON -> new NdjsonAgendaWriter(writer, objectMapper);
+            case ICS -> new IcsAgendaWriter(writer, doctorId);
+        };
+
+        try (Stream<AppointmentDTO> rows = appointmentRepository.streamDtosByDoctorId(doctorId,
+                from != null ? from : AppointmentService.EARLIEST_DATE,
+                to != null ? to : AppointmentService.LATEST_DATE)) {
+            agendaWriter.begin();
+            for (Iterator<AppointmentDTO> it = rows.iterator(); it.hasNext(); ) {
+                agendaWriter.write(it.next());
+            }
+            agendaWriter.end();
+        }
+        writer.flush();
+    }
+
+    private interface AgendaWriter {
+
+        default void begin() throws IOException {
+        }
+
+        void write(AppointmentDTO appointment) throws IOException;
+
+        default void end() throws IOException {
+        }
+    }
+
+    /**
+     * Same column names as the bulk import; {@code id} is ignored when importing.
+     */
+    private record CsvAgendaWriter(Writer writer) implements AgendaWriter {
+
+        @Override
+        public void begin() throws IOException {
+            writer.write("id,patient_id,doctor_id,appointment_date,start_time,end_time,consultation_type,status,reason,notes\n");
+        }
+
+        @Override
+        public void write(AppointmentDTO appointment) throws IOException {
+            writer.write(String.valueOf(appointment.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(appointment.getPatientId()));
+            writer.write(',');
+            writer.write(String.valueOf(appointment.getDoctorId()));
+            writer.write(',');
+            writer.write(appointment.getAppointmentDate().toString());
+            writer.write(',');
+            writer.write(appointment.getStartTime().toString());
+            writer.write(',');
+            writer.write(appointment.getEndTime().toString());
+            writer.write(',');
+            writer.write(appointment.getConsultationType().name());
+            writer.write(',');
+            writer.write(appointment.getStatus().name());
+            writer.write(',');
+            writeQuoted(appointment.getReason());
+            writer.write(',');
+            writeQuoted(appointment.getNotes());
+            writer.write('\n');
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            if (value == null) return;
+            // Line breaks are flattened: the import reads one record per line
+            String flat = value.replace("\r\n", " ").replace('\n', ' ').replace('\r', ' ');
+            if (flat.indexOf(',') < 0 && flat.indexOf('"') < 0) {
+                writer.write(flat);
+                return;
+            }
+            writer.write('"');
+            writer.write(flat.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private record NdjsonAgendaWriter(Writer writer, ObjectMapper objectMapper) implements AgendaWriter {
+
+        @Override
+        public void write(AppointmentDTO appointment) throws IOException {
+            // writeValueAsString rather than writeValue(writer, ...), which would close the response stream
+            writer.write(objectMapper.writeValueAsString(appointment));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * RFC 5545 calendar. Times are written as floating local times, like they are stored;
+     * cancelled appointments stay in the file with STATUS:CANCELLED so re-importing it drops them.
+     */
+    private static final class IcsAgendaWriter implements AgendaWriter {
+
+        private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+        private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+        private static final int MAX_LINE_OCTETS = 75;
+
+        private final Writer writer;
+        private final Long doctorId;
+        private final String generatedAt = UTC.format(LocalDateTime.now(ZoneOffset.UTC));
+
+        IcsAgendaWriter(Writer writer, Long doctorId) {
+            this.writer = writer;
+            this.doctorId = doctorId;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            line("BEGIN:VCALENDAR");
+            line("VERSION:2.0");
+            line("PRODID:-//Medical Appointment System//Agenda//FR");
+            line("CALSCALE:GREGORIAN");
+            line("METHOD:PUBLISH");
+            line("X-WR-CALNAME:Agenda " + doctorId);
+        }
+
+        @Override
+        public void write(AppointmentDTO appointment) throws IOException {
+            LocalDateTime start = appointment.getAppointmentDate().atTime(appointment.getStartTime());
+            LocalDateTime end = appointment.getAppointmentDate().atTime(appointment.getEndTime());
+            if (!end.isAfter(start)) {
+                end = end.plusDays(1); // runs until midnight
+            }
+
+            line("BEGIN:VEVENT");
+            line("UID:appointment-" + appointment.getId() + "@medical-appointment-system");
+            line("DTSTAMP:" + stamp(appointment));
+            line("DTSTART:" + LOCAL.format(start));
+            line("DTEND:" + LOCAL.format(end));
+            line("SUMMARY:" + text("Appointment - patient " + appointment.getPatientId()));
+            line("CATEGORIES:" + appointment.getConsultationType().name());
+            line("STATUS:" + switch (appointment.getStatus()) {
+                case PENDING -> "TENTATIVE";
+                case CANCELLED_BY_PATIENT, CANCELLED_BY_DOCTOR, EXPIRED -> "CANCELLED";
+                default -> "CONFIRMED";
+            });
+            if (appointment.getReason() != null) {
+                line("DESCRIPTION:" + text(appointment.getReason()));
+            }
+            line("END:VEVENT");
+        }
+
+        @Override
+        public void end() throws IOException {
+            line("END:VCALENDAR");
+        }
+
+        private String stamp(AppointmentDTO appointment) {
+            LocalDateTime modified = appointment.getUpdatedAt() != null ? appointment.getUpdatedAt() : appointment.getCreatedAt();
+            if (modified == null) return generatedAt;
+            return UTC.format(modified.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC));
+        }
+
+        private static String text(String value) {
+            return value.replace("\\", "\\\\")
+                    .replace(";", "\\;")
+                    .replace(",", "\\,")
+                    .replace("\r\n", "\\n")
+                    .replace("\n", "\\n")
+                    .replace("\r", "\\n");
+        }
+
+        /**
+         * Content line ended by CRLF, folded every 75 octets without splitting a UTF-8 sequence.
+         */
+        private void line(String content) throws IOException {
+            int octets = 0;
+            int limit = MAX_LINE_OCTETS;
+            for (int i = 0; i < content.length(); ) {
+                int codePoint = content.codePointAt(i);
+                int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+                if (octets + size > limit) {
+                    writer.write("\r\n ");
+                    octets = 0;
+                    limit = MAX_LINE_OCTETS - 1; // the leading space counts
+                }
+                writer.write(content, i, Character.charCount(codePoint));
+                octets += size;
+                i += Character.charCount(codePoint);
+            }
+            writer.write("\r\n");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.medical.appointment.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published when an appointment is created, so reminders already loaded for its time can include it
+ * and a waitlist offer of that slot to the patient can be closed.
+ */
+public record AppointmentBookedEvent(Long appointmentId, Long doctorId, Long patientId, LocalDate date, LocalTime startTime) {
+}
@@ -0,0 +1,45 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.common.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in an appointment history ordered by (appointment_date, start_time, id).
+ * Exposed to clients as an opaque URL-safe string.
+ */
+public record AppointmentCursor(LocalDate date, LocalTime startTime, long id) {
+
+    /**
+     * Position just before the first appointment of {@code date}.
+     */
+    public static AppointmentCursor startOf(LocalDate date) {
+        return new AppointmentCursor(date, LocalTime.MIDNIGHT, 0L);
+    }
+
+    public static AppointmentCursor of(AppointmentDTO appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDate(), appointment.getStartTime(), appointment.getId());
+    }
+
+    public String encode() {
+        String raw = date + "|" + startTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AppointmentCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new AppointmentCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
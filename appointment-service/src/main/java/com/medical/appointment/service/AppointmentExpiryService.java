@@ -0,0 +1,101 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.common.enums.AppointmentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Expires PENDING appointments whose payment was never completed, so their slots can be booked
+ * again. Each sweep claims the oldest ones in bounded batches, one transaction per batch, with
+ * {@code FOR UPDATE SKIP LOCKED}: instances sweeping at the same time split the rows between them
+ * instead of waiting on each other, and an appointment being confirmed is left alone.
+ */
+@Slf4j
+@Service
+public class AppointmentExpiryService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final SlotService slotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration pendingTimeout;
+    private final int batchSize;
+    private final Clock clock;
+
+    @Autowired
+    public AppointmentExpiryService(AppointmentRepository appointmentRepository,
+                                    SlotService slotService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${appointments.expiry.pending-timeout:PT30M}") Duration pendingTimeout,
+                                    @Value("${appointments.expiry.batch-size:100}") int batchSize) {
+        this(appointmentRepository, slotService, eventPublisher, transactionManager, pendingTimeout, batchSize,
+                Clock.systemDefaultZone());
+    }
+
+    AppointmentExpiryService(AppointmentRepository appointmentRepository, SlotService slotService,
+                             ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                             Duration pendingTimeout, int batchSize, Clock clock) {
+        this.appointmentRepository = appointmentRepository;
+        this.slotService = slotService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pendingTimeout = pendingTimeout;
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Expires every appointment left PENDING for longer than the timeout and returns how many.
+     */
+    @Scheduled(fixedDelayString = "${appointments.expiry.sweep-interval:PT1M}")
+    public int sweep() {
+        LocalDateTime createdBefore = LocalDateTime.now(clock).minus(pendingTimeout);
+        int expired = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> expireBatch(createdBefore));
+            expired += batch;
+        } while (batch == batchSize);
+
+        if (expired > 0) {
+            log.info("Expired {} unpaid appointments created before {}", expired, createdBefore);
+        }
+        return expired;
+    }
+
+    private int expireBatch(LocalDateTime createdBefore) {
+        List<Appointment> stale = appointmentRepository.lockPendingCreatedBefore(createdBefore, batchSize);
+        Set<DoctorDay> days = new LinkedHashSet<>();
+        for (Appointment appointment : stale) {
+            appointment.setStatus(AppointmentStatus.EXPIRED);
+            DoctorDay day = new DoctorDay(appointment.getDoctorId(), appointment.getAppointmentDate());
+            days.add(day);
+            // Offered to the waitlist once the batch commits
+            eventPublisher.publishEvent(new SlotFreedEvent(day, DayOccupancy.toMinute(appointment.getStartTime()),
+                    DayOccupancy.toEndMinute(appointment.getStartTime(), appointment.getEndTime()), appointment.getPatientId()));
+        }
+        appointmentRepository.saveAll(stale);
+
+        for (DoctorDay day : days) {
+            slotService.refreshInventory(day);
+            eventPublisher.publishEvent(new SlotsChangedEvent(day.doctorId(), day.date()));
+        }
+        return stale.size();
+    }
+}
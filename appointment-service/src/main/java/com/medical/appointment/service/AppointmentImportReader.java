@@ -0,0 +1,147 @@
+package com.medical.appointment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.common.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an import file one line at a time, so only the current line is ever held in memory.
+ * Column and field names are matched case-insensitively, ignoring underscores
+ * ({@code patient_id} and {@code patientId} are the same column).
+ * CSV fields may be quoted but must not span several lines.
+ */
+final class AppointmentImportReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private String[] header;
+    private long lineNumber;
+
+    AppointmentImportReader(InputStream input, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Next non-blank line, or null at the end of the file.
+     */
+    RawRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+
+            if (format == ImportFormat.NDJSON) {
+                return parseJson(line);
+            }
+            if (header == null) {
+                header = splitCsv(line).stream().map(AppointmentImportReader::normalize).toArray(String[]::new);
+                continue;
+            }
+            return parseCsv(line);
+        }
+        if (format == ImportFormat.CSV && header == null) {
+            throw new ValidationException("CSV file has no header line");
+        }
+        return null;
+    }
+
+    private RawRow parseCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() > header.length) {
+            return RawRow.error(lineNumber, "Expected " + header.length + " columns, found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header[i], values.get(i));
+        }
+        return new RawRow(lineNumber, fields, null);
+    }
+
+    private RawRow parseJson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return RawRow.error(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            return RawRow.error(lineNumber, "Expected a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (!field.getValue().isNull()) {
+                fields.put(normalize(field.getKey()), field.getValue().asText());
+            }
+        }
+        return new RawRow(lineNumber, fields, null);
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").trim().toLowerCase();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Fields of one line keyed by normalized name, or the reason the line could not be read.
+     */
+    record RawRow(long line, Map<String, String> fields, String error) {
+
+        static RawRow error(long line, String error) {
+            return new RawRow(line, Map.of(), error);
+        }
+
+        String get(String name) {
+            String value = fields.get(normalize(name));
+            return value == null || value.isEmpty() ? null : value;
+        }
+    }
+}
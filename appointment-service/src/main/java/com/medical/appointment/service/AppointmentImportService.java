@@ -0,0 +1,364 @@
+package com.medical.appointment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.appointment.dto.ImportReport;
+import com.medical.appointment.dto.ImportRowError;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Doctor;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.DoctorRepository;
+import com.medical.appointment.repository.PatientRepository;
+import com.medical.appointment.service.AppointmentImportReader.RawRow;
+import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.time.TimeIntervalIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of appointments from a practice-management export (CSV or NDJSON).
+ * The file is read line by line and handled in chunks, each in its own transaction: one query per
+ * chunk for patients, doctors and the touched doctor-days, then batched inserts with the persistence
+ * context flushed and cleared every JDBC batch. Memory stays bounded by the chunk size whatever the
+ * file size. Rows failing validation are reported and skipped; the rest of the file is still imported.
+ */
+@Slf4j
+@Service
+public class AppointmentImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final SlotService slotService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public AppointmentImportService(AppointmentRepository appointmentRepository,
+                                    AvailabilityRepository availabilityRepository,
+                                    PatientRepository patientRepository,
+                                    DoctorRepository doctorRepository,
+                                    SlotService slotService,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ObjectMapper objectMapper,
+                                    @Value("${appointments.import.chunk-size:500}") int chunkSize,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.slotService = slotService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importAppointments(InputStream input, ImportFormat format) {
+        ImportReport report = new ImportReport();
+        // Availability windows per doctor and weekday, kept for the whole import (one entry per doctor)
+        Map<Long, List<TimeIntervalIndex<Availability>>> windows = new HashMap<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (AppointmentImportReader reader = new AppointmentImportReader(input, format, objectMapper)) {
+            RawRow raw;
+            while ((raw = reader.next()) != null) {
+                report.setTotalRows(report.getTotalRows() + 1);
+                if (raw.error() != null) {
+                    fail(report, new ImportRowError(raw.line(), raw.error()));
+                    continue;
+                }
+                try {
+                    chunk.add(ImportRow.parse(raw));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    fail(report, new ImportRowError(raw.line(), e.getMessage()));
+                    continue;
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, windows, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, windows, report);
+            }
+        } catch (IOException e) {
+            // Rows of earlier chunks stay imported; the report says where reading stopped
+            fail(report, new ImportRowError(report.getTotalRows() + 1, "Could not read import file: " + e.getMessage()));
+        }
+
+        log.info("Appointment import: {} rows, {} imported, {} failed",
+                report.getTotalRows(), report.getImportedRows(), report.getFailedRows());
+        return report;
+    }
+
+    private void importChunk(List<ImportRow> rows, Map<Long, List<TimeIntervalIndex<Availability>>> windows, ImportReport report) {
+        List<ImportRowError> errors = new ArrayList<>();
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                validate(rows, windows, accepted, errors);
+                persist(accepted);
+            });
+            report.setImportedRows(report.getImportedRows() + accepted.size());
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            // A booking made while the chunk was being validated; nothing of this chunk was written
+            log.warn("Appointment import chunk rolled back: {}", e.getMessage());
+            for (ImportRow row : accepted) {
+                errors.add(new ImportRowError(row.line(), "Chunk rolled back: " + e.getMessage()));
+            }
+        }
+        errors.sort(Comparator.comparingLong(ImportRowError::getLine));
+        errors.forEach(error -> fail(report, error));
+    }
+
+    private void validate(List<ImportRow> rows, Map<Long, List<TimeIntervalIndex<Availability>>> windows,
+                          List<ImportRow> accepted, List<ImportRowError> errors) {
+        Set<Long> patientIds = new HashSet<>();
+        Set<Long> doctorIds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (ImportRow row : rows) {
+            patientIds.add(row.patientId());
+            doctorIds.add(row.doctorId());
+            dates.add(row.date());
+        }
+
+        Set<Long> knownPatients = patientRepository.findAllById(patientIds).stream()
+                .map(Patient::getId)
+                .collect(Collectors.toSet());
+        Set<Long> knownDoctors = doctorRepository.findAllById(doctorIds).stream()
+                .map(Doctor::getId)
+                .collect(Collectors.toSet());
+        loadWindows(knownDoctors, windows);
+
+        // Occupancy of every doctor-day the chunk touches; accepted rows are added as we go
+        Map<DoctorDay, DayOccupancy> occupancy = knownDoctors.isEmpty() ? new HashMap<>()
+                : appointmentRepository.findActiveByDoctorIdInAndDateIn(knownDoctors, dates).stream()
+                        .collect(Collectors.groupingBy(a -> new DoctorDay(a.getDoctorId(), a.getAppointmentDate()),
+                                Collectors.collectingAndThen(Collectors.toList(), DayOccupancy::of)));
+
+        for (ImportRow row : rows) {
+            if (!knownPatients.contains(row.patientId())) {
+                errors.add(new ImportRowError(row.line(), "Unknown patient " + row.patientId()));
+                continue;
+            }
+            if (!knownDoctors.contains(row.doctorId())) {
+                errors.add(new ImportRowError(row.line(), "Unknown doctor " + row.doctorId()));
+                continue;
+            }
+
+            LocalTime endTime = resolveEndTime(row, windows.get(row.doctorId()));
+            if (endTime == null) {
+                errors.add(new ImportRowError(row.line(), "Slot is not available in doctor's schedule"));
+                continue;
+            }
+
+            // Cancelled and expired rows never conflict: uq_appointments_active_slot only covers active ones
+            if (row.isActive()) {
+                DayOccupancy day = occupancy.computeIfAbsent(new DoctorDay(row.doctorId(), row.date()), key -> new DayOccupancy());
+                int start = DayOccupancy.toMinute(row.startTime());
+                int end = DayOccupancy.toEndMinute(row.startTime(), endTime);
+                if (!day.isFree(start, end)) {
+                    errors.add(new ImportRowError(row.line(), "Slot is already booked"));
+                    continue;
+                }
+                day.occupy(start, end);
+            }
+            accepted.add(row.withEndTime(endTime));
+        }
+    }
+
+    private void loadWindows(Set<Long> doctorIds, Map<Long, List<TimeIntervalIndex<Availability>>> windows) {
+        List<Long> missing = doctorIds.stream().filter(id -> !windows.containsKey(id)).collect(Collectors.toList());
+        if (missing.isEmpty()) return;
+
+        Map<Long, List<Availability>> byDoctor = availabilityRepository.findByDoctorIdIn(missing).stream()
+                .filter(Availability::getIsActive)
+                .collect(Collectors.groupingBy(Availability::getDoctorId));
+        for (Long doctorId : missing) {
+            List<List<Availability>> byDay = new ArrayList<>(7);
+            for (int day = 0; day < 7; day++) {
+                byDay.add(new ArrayList<>());
+            }
+            for (Availability availability : byDoctor.getOrDefault(doctorId, List.of())) {
+                byDay.get(availability.getDayOfWeek()).add(availability);
+            }
+            windows.put(doctorId, byDay.stream()
+                    .map(day -> TimeIntervalIndex.of(day, Availability::getStartTime, Availability::getEndTime))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * End time of the row: the one given in the file, or the slot duration of the window containing
+     * the start. Null when no window of that weekday offers the slot for the consultation type.
+     */
+    private LocalTime resolveEndTime(ImportRow row, List<TimeIntervalIndex<Availability>> doctorWindows) {
+        TimeIntervalIndex<Availability> dayWindows = doctorWindows.get(row.date().getDayOfWeek().getValue() % 7);
+        for (Availability availability : dayWindows.containing(row.startTime())) {
+            if (availability.getConsultationType() != ConsultationType.BOTH
+                    && availability.getConsultationType() != row.consultationType()) {
+                continue;
+            }
+            LocalTime endTime = row.endTime() != null
+                    ? row.endTime()
+                    : row.startTime().plusMinutes(availability.getSlotDuration());
+            int end = DayOccupancy.toEndMinute(row.startTime(), endTime);
+            if (end > DayOccupancy.toMinute(row.startTime())
+                    && end <= DayOccupancy.toEndMinute(availability.getStartTime(), availability.getEndTime())) {
+                return endTime;
+            }
+        }
+        return null;
+    }
+
+    private void persist(List<ImportRow> rows) {
+        Set<DoctorDay> days = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            entityManager.persist(row.toEntity());
+            days.add(new DoctorDay(row.doctorId(), row.date()));
+            // One JDBC batch per flush; clearing keeps the persistence context from growing with the chunk
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        LocalDate today = LocalDate.now();
+        for (DoctorDay day : days) {
+            if (day.date().isBefore(today)) continue;
+            slotService.refreshInventory(day);
+            eventPublisher.publishEvent(new SlotsChangedEvent(day.doctorId(), day.date()));
+        }
+    }
+
+    private static void fail(ImportReport report, ImportRowError error) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(error);
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * One parsed line of the import file.
+     */
+    private record ImportRow(long line, Long patientId, Long doctorId, LocalDate date, LocalTime startTime,
+                             LocalTime endTime, ConsultationType consultationType, AppointmentStatus status,
+                             String reason, String notes) {
+
+        static ImportRow parse(RawRow raw) {
+            ConsultationType consultationType = parseEnum(ConsultationType.class, "consultation_type", required(raw, "consultation_type"));
+            if (consultationType == ConsultationType.BOTH) {
+                throw new IllegalArgumentException("Consultation type must be IN_PERSON or ONLINE");
+            }
+            // PENDING is a booking awaiting online payment, expired by AppointmentExpiryService after a few minutes:
+            // imported appointments have no payment in progress, and are confirmed unless the file says otherwise
+            AppointmentStatus status = raw.get("status") != null
+                    ? parseEnum(AppointmentStatus.class, "status", raw.get("status"))
+                    : AppointmentStatus.CONFIRMED;
+            if (status == AppointmentStatus.PENDING) {
+                throw new IllegalArgumentException("Imported appointments cannot be PENDING");
+            }
+            String endTime = raw.get("end_time");
+            return new ImportRow(
+                    raw.line(),
+                    parseId("patient_id", required(raw, "patient_id")),
+                    parseId("doctor_id", required(raw, "doctor_id")),
+                    LocalDate.parse(required(raw, "appointment_date")),
+                    LocalTime.parse(required(raw, "start_time")),
+                    endTime != null ? LocalTime.parse(endTime) : null,
+                    consultationType,
+                    status,
+                    raw.get("reason"),
+                    raw.get("notes"));
+        }
+
+        boolean isActive() {
+            return status != AppointmentStatus.CANCELLED_BY_PATIENT && status != AppointmentStatus.CANCELLED_BY_DOCTOR
+                    && status != AppointmentStatus.EXPIRED;
+        }
+
+        ImportRow withEndTime(LocalTime resolvedEndTime) {
+            return new ImportRow(line, patientId, doctorId, date, startTime, resolvedEndTime, consultationType, status, reason, notes);
+        }
+
+        Appointment toEntity() {
+            Appointment appointment = new Appointment();
+            appointment.setPatientId(patientId);
+            appointment.setDoctorId(doctorId);
+            appointment.setAppointmentDate(date);
+            appointment.setStartTime(startTime);
+            appointment.setEndTime(endTime);
+            appointment.setConsultationType(consultationType);
+            appointment.setStatus(status);
+            appointment.setReason(reason);
+            appointment.setNotes(notes);
+            return appointment;
+        }
+
+        private static String required(RawRow raw, String name) {
+            String value = raw.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing " + name);
+            }
+            return value;
+        }
+
+        private static Long parseId(String name, String value) {
+            try {
+                return Long.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+            try {
+                return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.medical.appointment.service;
 
+import com.medical.appointment.dto.AppointmentConnection;
 import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.dto.AppointmentEdge;
+import com.medical.appointment.dto.AppointmentInfoDTO;
 import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.appointment.dto.CreateAppointmentSeriesInput;
+import com.medical.appointment.dto.PageInfo;
+import com.medical.appointment.dto.SlotHoldDTO;
+import com.medical.appointment.dto.SlotHoldInput;
 import com.medical.appointment.model.Appointment;
 import com.medical.appointment.model.Availability;
 import com.medical.appointment.model.Patient;
@@ -9,41 +16,115 @@ import com.medical.appointment.repository.AppointmentRepository;
 import com.medical.appointment.repository.AvailabilityRepository;
 import com.medical.appointment.repository.PatientRepository;
 import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
 import com.medical.common.exception.NotFoundException;
 import com.medical.common.exception.ValidationException;
+import com.medical.common.time.TimeIntervalIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AppointmentService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_INFO_BATCH_SIZE = 5000;
+    // Open bounds of the history filters, kept inside the PostgreSQL date range
+    static final LocalDate EARLIEST_DATE = LocalDate.of(1970, 1, 1);
+    static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final AvailabilityRepository availabilityRepository;
+    private final SlotService slotService;
+    private final SlotHoldService slotHoldService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // Read paths query DTO projections in read-only transactions (no flush, no entity snapshots)
+    @Transactional(readOnly = true)
     public AppointmentDTO getAppointmentById(Long id) {
-        Appointment appointment = appointmentRepository.findById(id)
+        return appointmentRepository.findDtoById(id)
                 .orElseThrow(() -> new NotFoundException("Appointment not found"));
-        return AppointmentDTO.fromEntity(appointment);
     }
 
+    /**
+     * Not read-only on purpose: payment-service asks as soon as the appointment is booked, before a
+     * read replica may have caught up, so this reads the primary.
+     */
+    public AppointmentInfoDTO getAppointmentInfo(Long id) {
+        return appointmentRepository.findInfoById(id)
+                .orElseThrow(() -> new NotFoundException("Appointment not found"));
+    }
+
+    /**
+     * Info of many appointments in one query, ordered by id; unknown ids are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentInfoDTO> getAppointmentInfos(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_INFO_BATCH_SIZE) {
+            throw new ValidationException("At most " + MAX_INFO_BATCH_SIZE + " appointments per batch");
+        }
+        return appointmentRepository.findInfoByIdIn(distinct);
+    }
+
+    @Transactional(readOnly = true)
     public List<AppointmentDTO> getAppointmentsByPatient(Long patientId) {
-        return appointmentRepository.findByPatientId(patientId).stream()
-                .map(AppointmentDTO::fromEntity)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDtosByPatientId(patientId);
     }
 
+    @Transactional(readOnly = true)
     public List<AppointmentDTO> getAppointmentsByDoctor(Long doctorId) {
-        return appointmentRepository.findByDoctorId(doctorId).stream()
-                .map(AppointmentDTO::fromEntity)
-                .collect(Collectors.toList());
+        return appointmentRepository.findDtosByDoctorId(doctorId);
+    }
+
+    /**
+     * Weak ETag of {@link #getAppointmentsByDoctor(Long)}, derived from the stored rows so that every
+     * instance gives the same tag. Read it before the agenda, so a response is never older than its tag.
+     */
+    @Transactional(readOnly = true)
+    public String getAgendaETag(Long doctorId) {
+        return "W/\"" + appointmentRepository.findAgendaStamp(doctorId) + "\"";
+    }
+
+    /**
+     * One page of the doctor's appointments ordered by date, start time and id.
+     * {@code from}, {@code to}, {@code statuses} and {@code after} are optional.
+     */
+    @Transactional(readOnly = true)
+    public AppointmentConnection getAppointmentsByDoctor(Long doctorId, LocalDate from, LocalDate to,
+                                                         Collection<AppointmentStatus> statuses, String after, Integer first) {
+        return page(from, to, statuses, after, first, (upTo, statusFilter, cursor, pageable) ->
+                appointmentRepository.findDoctorPage(doctorId, upTo, statusFilter,
+                        cursor.date(), cursor.startTime(), cursor.id(), pageable));
+    }
+
+    /**
+     * Same as {@link #getAppointmentsByDoctor(Long, LocalDate, LocalDate, Collection, String, Integer)} for a patient.
+     */
+    @Transactional(readOnly = true)
+    public AppointmentConnection getAppointmentsByPatient(Long patientId, LocalDate from, LocalDate to,
+                                                          Collection<AppointmentStatus> statuses, String after, Integer first) {
+        return page(from, to, statuses, after, first, (upTo, statusFilter, cursor, pageable) ->
+                appointmentRepository.findPatientPage(patientId, upTo, statusFilter,
+                        cursor.date(), cursor.startTime(), cursor.id(), pageable));
     }
 
     @Transactional
@@ -56,67 +137,186 @@ public class AppointmentService {
         // We assume doctorId is valid or we catch exception
 
         // 3. Check availability
-        int dayOfWeek = input.getAppointmentDate().getDayOfWeek().getValue() % 7;
-        if (dayOfWeek == 7) dayOfWeek = 0;
+        LocalTime endTime = resolveEndTime(input.getDoctorId(), input.getAppointmentDate(),
+                input.getStartTime(), input.getConsultationType());
 
-        List<Availability> availabilities = availabilityRepository.findByDoctorIdAndDayOfWeek(input.getDoctorId(), dayOfWeek);
-        
-        boolean isSlotValid = false;
-        LocalTime endTime = null;
-
-        for (Availability availability : availabilities) {
-            if (!availability.getIsActive()) continue;
-            
-            // Check if time is within range
-            if (!input.getStartTime().isBefore(availability.getStartTime()) && 
-                input.getStartTime().isBefore(availability.getEndTime())) {
-                
-                // Check consultation type
-                if (availability.getConsultationType() != com.medical.common.enums.ConsultationType.BOTH &&
-                    availability.getConsultationType() != input.getConsultationType()) {
-                    continue;
-                }
-
-                // Calculate end time
-                endTime = input.getStartTime().plusMinutes(availability.getSlotDuration());
-                
-                // Check if end time is valid
-                if (endTime.isAfter(availability.getEndTime())) {
-                    continue;
-                }
-
-                isSlotValid = true;
-                break;
-            }
+        // 4. Check collisions, with appointments and with other patients' checkout holds
+        checkNotBooked(input.getDoctorId(), input.getAppointmentDate(), input.getStartTime(), endTime);
+        DoctorDay day = new DoctorDay(input.getDoctorId(), input.getAppointmentDate());
+        if (slotHoldService.isHeldByOther(day, DayOccupancy.toMinute(input.getStartTime()), DayOccupancy.toMinute(endTime), patient.getId())) {
+            throw new ValidationException("Slot is currently held by another patient");
         }
 
-        if (!isSlotValid) {
+        // 5. Create appointment
+        Appointment appointment = new Appointment();
+        appointment.setPatientId(patient.getId());
+        appointment.setDoctorId(input.getDoctorId());
+        appointment.setAppointmentDate(input.getAppointmentDate());
+        appointment.setStartTime(input.getStartTime());
+        appointment.setEndTime(endTime);
+        appointment.setConsultationType(input.getConsultationType());
+        appointment.setStatus(AppointmentStatus.PENDING);
+        appointment.setReason(input.getReason());
+
+        appointment = appointmentRepository.save(appointment);
+        slotService.refreshInventory(day);
+        slotHoldService.releaseFor(day, patient.getId());
+        // Cached slots of that day are dropped once the transaction commits
+        eventPublisher.publishEvent(new SlotsChangedEvent(appointment.getDoctorId(), appointment.getAppointmentDate()));
+        eventPublisher.publishEvent(new AppointmentBookedEvent(appointment.getId(), appointment.getDoctorId(), appointment.getPatientId(),
+                appointment.getAppointmentDate(), appointment.getStartTime()));
+        return AppointmentDTO.fromEntity(appointment);
+    }
+
+    /**
+     * Booking path of {@link BookingMode#STRIPED}, called with the doctor-day lock held.
+     * Checks the slot against the cached day schedule instead of re-reading the day's appointments;
+     * the unique constraint catches concurrent bookings made by other instances.
+     */
+    @Transactional
+    public AppointmentDTO createAppointmentUnderLock(Long userId, CreateAppointmentInput input) {
+        Patient patient = patientRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Patient profile not found"));
+
+        DoctorDay day = new DoctorDay(input.getDoctorId(), input.getAppointmentDate());
+        DaySchedule schedule = slotService.getDaySchedule(day);
+        int start = DayOccupancy.toMinute(input.getStartTime());
+        int end = schedule.slotEnd(start, input.getConsultationType());
+        if (end < 0) {
             throw new ValidationException("Selected slot is not available in doctor's schedule");
         }
-
-        // 4. Check collisions
-        List<Appointment> existing = appointmentRepository.findActiveByDoctorAndDate(input.getDoctorId(), input.getAppointmentDate());
-        for (Appointment appt : existing) {
-            if (isOverlapping(input.getStartTime(), endTime, appt.getStartTime(), appt.getEndTime())) {
-                throw new ValidationException("Slot is already booked");
-            }
+        if (!schedule.isFree(start, end)) {
+            throw new ValidationException("Slot is already booked");
+        }
+        if (slotHoldService.isHeldByOther(day, start, end, patient.getId())) {
+            throw new ValidationException("Slot is currently held by another patient");
         }
 
-        // 5. Create appointment
         Appointment appointment = new Appointment();
         appointment.setPatientId(patient.getId());
         appointment.setDoctorId(input.getDoctorId());
         appointment.setAppointmentDate(input.getAppointmentDate());
         appointment.setStartTime(input.getStartTime());
-        appointment.setEndTime(endTime);
+        appointment.setEndTime(DayOccupancy.toTime(end));
         appointment.setConsultationType(input.getConsultationType());
         appointment.setStatus(AppointmentStatus.PENDING);
         appointment.setReason(input.getReason());
 
-        appointment = appointmentRepository.save(appointment);
+        try {
+            // Flush now so a duplicate fails here, not at commit
+            appointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException("Slot is already booked");
+        }
+        slotService.refreshInventory(day);
+        slotHoldService.releaseFor(day, patient.getId());
+        eventPublisher.publishEvent(new SlotsChangedEvent(appointment.getDoctorId(), appointment.getAppointmentDate()));
+        eventPublisher.publishEvent(new AppointmentBookedEvent(appointment.getId(), appointment.getDoctorId(), appointment.getPatientId(),
+                appointment.getAppointmentDate(), appointment.getStartTime()));
         return AppointmentDTO.fromEntity(appointment);
     }
 
+    /**
+     * Books a weekly series for the patient. Every occurrence falls on the same weekday, so the
+     * availability windows and the existing appointments of the whole range are read once; all
+     * conflicting dates are reported together and nothing is inserted unless the whole series fits.
+     */
+    @Transactional
+    public List<AppointmentDTO> createAppointmentSeries(Long userId, CreateAppointmentSeriesInput input) {
+        Patient patient = patientRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Patient profile not found"));
+
+        int intervalWeeks = input.getIntervalWeeks() != null ? input.getIntervalWeeks() : 1;
+        List<LocalDate> dates = new ArrayList<>(input.getOccurrences());
+        for (int i = 0; i < input.getOccurrences(); i++) {
+            dates.add(input.getFirstDate().plusWeeks((long) i * intervalWeeks));
+        }
+        LocalDate lastDate = dates.get(dates.size() - 1);
+
+        // 1. Availability, resolved once for the shared weekday
+        LocalTime endTime = resolveEndTime(activeWindows(input.getDoctorId(), input.getFirstDate()),
+                input.getStartTime(), input.getConsultationType());
+
+        // 2. Collisions over the whole range, in one query
+        Map<LocalDate, List<Appointment>> existingByDate = appointmentRepository
+                .findActiveByDoctorAndDateBetween(input.getDoctorId(), input.getFirstDate(), lastDate).stream()
+                .collect(Collectors.groupingBy(Appointment::getAppointmentDate));
+        int start = DayOccupancy.toMinute(input.getStartTime());
+        int end = DayOccupancy.toMinute(endTime);
+        List<LocalDate> conflicts = new ArrayList<>();
+        for (LocalDate date : dates) {
+            List<Appointment> existing = existingByDate.get(date);
+            boolean booked = existing != null
+                    && TimeIntervalIndex.of(existing, Appointment::getStartTime, Appointment::getEndTime).overlaps(input.getStartTime(), endTime);
+            if (booked || slotHoldService.isHeldByOther(new DoctorDay(input.getDoctorId(), date), start, end, patient.getId())) {
+                conflicts.add(date);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new ValidationException("Slot is not available on " + conflicts.stream()
+                    .map(LocalDate::toString)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        // 3. Insert every occurrence in JDBC batches
+        List<Appointment> appointments = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            Appointment appointment = new Appointment();
+            appointment.setPatientId(patient.getId());
+            appointment.setDoctorId(input.getDoctorId());
+            appointment.setAppointmentDate(date);
+            appointment.setStartTime(input.getStartTime());
+            appointment.setEndTime(endTime);
+            appointment.setConsultationType(input.getConsultationType());
+            appointment.setStatus(AppointmentStatus.PENDING);
+            appointment.setReason(input.getReason());
+            appointments.add(appointment);
+        }
+        try {
+            // Flush now so a concurrent booking fails here and rolls back the whole series
+            appointments = appointmentRepository.saveAllAndFlush(appointments);
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException("Slot is already booked");
+        }
+
+        for (LocalDate date : dates) {
+            DoctorDay day = new DoctorDay(input.getDoctorId(), date);
+            slotService.refreshInventory(day);
+            slotHoldService.releaseFor(day, patient.getId());
+            eventPublisher.publishEvent(new SlotsChangedEvent(input.getDoctorId(), date));
+        }
+        for (Appointment appointment : appointments) {
+            eventPublisher.publishEvent(new AppointmentBookedEvent(appointment.getId(), appointment.getDoctorId(), appointment.getPatientId(),
+                appointment.getAppointmentDate(), appointment.getStartTime()));
+        }
+        return appointments.stream()
+                .map(AppointmentDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reserves a slot for the patient while they go through checkout.
+     */
+    public SlotHoldDTO holdSlot(Long userId, SlotHoldInput input) {
+        Patient patient = patientRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Patient profile not found"));
+
+        LocalTime endTime = resolveEndTime(input.getDoctorId(), input.getAppointmentDate(),
+                input.getStartTime(), input.getConsultationType());
+
+        checkNotBooked(input.getDoctorId(), input.getAppointmentDate(), input.getStartTime(), endTime);
+
+        SlotHold hold = slotHoldService.hold(new DoctorDay(input.getDoctorId(), input.getAppointmentDate()),
+                DayOccupancy.toMinute(input.getStartTime()), DayOccupancy.toMinute(endTime), patient.getId());
+        return SlotHoldDTO.fromHold(hold);
+    }
+
+    public void releaseHold(Long userId, String holdId) {
+        Patient patient = patientRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Patient profile not found"));
+        slotHoldService.release(holdId, patient.getId());
+    }
+
     @Transactional
     public AppointmentDTO cancelAppointment(Long userId, Long appointmentId, String reason) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
@@ -132,17 +332,31 @@ public class AppointmentService {
         }
         // TODO: Handle doctor cancellation logic
 
+        boolean wasActive = appointment.getStatus() == AppointmentStatus.PENDING
+                || appointment.getStatus() == AppointmentStatus.CONFIRMED;
         appointment.setStatus(AppointmentStatus.CANCELLED_BY_PATIENT);
         appointment.setNotes(reason != null ? "Cancelled: " + reason : "Cancelled by patient");
         
         appointment = appointmentRepository.save(appointment);
+        DoctorDay day = new DoctorDay(appointment.getDoctorId(), appointment.getAppointmentDate());
+        slotService.refreshInventory(day);
+        eventPublisher.publishEvent(new SlotsChangedEvent(appointment.getDoctorId(), appointment.getAppointmentDate()));
+        if (wasActive) {
+            // Offered to the waitlist once the transaction commits
+            eventPublisher.publishEvent(new SlotFreedEvent(day, DayOccupancy.toMinute(appointment.getStartTime()),
+                    DayOccupancy.toEndMinute(appointment.getStartTime(), appointment.getEndTime()), appointment.getPatientId()));
+        }
         return AppointmentDTO.fromEntity(appointment);
     }
 
     @Transactional
     public AppointmentDTO confirmAppointment(Long appointmentId) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
+        // Locked so an expiry sweep cannot release the slot while the payment is being confirmed
+        Appointment appointment = appointmentRepository.findByIdForUpdate(appointmentId)
                 .orElseThrow(() -> new NotFoundException("Appointment not found"));
+        if (appointment.getStatus() == AppointmentStatus.EXPIRED) {
+            throw new ValidationException("Appointment expired before payment was completed");
+        }
 
         appointment.setStatus(AppointmentStatus.CONFIRMED);
         appointment = appointmentRepository.save(appointment);
@@ -162,8 +376,84 @@ public class AppointmentService {
         return AppointmentDTO.fromEntity(appointment);
     }
 
-    private boolean isOverlapping(LocalTime start1, LocalTime end1, LocalTime start2, LocalTime end2) {
-        return start1.isBefore(end2) && start2.isBefore(end1);
+    private AppointmentConnection page(LocalDate from, LocalDate to, Collection<AppointmentStatus> statuses,
+                                       String after, Integer first, PageQuery query) {
+        int size = first != null ? first : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+
+        // A cursor already lies past the start of the range
+        AppointmentCursor cursor = after != null
+                ? AppointmentCursor.decode(after)
+                : AppointmentCursor.startOf(from != null ? from : EARLIEST_DATE);
+        Collection<AppointmentStatus> statusFilter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(AppointmentStatus.class)
+                : statuses;
+
+        // One extra row tells whether another page follows
+        List<AppointmentDTO> rows = query.fetch(to != null ? to : LATEST_DATE, statusFilter, cursor, PageRequest.of(0, size + 1));
+        boolean hasNextPage = rows.size() > size;
+
+        List<AppointmentEdge> edges = new ArrayList<>(Math.min(rows.size(), size));
+        for (AppointmentDTO appointment : hasNextPage ? rows.subList(0, size) : rows) {
+            edges.add(new AppointmentEdge(AppointmentCursor.of(appointment).encode(), appointment));
+        }
+        String endCursor = edges.isEmpty() ? null : edges.get(edges.size() - 1).getCursor();
+        return new AppointmentConnection(edges, new PageInfo(hasNextPage, endCursor));
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<AppointmentDTO> fetch(LocalDate to, Collection<AppointmentStatus> statuses, AppointmentCursor after, Pageable pageable);
+    }
+
+    /**
+     * End time of the slot starting at {@code startTime}, or a ValidationException when no active
+     * availability window of the doctor offers it for that consultation type.
+     */
+    private LocalTime resolveEndTime(Long doctorId, LocalDate date, LocalTime startTime, ConsultationType consultationType) {
+        return resolveEndTime(activeWindows(doctorId, date), startTime, consultationType);
+    }
+
+    private TimeIntervalIndex<Availability> activeWindows(Long doctorId, LocalDate date) {
+        int dayOfWeek = date.getDayOfWeek().getValue() % 7;
+
+        List<Availability> availabilities = availabilityRepository.findByDoctorIdAndDayOfWeek(doctorId, dayOfWeek).stream()
+                .filter(Availability::getIsActive)
+                .collect(Collectors.toList());
+        return TimeIntervalIndex.of(availabilities, Availability::getStartTime, Availability::getEndTime);
+    }
+
+    private LocalTime resolveEndTime(TimeIntervalIndex<Availability> windows, LocalTime startTime, ConsultationType consultationType) {
+        // Only the windows containing the start time
+        for (Availability availability : windows.containing(startTime)) {
+            // Check consultation type
+            if (availability.getConsultationType() != ConsultationType.BOTH &&
+                availability.getConsultationType() != consultationType) {
+                continue;
+            }
+
+            // Calculate end time, which must stay inside the window
+            LocalTime endTime = startTime.plusMinutes(availability.getSlotDuration());
+            if (endTime.isAfter(availability.getEndTime())) {
+                continue;
+            }
+
+            return endTime;
+        }
+
+        throw new ValidationException("Selected slot is not available in doctor's schedule");
+    }
+
+    private void checkNotBooked(Long doctorId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        List<Appointment> existing = appointmentRepository.findActiveByDoctorAndDate(doctorId, date);
+        if (TimeIntervalIndex.of(existing, Appointment::getStartTime, Appointment::getEndTime).overlaps(startTime, endTime)) {
+            throw new ValidationException("Slot is already booked");
+        }
     }
 
 }
@@ -0,0 +1,18 @@
+package com.medical.appointment.service;
+
+/**
+ * How {@link BookingService} guards against double booking.
+ */
+public enum BookingMode {
+
+    /**
+     * Reads the day's appointments and checks overlaps before inserting (original behaviour).
+     */
+    CHECKED,
+
+    /**
+     * Serializes attempts per doctor-day on an in-JVM lock, checks against the cached day schedule
+     * and lets the UNIQUE(doctor_id, appointment_date, start_time) constraint reject what slips through.
+     */
+    STRIPED
+}
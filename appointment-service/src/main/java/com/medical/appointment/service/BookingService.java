@@ -0,0 +1,68 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.common.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Entry point for bookings, dispatching on {@code booking.mode}.
+ * In STRIPED mode the doctor-day lock is taken outside the transaction and released only after
+ * commit, so the next attempt on that day already sees the new appointment in the slot cache.
+ * Attempts on a slot the cache already shows as taken are turned away before taking the lock.
+ */
+@Service
+public class BookingService {
+
+    private final AppointmentService appointmentService;
+    private final SlotService slotService;
+    private final DoctorDayLocks doctorDayLocks;
+    private final BookingMode mode;
+    private final Duration lockTimeout;
+
+    public BookingService(AppointmentService appointmentService,
+                          SlotService slotService,
+                          DoctorDayLocks doctorDayLocks,
+                          @Value("${booking.mode:CHECKED}") BookingMode mode,
+                          @Value("${booking.lock-timeout:PT2S}") Duration lockTimeout) {
+        this.appointmentService = appointmentService;
+        this.slotService = slotService;
+        this.doctorDayLocks = doctorDayLocks;
+        this.mode = mode;
+        this.lockTimeout = lockTimeout;
+    }
+
+    public AppointmentDTO book(Long userId, CreateAppointmentInput input) {
+        if (mode == BookingMode.CHECKED) {
+            return appointmentService.createAppointment(userId, input);
+        }
+
+        // Fast fail without queueing on the lock when the cache already shows the slot as taken
+        DoctorDay day = new DoctorDay(input.getDoctorId(), input.getAppointmentDate());
+        int start = DayOccupancy.toMinute(input.getStartTime());
+        if (!slotService.getDaySchedule(day).isFree(start, start + 1)) {
+            throw new ValidationException("Slot is already booked");
+        }
+
+        Lock lock = doctorDayLocks.lockFor(day);
+        try {
+            if (!lock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ValidationException("Too many concurrent bookings for this day, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Booking interrupted");
+        }
+        try {
+            return appointmentService.createAppointmentUnderLock(userId, input);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.DaySlotsDTO;
+import com.medical.appointment.dto.TimeSlot;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Minute-resolution occupancy bitmap of one doctor-day.
+ * Built once from the day's active appointments, it answers "is [from, to) free?"
+ * with a couple of word operations instead of a scan over every appointment.
+ */
+public final class DayOccupancy {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) >>> 6;
+
+    private final long[] words = new long[WORDS];
+
+    public static DayOccupancy of(Collection<Appointment> appointments) {
+        DayOccupancy occupancy = new DayOccupancy();
+        for (Appointment appt : appointments) {
+            occupancy.occupy(toMinute(appt.getStartTime()), toEndMinute(appt.getStartTime(), appt.getEndTime()));
+        }
+        return occupancy;
+    }
+
+    public DayOccupancy copy() {
+        DayOccupancy copy = new DayOccupancy();
+        System.arraycopy(words, 0, copy.words, 0, WORDS);
+        return copy;
+    }
+
+    /**
+     * Marks the half-open minute range [from, to) as taken.
+     */
+    public void occupy(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, MINUTES_PER_DAY);
+        if (from >= to) return;
+
+        int fromWord = from >>> 6;
+        int toWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (fromWord == toWord) {
+            words[fromWord] |= firstMask & lastMask;
+            return;
+        }
+        words[fromWord] |= firstMask;
+        for (int i = fromWord + 1; i < toWord; i++) {
+            words[i] = -1L;
+        }
+        words[toWord] |= lastMask;
+    }
+
+    /**
+     * True when no minute of the half-open range [from, to) is taken.
+     */
+    public boolean isFree(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, MINUTES_PER_DAY);
+        if (from >= to) return true;
+
+        int fromWord = from >>> 6;
+        int toWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (fromWord == toWord) {
+            return (words[fromWord] & firstMask & lastMask) == 0;
+        }
+        if ((words[fromWord] & firstMask) != 0) return false;
+        for (int i = fromWord + 1; i < toWord; i++) {
+            if (words[i] != 0) return false;
+        }
+        return (words[toWord] & lastMask) == 0;
+    }
+
+    /**
+     * Expands one availability window into consecutive slots, appending them to {@code out}.
+     * Slots starting before {@code notBefore} (minute of day) are reported as unavailable.
+     */
+    public void appendSlots(Availability availability, int notBefore, List<TimeSlot> out) {
+        int start = toMinute(availability.getStartTime());
+        int end = toMinute(availability.getEndTime());
+        int duration = availability.getSlotDuration();
+        if (duration <= 0) return;
+
+        // Consecutive slots share their boundary, so each LocalTime is created once
+        LocalTime slotStart = availability.getStartTime();
+        for (int minute = start; minute + duration <= end; minute += duration) {
+            LocalTime slotEnd = toTime(minute + duration);
+            boolean isAvailable = minute >= notBefore && isFree(minute, minute + duration);
+            out.add(new TimeSlot(slotStart, slotEnd, isAvailable));
+            slotStart = slotEnd;
+        }
+    }
+
+    /**
+     * Expands the day's active availability windows into the compact {@link DaySlotsDTO} encoding,
+     * without creating a LocalTime or TimeSlot per slot.
+     */
+    public DaySlotsDTO toDaySlots(LocalDate date, List<Availability> availabilities, int notBefore) {
+        int count = 0;
+        for (Availability availability : availabilities) {
+            if (!availability.getIsActive() || availability.getSlotDuration() <= 0) continue;
+            int span = toMinute(availability.getEndTime()) - toMinute(availability.getStartTime());
+            if (span > 0) count += span / availability.getSlotDuration();
+        }
+
+        int[] startMinutes = new int[count];
+        int[] durations = new int[count];
+        char[] bits = new char[count];
+        int i = 0;
+        for (Availability availability : availabilities) {
+            if (!availability.getIsActive() || availability.getSlotDuration() <= 0) continue;
+            int end = toMinute(availability.getEndTime());
+            int duration = availability.getSlotDuration();
+            for (int minute = toMinute(availability.getStartTime()); minute + duration <= end; minute += duration) {
+                startMinutes[i] = minute;
+                durations[i] = duration;
+                bits[i] = minute >= notBefore && isFree(minute, minute + duration) ? '1' : '0';
+                i++;
+            }
+        }
+        return new DaySlotsDTO(date, startMinutes, durations, new String(bits));
+    }
+
+    public static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Minute of day rounded up, so that 10:00:30 does not accept a 10:00 slot.
+     */
+    public static int ceilMinute(LocalTime time) {
+        int minute = toMinute(time);
+        return (time.getSecond() > 0 || time.getNano() > 0) ? minute + 1 : minute;
+    }
+
+    /**
+     * End minute of an interval; an end before the start means it runs until midnight.
+     */
+    public static int toEndMinute(LocalTime start, LocalTime end) {
+        int endMinute = ceilMinute(end);
+        return endMinute < toMinute(start) ? MINUTES_PER_DAY : endMinute;
+    }
+
+    public static LocalTime toTime(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.DaySlotsDTO;
+import com.medical.appointment.dto.TimeSlot;
+import com.medical.appointment.model.Availability;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.time.TimeIntervalIndex;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything needed to render a doctor-day: its active availability windows and the occupancy
+ * of its booked appointments. Instances are cached and shared, so they are never mutated;
+ * time-dependent filtering (slots already past today) is applied on every read.
+ */
+public final class DaySchedule {
+
+    private final List<Availability> availabilities;
+    private final TimeIntervalIndex<Availability> windows;
+    private final DayOccupancy occupancy;
+
+    public DaySchedule(List<Availability> availabilities, DayOccupancy occupancy) {
+        this(List.copyOf(availabilities),
+                TimeIntervalIndex.of(availabilities, Availability::getStartTime, Availability::getEndTime),
+                occupancy);
+    }
+
+    private DaySchedule(List<Availability> availabilities, TimeIntervalIndex<Availability> windows, DayOccupancy occupancy) {
+        this.availabilities = availabilities;
+        this.windows = windows;
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * The schedule with the given holds marked as taken; the cached instance is left untouched.
+     */
+    public DaySchedule withHolds(List<SlotHold> holds) {
+        if (holds.isEmpty()) {
+            return this;
+        }
+        DayOccupancy held = occupancy.copy();
+        for (SlotHold hold : holds) {
+            held.occupy(hold.start(), hold.end());
+        }
+        return new DaySchedule(availabilities, windows, held);
+    }
+
+    /**
+     * End minute of the slot starting at {@code start} offered by a window accepting the
+     * consultation type, or -1 when the schedule has no such slot.
+     */
+    public int slotEnd(int start, ConsultationType consultationType) {
+        for (Availability availability : windows.containing(DayOccupancy.toTime(start))) {
+            if (availability.getConsultationType() != ConsultationType.BOTH
+                    && availability.getConsultationType() != consultationType) continue;
+
+            int end = start + availability.getSlotDuration();
+            if (end <= DayOccupancy.toMinute(availability.getEndTime())) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isFree(int from, int to) {
+        return occupancy.isFree(from, to);
+    }
+
+    public List<TimeSlot> toTimeSlots(int notBefore) {
+        List<TimeSlot> slots = new ArrayList<>();
+        for (Availability availability : availabilities) {
+            occupancy.appendSlots(availability, notBefore, slots);
+        }
+        return slots;
+    }
+
+    public DaySlotsDTO toDaySlots(LocalDate date, int notBefore) {
+        return occupancy.toDaySlots(date, availabilities, notBefore);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.medical.appointment.service;
+
+import java.time.LocalDate;
+
+/**
+ * Cache key of one doctor's calendar day.
+ */
+public record DoctorDay(Long doctorId, LocalDate date) {
+}
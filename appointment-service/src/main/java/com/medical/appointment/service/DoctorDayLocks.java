@@ -0,0 +1,35 @@
+package com.medical.appointment.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared by all doctor-days: memory stays constant however many days are
+ * booked, at the price of two unrelated days occasionally waiting on the same stripe.
+ */
+@Component
+public class DoctorDayLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public DoctorDayLocks(@Value("${booking.lock-stripes:256}") int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock lockFor(DoctorDay day) {
+        int hash = day.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.EarliestSlotDTO;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Doctor;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.DoctorRepository;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Answers "who can see me soonest?" across every doctor of a specialty/city.
+ * Each doctor contributes a lazy stream of free slots, expanded one day at a time;
+ * the streams are merged through a priority queue and the search stops after the first K slots.
+ */
+@Service
+@RequiredArgsConstructor
+public class EarliestSlotFinder {
+
+    static final int MAX_HORIZON_DAYS = 60;
+    static final int MAX_RESULTS = 50;
+
+    private final DoctorRepository doctorRepository;
+    private final AvailabilityRepository availabilityRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final SlotHoldService slotHoldService;
+
+    @Transactional(readOnly = true)
+    public List<EarliestSlotDTO> findEarliest(String specialty, String city, ConsultationType consultationType,
+                                              int horizonDays, int limit) {
+        if (horizonDays < 1 || horizonDays > MAX_HORIZON_DAYS) {
+            throw new ValidationException("Horizon must be between 1 and " + MAX_HORIZON_DAYS + " days");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_RESULTS);
+        }
+
+        // 1. Candidate doctors
+        List<Doctor> doctors = doctorRepository.searchDoctors(specialty, city);
+        if (doctors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).collect(Collectors.toList());
+
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays - 1);
+
+        // 2. Their rules and active appointments over the horizon, in two queries
+        Map<Long, List<Availability>> availabilitiesByDoctor = availabilityRepository.findByDoctorIdIn(doctorIds).stream()
+                .filter(availability -> availability.getIsActive() && accepts(availability, consultationType))
+                .collect(Collectors.groupingBy(Availability::getDoctorId));
+        Map<Long, List<Appointment>> appointmentsByDoctor = appointmentRepository
+                .findActiveByDoctorIdInAndDateBetween(doctorIds, from, to).stream()
+                .collect(Collectors.groupingBy(Appointment::getDoctorId));
+
+        // 3. K-way merge of the per-doctor free-slot streams
+        int nowMinute = DayOccupancy.ceilMinute(LocalTime.now());
+        PriorityQueue<DoctorSlotCursor> queue = new PriorityQueue<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            List<Availability> availabilities = availabilitiesByDoctor.get(doctor.getId());
+            if (availabilities == null) continue;
+
+            DoctorSlotCursor cursor = new DoctorSlotCursor(doctor, availabilities, slotHoldService,
+                    appointmentsByDoctor.getOrDefault(doctor.getId(), Collections.emptyList()), from, to, nowMinute);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        List<EarliestSlotDTO> results = new ArrayList<>(limit);
+        while (results.size() < limit && !queue.isEmpty()) {
+            DoctorSlotCursor cursor = queue.poll();
+            results.add(cursor.toDto());
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return results;
+    }
+
+    private boolean accepts(Availability availability, ConsultationType consultationType) {
+        return consultationType == null
+                || availability.getConsultationType() == ConsultationType.BOTH
+                || availability.getConsultationType() == consultationType;
+    }
+
+    /**
+     * Chronological stream of one doctor's free slots. A day is only expanded when the cursor reaches it.
+     */
+    private static final class DoctorSlotCursor implements Comparable<DoctorSlotCursor> {
+
+        private final Doctor doctor;
+        private final List<List<Availability>> availabilitiesByDay = new ArrayList<>(7);
+        private final Map<LocalDate, List<Appointment>> appointmentsByDate;
+        private final SlotHoldService slotHoldService;
+        private final LocalDate firstDate;
+        private final LocalDate lastDate;
+        private final int nowMinute;
+
+        private LocalDate date;
+        private List<Availability> dayAvailabilities;
+        private DayOccupancy occupancy;
+        private int notBefore;
+        // (start minute << 32 | index in dayAvailabilities), sorted by start
+        private long[] candidates = new long[0];
+        private int candidateIndex;
+
+        private int slotStart;
+        private Availability slotAvailability;
+
+        DoctorSlotCursor(Doctor doctor, List<Availability> availabilities, SlotHoldService slotHoldService,
+                         List<Appointment> appointments, LocalDate firstDate, LocalDate lastDate, int nowMinute) {
+            this.doctor = doctor;
+            for (int day = 0; day < 7; day++) {
+                availabilitiesByDay.add(new ArrayList<>());
+            }
+            for (Availability availability : availabilities) {
+                availabilitiesByDay.get(availability.getDayOfWeek()).add(availability);
+            }
+            this.slotHoldService = slotHoldService;
+            this.appointmentsByDate = appointments.stream().collect(Collectors.groupingBy(Appointment::getAppointmentDate));
+            this.firstDate = firstDate;
+            this.lastDate = lastDate;
+            this.nowMinute = nowMinute;
+        }
+
+        /**
+         * Moves to the next free slot; false once the horizon is exhausted.
+         */
+        boolean advance() {
+            while (true) {
+                while (candidateIndex < candidates.length) {
+                    long candidate = candidates[candidateIndex++];
+                    int start = (int) (candidate >>> 32);
+                    Availability availability = dayAvailabilities.get((int) candidate);
+                    int end = start + availability.getSlotDuration();
+                    if (start >= notBefore && occupancy.isFree(start, end)) {
+                        // Overlapping windows must not offer the same minutes twice
+                        occupancy.occupy(start, end);
+                        slotStart = start;
+                        slotAvailability = availability;
+                        return true;
+                    }
+                }
+                if (!nextDay()) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean nextDay() {
+            date = date == null ? firstDate : date.plusDays(1);
+            for (; !date.isAfter(lastDate); date = date.plusDays(1)) {
+                List<Availability> availabilities = availabilitiesByDay.get(date.getDayOfWeek().getValue() % 7);
+                if (!availabilities.isEmpty()) {
+                    expandDay(availabilities);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void expandDay(List<Availability> availabilities) {
+            int count = 0;
+            for (Availability availability : availabilities) {
+                int span = DayOccupancy.toMinute(availability.getEndTime()) - DayOccupancy.toMinute(availability.getStartTime());
+                if (availability.getSlotDuration() > 0 && span > 0) count += span / availability.getSlotDuration();
+            }
+
+            long[] dayCandidates = new long[count];
+            int i = 0;
+            for (int index = 0; index < availabilities.size(); index++) {
+                Availability availability = availabilities.get(index);
+                int end = DayOccupancy.toMinute(availability.getEndTime());
+                int duration = availability.getSlotDuration();
+                if (duration <= 0) continue;
+                for (int minute = DayOccupancy.toMinute(availability.getStartTime()); minute + duration <= end; minute += duration) {
+                    dayCandidates[i++] = ((long) minute << 32) | index;
+                }
+            }
+            Arrays.sort(dayCandidates);
+
+            dayAvailabilities = availabilities;
+            candidates = dayCandidates;
+            candidateIndex = 0;
+            occupancy = DayOccupancy.of(appointmentsByDate.getOrDefault(date, Collections.emptyList()));
+            for (SlotHold hold : slotHoldService.activeHolds(new DoctorDay(doctor.getId(), date))) {
+                occupancy.occupy(hold.start(), hold.end());
+            }
+            notBefore = date.equals(firstDate) ? nowMinute : 0;
+        }
+
+        EarliestSlotDTO toDto() {
+            return new EarliestSlotDTO(
+                    doctor.getId(),
+                    doctor.getFirstName(),
+                    doctor.getLastName(),
+                    doctor.getSpecialty(),
+                    doctor.getCity(),
+                    doctor.getConsultationFee(),
+                    date,
+                    DayOccupancy.toTime(slotStart),
+                    DayOccupancy.toTime(slotStart + slotAvailability.getSlotDuration()),
+                    slotAvailability.getConsultationType());
+        }
+
+        @Override
+        public int compareTo(DoctorSlotCursor other) {
+            int byDate = date.compareTo(other.date);
+            if (byDate != 0) return byDate;
+            int byStart = Integer.compare(slotStart, other.slotStart);
+            if (byStart != 0) return byStart;
+            return doctor.getId().compareTo(other.doctor.getId());
+        }
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.medical.appointment.service;
+
+/**
+ * Output formats of {@link AgendaExportService}.
+ */
+public enum ExportFormat {
+
+    /**
+     * Comma-separated values, same columns as the bulk import so an export can be imported elsewhere.
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * One JSON {@code AppointmentDTO} per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /**
+     * iCalendar (RFC 5545), one VEVENT per appointment.
+     */
+    ICS("text/calendar", "ics");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,28 @@
+package com.medical.appointment.service;
+
+import com.medical.common.exception.ValidationException;
+
+/**
+ * File formats accepted by {@link AppointmentImportService}.
+ */
+public enum ImportFormat {
+
+    /**
+     * Comma-separated values with a header line naming the columns.
+     */
+    CSV,
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON;
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            String type = contentType.toLowerCase();
+            if (type.startsWith("text/csv")) return CSV;
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/ndjson")) return NDJSON;
+        }
+        throw new ValidationException("Unsupported import content type: " + contentType);
+    }
+}
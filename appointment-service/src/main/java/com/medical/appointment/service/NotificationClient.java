@@ -0,0 +1,65 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.security.InternalCallerFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends notifications through notification-service's GraphQL API, many per request. Calls carry
+ * the shared internal token, which notification-service authenticates with the role INTERNAL.
+ */
+@Slf4j
+@Service
+public class NotificationClient {
+
+    private static final String SEND_BATCH = "mutation SendNotificationBatch($inputs: [SendNotificationInput!]!) { "
+            + "sendNotificationBatch(inputs: $inputs) { sent failed } }";
+
+    private final RestTemplate restTemplate;
+    private final String notificationServiceUrl;
+    private final String internalToken;
+
+    public NotificationClient(RestTemplate restTemplate,
+                              @Value("${notification.service.url}") String notificationServiceUrl,
+                              @Value("${internal.token:}") String internalToken) {
+        this.restTemplate = restTemplate;
+        this.notificationServiceUrl = notificationServiceUrl;
+        this.internalToken = internalToken;
+    }
+
+    /**
+     * Sends the batch in one request. A failed call is only logged: reminders are not retried.
+     */
+    public void sendBatch(List<Notification> notifications) {
+        if (notifications.isEmpty()) return;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(InternalCallerFilter.HEADER, internalToken);
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(
+                Map.of("query", SEND_BATCH, "variables", Map.of("inputs", notifications)), headers);
+        try {
+            Map<?, ?> response = restTemplate.postForObject(notificationServiceUrl + "/graphql", request, Map.class);
+            if (response != null && response.get("errors") != null) {
+                log.warn("Notification batch of {} rejected: {}", notifications.size(), response.get("errors"));
+            }
+        } catch (RestClientException e) {
+            log.warn("Could not send notification batch of {}: {}", notifications.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * One notification, shaped like notification-service's {@code SendNotificationInput};
+     * {@code variables} is the JSON object the template reads.
+     */
+    public record Notification(String recipient, String type, String template, String variables) {
+    }
+}
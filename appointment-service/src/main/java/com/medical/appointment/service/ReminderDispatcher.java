@@ -0,0 +1,232 @@
+package com.medical.appointment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.appointment.dto.ReminderDTO;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.time.HashedTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends appointment and consultation reminders. Upcoming appointments are read one time window at
+ * a time (a single indexed query per window and kind, staying one window ahead of the reminders
+ * due), placed in a hashed timing wheel at their reminder time, and sent to notification-service
+ * in batches as the wheel turns. Appointments cancelled after being loaded are dropped by one
+ * claim per batch; appointments booked after their window was loaded are added on booking.
+ * <p>
+ * Every instance loads the same appointments; a reminder is only sent by the instance that claims
+ * it, by marking it sent in the database before sending. Loading starts at the current time on
+ * startup: reminders that fell due while every instance was down are not sent.
+ */
+@Slf4j
+@Service
+public class ReminderDispatcher {
+
+    private static final int TICKS_PER_WHEEL = 4096;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final AppointmentRepository appointmentRepository;
+    private final NotificationClient notificationClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ReminderKind, Duration> leads;
+    private final Duration loadWindow;
+    private final int batchSize;
+    private final Clock clock;
+
+    private final HashedTimingWheel<Reminder> wheel;
+    // Appointments starting before this time are already in the wheel (or were sent)
+    private final Map<ReminderKind, LocalDateTime> loadedUntil = new EnumMap<>(ReminderKind.class);
+    // Appointment ids in the wheel, so a booking seen both by its event and by a window load is reminded once
+    private final Map<ReminderKind, Set<Long>> scheduled = new EnumMap<>(ReminderKind.class);
+
+    @Autowired
+    public ReminderDispatcher(AppointmentRepository appointmentRepository,
+                              NotificationClient notificationClient,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${appointments.reminders.appointment-lead:PT24H}") Duration appointmentLead,
+                              @Value("${appointments.reminders.consultation-lead:PT15M}") Duration consultationLead,
+                              @Value("${appointments.reminders.load-window:PT15M}") Duration loadWindow,
+                              @Value("${appointments.reminders.tick:PT1S}") Duration tick,
+                              @Value("${appointments.reminders.batch-size:200}") int batchSize) {
+        this(appointmentRepository, notificationClient, objectMapper, transactionManager, appointmentLead,
+                consultationLead, loadWindow, tick, batchSize, Clock.systemDefaultZone());
+    }
+
+    ReminderDispatcher(AppointmentRepository appointmentRepository, NotificationClient notificationClient,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                       Duration appointmentLead, Duration consultationLead, Duration loadWindow, Duration tick,
+                       int batchSize, Clock clock) {
+        this.appointmentRepository = appointmentRepository;
+        this.notificationClient = notificationClient;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leads = new EnumMap<>(Map.of(ReminderKind.APPOINTMENT, appointmentLead, ReminderKind.CONSULTATION, consultationLead));
+        this.loadWindow = loadWindow;
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.wheel = new HashedTimingWheel<>(tick, TICKS_PER_WHEEL, clock.millis());
+        for (ReminderKind kind : ReminderKind.values()) {
+            scheduled.put(kind, new HashSet<>());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.reminders.tick:PT1S}")
+    public void tick() {
+        List<Reminder> due;
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            for (ReminderKind kind : ReminderKind.values()) {
+                loadAhead(kind, now);
+            }
+            due = wheel.advance(clock.millis());
+            due.forEach(reminder -> scheduled.get(reminder.kind()).remove(reminder.appointment().getAppointmentId()));
+        }
+        // Sent without the lock, so bookings are not held up by notification-service
+        for (int from = 0; from < due.size(); from += batchSize) {
+            send(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+    }
+
+    /**
+     * Reads the next windows of appointments once the reminders of the loaded ones are less than a window away.
+     */
+    private void loadAhead(ReminderKind kind, LocalDateTime now) {
+        Duration lead = leads.get(kind);
+        LocalDateTime horizon = now.plus(lead).plus(loadWindow);
+        LocalDateTime from = loadedUntil.getOrDefault(kind, now.plus(lead));
+        while (from.isBefore(horizon)) {
+            LocalDateTime to = from.plus(loadWindow);
+            List<ReminderDTO> rows = appointmentRepository.findReminderWindow(from.toLocalDate(), from.toLocalTime(),
+                    to.toLocalDate(), to.toLocalTime(), kind.consultationTypes());
+            rows.forEach(row -> schedule(kind, row));
+            log.debug("Loaded {} {} reminders for appointments in [{}, {})", rows.size(), kind, from, to);
+            loadedUntil.put(kind, to);
+            from = to;
+        }
+    }
+
+    /**
+     * A booking made after its window was loaded: only those starting between the reminder lead
+     * and the loaded horizon are read back, one by one; the others are found by the window loads
+     * or are too close to be reminded.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentBooked(AppointmentBookedEvent event) {
+        LocalDateTime start = event.date().atTime(event.startTime());
+        Set<ReminderKind> kinds = EnumSet.noneOf(ReminderKind.class);
+        synchronized (this) {
+            LocalDateTime now = LocalDateTime.now(clock);
+            for (ReminderKind kind : ReminderKind.values()) {
+                LocalDateTime until = loadedUntil.get(kind);
+                if (until != null && !start.isBefore(now.plus(leads.get(kind))) && start.isBefore(until)) {
+                    kinds.add(kind);
+                }
+            }
+        }
+        if (kinds.isEmpty()) return;
+
+        List<ReminderDTO> rows = appointmentRepository.findReminders(List.of(event.appointmentId()));
+        synchronized (this) {
+            for (ReminderKind kind : kinds) {
+                rows.stream()
+                        .filter(row -> kind.consultationTypes().contains(row.getConsultationType()))
+                        .forEach(row -> schedule(kind, row));
+            }
+        }
+    }
+
+    private void schedule(ReminderKind kind, ReminderDTO row) {
+        if (!scheduled.get(kind).add(row.getAppointmentId())) return;
+        LocalDateTime remindAt = row.getAppointmentDate().atTime(row.getStartTime()).minus(leads.get(kind));
+        wheel.schedule(remindAt.atZone(clock.getZone()).toInstant().toEpochMilli(), new Reminder(kind, row));
+    }
+
+    private void send(List<Reminder> batch) {
+        // Committed before sending: a failed send is not retried, like before, but no instance sends it again
+        Map<ReminderKind, Set<Long>> claimed = transactionTemplate.execute(status -> claim(batch));
+
+        List<NotificationClient.Notification> notifications = new ArrayList<>(batch.size());
+        for (Reminder reminder : batch) {
+            ReminderDTO appointment = reminder.appointment();
+            if (!claimed.get(reminder.kind()).contains(appointment.getAppointmentId())
+                    || appointment.getPatientEmail() == null) continue;
+            notifications.add(new NotificationClient.Notification(appointment.getPatientEmail(), "EMAIL",
+                    reminder.kind().template(), variables(appointment)));
+        }
+        notificationClient.sendBatch(notifications);
+        log.info("Sent {} reminders ({} skipped)", notifications.size(), batch.size() - notifications.size());
+    }
+
+    /**
+     * Marks as sent the reminders of the batch that are still active and were not sent by another
+     * instance, and returns their appointment ids by kind.
+     */
+    private Map<ReminderKind, Set<Long>> claim(List<Reminder> batch) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<ReminderKind, Set<Long>> claimed = new EnumMap<>(ReminderKind.class);
+        for (ReminderKind kind : ReminderKind.values()) {
+            List<Long> ids = batch.stream()
+                    .filter(reminder -> reminder.kind() == kind)
+                    .map(reminder -> reminder.appointment().getAppointmentId())
+                    .distinct()
+                    .toList();
+            List<Long> unsent = ids.isEmpty() ? List.of() : switch (kind) {
+                case APPOINTMENT -> appointmentRepository.lockUnsentAppointmentReminders(ids);
+                case CONSULTATION -> appointmentRepository.lockUnsentConsultationReminders(ids);
+            };
+            if (!unsent.isEmpty()) {
+                switch (kind) {
+                    case APPOINTMENT -> appointmentRepository.markAppointmentRemindersSent(unsent, now);
+                    case CONSULTATION -> appointmentRepository.markConsultationRemindersSent(unsent, now);
+                }
+            }
+            claimed.put(kind, new HashSet<>(unsent));
+        }
+        return claimed;
+    }
+
+    private String variables(ReminderDTO appointment) {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("patientName", appointment.getPatientFirstName() + " " + appointment.getPatientLastName());
+        variables.put("doctorName", appointment.getDoctorFirstName() + " " + appointment.getDoctorLastName());
+        variables.put("specialty", appointment.getSpecialty());
+        variables.put("date", DATE.format(appointment.getAppointmentDate()));
+        variables.put("time", TIME.format(appointment.getStartTime()));
+        variables.put("onlineConsultation", appointment.getConsultationType() == ConsultationType.ONLINE);
+        variables.put("address", appointment.getOfficeAddress() != null && appointment.getCity() != null
+                ? appointment.getOfficeAddress() + ", " + appointment.getCity()
+                : appointment.getOfficeAddress());
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Reminder(ReminderKind kind, ReminderDTO appointment) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.medical.appointment.service;
+
+import com.medical.common.enums.ConsultationType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Reminders sent ahead of an appointment, each through its notification-service template.
+ */
+public enum ReminderKind {
+
+    // The day before, for every appointment
+    APPOINTMENT("APPOINTMENT_REMINDER", EnumSet.of(ConsultationType.IN_PERSON, ConsultationType.ONLINE)),
+    // Shortly before a video consultation starts
+    CONSULTATION("CONSULTATION_REMINDER", EnumSet.of(ConsultationType.ONLINE));
+
+    private final String template;
+    private final Set<ConsultationType> consultationTypes;
+
+    ReminderKind(String template, Set<ConsultationType> consultationTypes) {
+        this.template = template;
+        this.consultationTypes = consultationTypes;
+    }
+
+    public String template() {
+        return template;
+    }
+
+    public Set<ConsultationType> consultationTypes() {
+        return consultationTypes;
+    }
+}
@@ -0,0 +1,139 @@
+package com.medical.appointment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of {@link DaySchedule}s keyed by (doctorId, date).
+ * Entries are evicted by size and age, and invalidated after commit of every booking,
+ * cancellation or availability edit, including those made through other instances
+ * (see {@link SlotChangeListener}). Hit/miss/eviction counters are published as the
+ * {@code cache.*} meters tagged {@code cache=slots}.
+ */
+@Component
+public class SlotCache {
+
+    private static final int STRIPES = 64;
+
+    private final Cache<DoctorDay, DaySchedule> cache;
+
+    // Bumped on every invalidation of a doctor; lets bulk loads detect that they raced with one
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    public SlotCache(MeterRegistry meterRegistry,
+                     @Value("${slots.cache.maximum-size:20000}") long maximumSize,
+                     @Value("${slots.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "slots");
+    }
+
+    /**
+     * Returns the cached schedule, loading it atomically on a miss: an invalidation issued while
+     * the loader runs waits for it and then discards its result.
+     */
+    public DaySchedule get(DoctorDay key, Function<DoctorDay, DaySchedule> loader) {
+        return cache.get(key, loader);
+    }
+
+    /**
+     * Returns the schedules of [from, to] for one doctor. Days missing from the cache are loaded
+     * together by {@code loader}, called once with the smallest range covering them.
+     */
+    public Map<LocalDate, DaySchedule> getRange(Long doctorId, LocalDate from, LocalDate to,
+                                                RangeLoader loader) {
+        List<DoctorDay> keys = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            keys.add(new DoctorDay(doctorId, date));
+        }
+
+        Map<DoctorDay, DaySchedule> present = cache.getAllPresent(keys);
+        Map<LocalDate, DaySchedule> result = new HashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (DoctorDay key : keys) {
+            DaySchedule schedule = present.get(key);
+            if (schedule != null) {
+                result.put(key.date(), schedule);
+            } else {
+                if (firstMissing == null) firstMissing = key.date();
+                lastMissing = key.date();
+            }
+        }
+        if (firstMissing == null) {
+            return result;
+        }
+
+        int stripe = stripe(doctorId);
+        long stamp = invalidations.get(stripe);
+        Map<LocalDate, DaySchedule> loaded = loader.load(doctorId, firstMissing, lastMissing);
+        List<DoctorDay> inserted = new ArrayList<>();
+        for (DoctorDay key : keys) {
+            if (result.containsKey(key.date())) continue;
+            DaySchedule schedule = loaded.get(key.date());
+            result.put(key.date(), schedule);
+            cache.put(key, schedule);
+            inserted.add(key);
+        }
+        // Entries put after a concurrent invalidation may hold pre-commit data: drop them again
+        if (invalidations.get(stripe) != stamp) {
+            cache.invalidateAll(inserted);
+        }
+        return result;
+    }
+
+    public void invalidate(Long doctorId, LocalDate date) {
+        invalidations.incrementAndGet(stripe(doctorId));
+        cache.invalidate(new DoctorDay(doctorId, date));
+    }
+
+    /**
+     * Drops every cached day of a doctor, used when their availability rules change.
+     */
+    public void invalidateDoctor(Long doctorId) {
+        invalidations.incrementAndGet(stripe(doctorId));
+        cache.asMap().keySet().removeIf(key -> key.doctorId().equals(doctorId));
+    }
+
+    /**
+     * Drops everything, used when invalidations from other instances may have been missed.
+     */
+    public void invalidateAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsChanged(SlotsChangedEvent event) {
+        invalidate(event.doctorId(), event.date());
+    }
+
+    private static int stripe(Long doctorId) {
+        return Long.hashCode(doctorId) & (STRIPES - 1);
+    }
+
+    @FunctionalInterface
+    public interface RangeLoader {
+        Map<LocalDate, DaySchedule> load(Long doctorId, LocalDate from, LocalDate to);
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.medical.appointment.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the slot changes committed through any instance (or by doctor-service) to this
+ * instance's {@link SlotCache} and {@link SlotHoldService}. Database triggers publish the changed
+ * doctor-day on the {@code slots_changed} channel; the listener waits for it on a dedicated connection
+ * and thread. While the database is unreachable it retries with exponential backoff, warning once per outage.
+ * Notifications sent while the connection was down are lost, so every (re)connection drops the
+ * whole cache.
+ */
+@Slf4j
+@Component
+public class SlotChangeListener {
+
+    static final String CHANNEL = "slots_changed";
+
+    private final SlotCache slotCache;
+    private final SlotHoldService slotHoldService;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long validationIntervalMillis;
+    private final int waitTimeoutMillis;
+    private final long maxBackoffMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "slot-change-listener");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Connection connection;
+    private long validatedAt;
+    // Delay before the next connection attempt, 0 while connected
+    private long backoffMillis;
+
+    public SlotChangeListener(SlotCache slotCache, SlotHoldService slotHoldService,
+                              @Value("${spring.datasource.url}") String url,
+                              @Value("${spring.datasource.username}") String username,
+                              @Value("${spring.datasource.password}") String password,
+                              @Value("${slots.cache.listener-validation-interval:PT10S}") Duration validationInterval,
+                              @Value("${slots.cache.listener-wait-timeout:PT1S}") Duration waitTimeout,
+                              @Value("${slots.cache.listener-max-backoff:PT30S}") Duration maxBackoff) {
+        this.slotCache = slotCache;
+        this.slotHoldService = slotHoldService;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.validationIntervalMillis = validationInterval.toMillis();
+        this.waitTimeoutMillis = (int) waitTimeout.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::run);
+    }
+
+    private void run() {
+        long delay;
+        try {
+            delay = poll() ? 0 : nextBackoff();
+        } catch (RuntimeException e) {
+            log.error("Slot change listener failed", e);
+            close();
+            delay = nextBackoff();
+        }
+        if (!executor.isShutdown()) {
+            executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Waits up to the wait timeout for notifications and applies them; false when the database could not be reached.
+     */
+    synchronized boolean poll() {
+        try {
+            if (connection == null || stale()) {
+                connect();
+            }
+            PGNotification[] notifications = connection.unwrap(PGConnection.class).getNotifications(waitTimeoutMillis);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    apply(notification.getParameter());
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            if (backoffMillis == 0) {
+                log.warn("Slot change listener disconnected, retrying with backoff: {}", e.getMessage());
+            } else {
+                log.debug("Slot change listener still disconnected: {}", e.getMessage());
+            }
+            close();
+            return false;
+        }
+    }
+
+    /**
+     * Doubles from the wait timeout up to the maximum backoff over consecutive failures.
+     */
+    synchronized long nextBackoff() {
+        backoffMillis = backoffMillis == 0 ? waitTimeoutMillis : Math.min(backoffMillis * 2, maxBackoffMillis);
+        return backoffMillis;
+    }
+
+    /**
+     * {@code doctorId:date} for an appointment or hold change, {@code doctorId} for an availability rule change.
+     */
+    void apply(String payload) {
+        try {
+            int separator = payload.indexOf(':');
+            if (separator < 0) {
+                slotCache.invalidateDoctor(Long.parseLong(payload));
+                return;
+            }
+            SlotsChangedEvent event = new SlotsChangedEvent(Long.parseLong(payload.substring(0, separator)),
+                    LocalDate.parse(payload.substring(separator + 1)));
+            slotCache.onSlotsChanged(event);
+            slotHoldService.onSlotsChanged(event);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed slot change notification '{}'", payload);
+        }
+    }
+
+    private boolean stale() throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - validatedAt < validationIntervalMillis) {
+            return false;
+        }
+        validatedAt = now;
+        if (connection.isValid(1)) {
+            return false;
+        }
+        close();
+        return true;
+    }
+
+    private void connect() throws SQLException {
+        connection = DriverManager.getConnection(url, username, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        }
+        validatedAt = System.currentTimeMillis();
+        // Changes committed before LISTEN took effect were never delivered
+        slotCache.invalidateAll();
+        slotHoldService.invalidateAll();
+        backoffMillis = 0;
+        log.info("Listening for slot changes on {}", CHANNEL);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        close();
+    }
+
+    synchronized void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not close slot change listener connection: {}", e.getMessage());
+        }
+        connection = null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.medical.appointment.service;
+
+/**
+ * Published when a cancellation frees [start, end) on a doctor-day, to offer it to the waitlist.
+ * {@code patientId} is the patient who gave the slot up.
+ */
+public record SlotFreedEvent(DoctorDay day, int start, int end, Long patientId) {
+}
@@ -0,0 +1,26 @@
+package com.medical.appointment.service;
+
+import java.time.Instant;
+import java.time.LocalTime;
+
+/**
+ * Temporary reservation of [start, end) on a doctor-day by one patient, taken during checkout.
+ */
+public record SlotHold(String id, DoctorDay day, int start, int end, Long patientId, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean overlaps(int from, int to) {
+        return start < to && from < end;
+    }
+
+    public LocalTime startTime() {
+        return DayOccupancy.toTime(start);
+    }
+
+    public LocalTime endTime() {
+        return DayOccupancy.toTime(end);
+    }
+}
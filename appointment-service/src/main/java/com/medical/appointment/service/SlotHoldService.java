@@ -0,0 +1,181 @@
+package com.medical.appointment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medical.appointment.model.SlotHoldEntry;
+import com.medical.appointment.repository.SlotHoldRepository;
+import com.medical.common.exception.NotFoundException;
+import com.medical.common.exception.ValidationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Slot holds, stored in {@code slot_holds} so that every instance sees them. Taking, checking and
+ * releasing a hold go to the database; slot rendering reads the live holds of a day from a local
+ * cache, dropped after commit of every change of that day, including those made through other
+ * instances (see {@link SlotChangeListener}). Expired holds stop counting immediately and are
+ * deleted periodically.
+ */
+@Service
+public class SlotHoldService {
+
+    // Backstop for a change notification lost while the listener reconnects
+    private static final Duration CACHE_EXPIRY = Duration.ofMinutes(1);
+
+    private final SlotHoldRepository slotHoldRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // Holds of the day as last read, lapsed ones included; most days have none
+    private final Cache<DoctorDay, List<SlotHold>> cache;
+    private final Duration holdDuration;
+    private final Clock clock;
+
+    @Autowired
+    public SlotHoldService(SlotHoldRepository slotHoldRepository, ApplicationEventPublisher eventPublisher,
+                           @Value("${slots.hold.duration:PT10M}") Duration holdDuration,
+                           @Value("${slots.hold.cache-maximum-size:20000}") long cacheMaximumSize) {
+        this(slotHoldRepository, eventPublisher, holdDuration, cacheMaximumSize, Clock.systemUTC());
+    }
+
+    SlotHoldService(SlotHoldRepository slotHoldRepository, ApplicationEventPublisher eventPublisher,
+                    Duration holdDuration, long cacheMaximumSize, Clock clock) {
+        this.slotHoldRepository = slotHoldRepository;
+        this.eventPublisher = eventPublisher;
+        this.holdDuration = holdDuration;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(CACHE_EXPIRY)
+                .build();
+    }
+
+    /**
+     * Holds [start, end) for the patient. A patient keeps at most one hold per doctor-day:
+     * holding another slot of the same day releases the previous one.
+     */
+    @Transactional
+    public SlotHold hold(DoctorDay day, int start, int end, Long patientId) {
+        // Rolls back with the exception, so a refused hold leaves the previous one in place
+        return holdIfFree(day, start, end, patientId, clock.instant().plus(holdDuration))
+                .orElseThrow(() -> new ValidationException("Slot is currently held by another patient"));
+    }
+
+    /**
+     * Same as {@link #hold}, but empty instead of failing the surrounding transaction when another
+     * patient holds part of the slot.
+     */
+    @Transactional
+    public Optional<SlotHold> holdIfFree(DoctorDay day, int start, int end, Long patientId) {
+        return holdIfFree(day, start, end, patientId, clock.instant().plus(holdDuration));
+    }
+
+    /**
+     * Same as {@link #holdIfFree(DoctorDay, int, int, Long)}, lapsing at the given instant.
+     */
+    @Transactional
+    public Optional<SlotHold> holdIfFree(DoctorDay day, int start, int end, Long patientId, Instant expiresAt) {
+        int dropped = slotHoldRepository.deleteLapsedOrOwnedBy(day.doctorId(), day.date(), patientId, clock.instant());
+        SlotHold hold = new SlotHold(UUID.randomUUID().toString(), day, start, end, patientId, expiresAt);
+        boolean held = slotHoldRepository.insertIfFree(hold.id(), day.doctorId(), day.date(), start, end, patientId, expiresAt) > 0;
+        if (held || dropped > 0) {
+            eventPublisher.publishEvent(new SlotsChangedEvent(day.doctorId(), day.date()));
+        }
+        return held ? Optional.of(hold) : Optional.empty();
+    }
+
+    @Transactional
+    public void release(String holdId, Long patientId) {
+        if (!releaseIfHeld(holdId, patientId)) {
+            throw new NotFoundException("Hold not found");
+        }
+    }
+
+    /**
+     * Same as {@link #release}, but false instead of failing the surrounding transaction when the
+     * patient holds nothing under that id.
+     */
+    @Transactional
+    public boolean releaseIfHeld(String holdId, Long patientId) {
+        Optional<SlotHoldEntry> entry = slotHoldRepository.findById(holdId)
+                .filter(found -> found.getPatientId().equals(patientId));
+        if (entry.isEmpty()) {
+            return false;
+        }
+        slotHoldRepository.delete(entry.get());
+        eventPublisher.publishEvent(new SlotsChangedEvent(entry.get().getDoctorId(), entry.get().getHoldDate()));
+        return true;
+    }
+
+    /**
+     * Drops the patient's hold on the day, once it has been turned into an appointment. Runs in the
+     * booking transaction: the hold disappears when the appointment commits, and stays if it rolls back.
+     */
+    @Transactional
+    public void releaseFor(DoctorDay day, Long patientId) {
+        if (slotHoldRepository.deleteByPatient(day.doctorId(), day.date(), patientId) > 0) {
+            eventPublisher.publishEvent(new SlotsChangedEvent(day.doctorId(), day.date()));
+        }
+    }
+
+    /**
+     * Read from the primary, not the cache: booking paths call this inside their transaction.
+     */
+    public boolean isHeldByOther(DoctorDay day, int start, int end, Long patientId) {
+        return slotHoldRepository.existsHeldByOther(day.doctorId(), day.date(), start, end, patientId, clock.instant());
+    }
+
+    /**
+     * Live holds of the day; empty for the vast majority of days, without allocating.
+     */
+    public List<SlotHold> activeHolds(DoctorDay day) {
+        List<SlotHold> holds = cache.get(day, this::load);
+        if (holds.isEmpty()) {
+            return holds;
+        }
+        Instant now = clock.instant();
+        if (holds.stream().noneMatch(hold -> hold.isExpired(now))) {
+            return holds;
+        }
+        return holds.stream().filter(hold -> !hold.isExpired(now)).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${slots.hold.sweep-interval:PT30S}")
+    @Transactional
+    public void sweepExpired() {
+        slotHoldRepository.deleteExpired(clock.instant());
+    }
+
+    /**
+     * Holds of a day are taken and released in the same transactions that publish this event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsChanged(SlotsChangedEvent event) {
+        cache.invalidate(new DoctorDay(event.doctorId(), event.date()));
+    }
+
+    /**
+     * Drops every cached day, used when changes made through other instances may have been missed.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private List<SlotHold> load(DoctorDay day) {
+        return slotHoldRepository.findActive(day.doctorId(), day.date(), clock.instant()).stream()
+                .map(entry -> new SlotHold(entry.getId(), day, entry.getStartMinute(), entry.getEndMinute(),
+                        entry.getPatientId(), entry.getExpiresAt()))
+                .toList();
+    }
+
+}
@@ -1,74 +1,217 @@
 package com.medical.appointment.service;
 
+import com.medical.appointment.dto.DaySlotsDTO;
+import com.medical.appointment.dto.FreeSlotDTO;
+import com.medical.appointment.dto.SlotCalendarDTO;
 import com.medical.appointment.dto.TimeSlot;
 import com.medical.appointment.model.Appointment;
 import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.SlotInventory;
 import com.medical.appointment.repository.AppointmentRepository;
 import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.SlotInventoryRepository;
+import com.medical.common.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SlotService {
 
+    // Longest calendar view (a month) served by a single range request
+    static final int MAX_RANGE_DAYS = 31;
+    // Free-slot listings read the materialized inventory, which doctor-service keeps 90 days ahead
+    static final int MAX_FREE_SLOT_RANGE_DAYS = 90;
+
     private final AvailabilityRepository availabilityRepository;
     private final AppointmentRepository appointmentRepository;
+    private final SlotInventoryRepository slotInventoryRepository;
+    private final SlotCache slotCache;
+    private final SlotHoldService slotHoldService;
+
+    /**
+     * Weak ETag of a slot list, derived from its content so that every instance gives the same tag.
+     * Slots come from the cache, so building them costs less than sending them.
+     */
+    public static String slotsETag(List<TimeSlot> slots) {
+        long hash = 0;
+        for (TimeSlot slot : slots) {
+            hash = mix(hash, slot.getStartTime().toSecondOfDay());
+            hash = mix(hash, slot.getEndTime().toSecondOfDay());
+            hash = mix(hash, Boolean.TRUE.equals(slot.getIsAvailable()) ? 1 : 0);
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Same as {@link #slotsETag(List)} for a calendar.
+     */
+    public static String slotsETag(SlotCalendarDTO calendar) {
+        long hash = 0;
+        for (DaySlotsDTO day : calendar.getDays()) {
+            hash = mix(hash, day.getDate().toEpochDay());
+            for (int i = 0; i < day.getStartMinutes().length; i++) {
+                hash = mix(hash, day.getStartMinutes()[i]);
+                hash = mix(hash, day.getDurations()[i]);
+            }
+            hash = mix(hash, day.getAvailability().hashCode());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
 
     public List<TimeSlot> getAvailableSlots(Long doctorId, LocalDate date) {
-        // 1. Get doctor's availability for the day of week
-        int dayOfWeek = date.getDayOfWeek().getValue() % 7; // Java: 1=Mon, 7=Sun. DB: 0=Sun, 6=Sat.
-        // Adjust: if Java 7 (Sun) -> 0. If Java 1 (Mon) -> 1.
-        // Wait, Java DayOfWeek.SUNDAY is 7. My DB uses 0 for Sunday.
-        if (dayOfWeek == 7) dayOfWeek = 0;
-
-        List<Availability> availabilities = availabilityRepository.findByDoctorIdAndDayOfWeek(doctorId, dayOfWeek);
-        
-        // 2. Get existing appointments
-        List<Appointment> existingAppointments = appointmentRepository.findActiveByDoctorAndDate(doctorId, date);
-        
-        List<TimeSlot> slots = new ArrayList<>();
-        
-        for (Availability availability : availabilities) {
-            if (!availability.getIsActive()) continue;
-            
-            LocalTime current = availability.getStartTime();
-            LocalTime end = availability.getEndTime();
-            int duration = availability.getSlotDuration();
-            
-            while (current.plusMinutes(duration).isBefore(end) || current.plusMinutes(duration).equals(end)) {
-                LocalTime slotEnd = current.plusMinutes(duration);
-                
-                // Check collision
-                boolean isAvailable = true;
-                for (Appointment appt : existingAppointments) {
-                    // Check overlap
-                    if (isOverlapping(current, slotEnd, appt.getStartTime(), appt.getEndTime())) {
-                        isAvailable = false;
-                        break;
-                    }
-                }
-                
-                // Also check if date is today, filter past times
-                if (date.equals(LocalDate.now()) && current.isBefore(LocalTime.now())) {
-                    isAvailable = false;
-                }
-                
-                slots.add(new TimeSlot(current, slotEnd, isAvailable));
-                current = current.plusMinutes(duration);
+        // Raw day schedule comes from the cache; holds and the "already past today" filter are applied per read
+        DoctorDay day = new DoctorDay(doctorId, date);
+        DaySchedule schedule = slotCache.get(day, this::loadDay).withHolds(slotHoldService.activeHolds(day));
+
+        int notBefore = date.equals(LocalDate.now()) ? DayOccupancy.ceilMinute(LocalTime.now()) : 0;
+        return schedule.toTimeSlots(notBefore);
+    }
+
+    public SlotCalendarDTO getAvailableSlotsInRange(Long doctorId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+
+        Map<LocalDate, DaySchedule> schedules = slotCache.getRange(doctorId, from, to, this::loadDays);
+
+        LocalDate today = LocalDate.now();
+        int nowMinute = DayOccupancy.ceilMinute(LocalTime.now());
+        List<DaySlotsDTO> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int notBefore = date.equals(today) ? nowMinute : 0;
+            DaySchedule schedule = schedules.get(date).withHolds(slotHoldService.activeHolds(new DoctorDay(doctorId, date)));
+            days.add(schedule.toDaySlots(date, notBefore));
+        }
+
+        return new SlotCalendarDTO(doctorId, from, to, days);
+    }
+
+    /**
+     * Free slots of the doctor between two dates, as an index range scan over the slot inventory.
+     * Served by the read replica when one is configured; booking re-checks the slot on the primary.
+     */
+    @Transactional(readOnly = true)
+    public List<FreeSlotDTO> getFreeSlots(Long doctorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_FREE_SLOT_RANGE_DAYS) {
+            throw new ValidationException("Date range cannot exceed " + MAX_FREE_SLOT_RANGE_DAYS + " days");
+        }
+
+        List<SlotInventory> slots = slotInventoryRepository.findFree(doctorId, from, to, LocalDate.now(), LocalTime.now());
+
+        // Checkout holds are not part of the inventory: the cached holds of each day are applied on top of the stored flags
+        List<FreeSlotDTO> free = new ArrayList<>(slots.size());
+        LocalDate holdsDate = null;
+        List<SlotHold> holds = Collections.emptyList();
+        for (SlotInventory slot : slots) {
+            if (!slot.getSlotDate().equals(holdsDate)) {
+                holdsDate = slot.getSlotDate();
+                holds = slotHoldService.activeHolds(new DoctorDay(doctorId, holdsDate));
+            }
+            if (!isHeld(holds, slot)) {
+                free.add(FreeSlotDTO.fromEntity(slot));
             }
         }
-        
-        return slots;
+        return free;
+    }
+
+    /**
+     * Re-derives the taken flags of the day's inventory slots from its appointments.
+     * Called inside the booking or cancellation transaction, after the appointment was written.
+     */
+    public void refreshInventory(DoctorDay day) {
+        slotInventoryRepository.refreshTaken(day.doctorId(), day.date());
     }
-    
-    private boolean isOverlapping(LocalTime start1, LocalTime end1, LocalTime start2, LocalTime end2) {
-        return start1.isBefore(end2) && start2.isBefore(end1);
+
+    /**
+     * Cached rules and bookings of the day, without holds.
+     */
+    public DaySchedule getDaySchedule(DoctorDay day) {
+        return slotCache.get(day, this::loadDay);
+    }
+
+    /**
+     * Called by doctor-service, with the doctor's token, after one of their availability rules was created or deleted.
+     */
+    public void evictDoctorSlots(Long doctorId) {
+        slotCache.invalidateDoctor(doctorId);
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("Date range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private boolean isHeld(List<SlotHold> holds, SlotInventory slot) {
+        if (holds.isEmpty()) return false;
+        int start = DayOccupancy.toMinute(slot.getStartTime());
+        int end = DayOccupancy.toEndMinute(slot.getStartTime(), slot.getEndTime());
+        for (SlotHold hold : holds) {
+            if (hold.overlaps(start, end)) return true;
+        }
+        return false;
+    }
+
+    // Loaders stay on the primary: the cached schedule is also what STRIPED bookings check against,
+    // and a replica load racing a booking's invalidation would cache the slot as free
+    private DaySchedule loadDay(DoctorDay key) {
+        // 1. Get doctor's availability for the day of week (DB: 0=Sunday)
+        int dayOfWeek = key.date().getDayOfWeek().getValue() % 7;
+        List<Availability> availabilities = availabilityRepository.findByDoctorIdAndDayOfWeek(key.doctorId(), dayOfWeek).stream()
+                .filter(Availability::getIsActive)
+                .collect(Collectors.toList());
+
+        // 2. Build the day's occupancy bitmap from the existing appointments
+        List<Appointment> existingAppointments = appointmentRepository.findActiveByDoctorAndDate(key.doctorId(), key.date());
+        return new DaySchedule(availabilities, DayOccupancy.of(existingAppointments));
+    }
+
+    private Map<LocalDate, DaySchedule> loadDays(Long doctorId, LocalDate from, LocalDate to) {
+        // 1. All active availability rules of the doctor in one query, indexed by DB day of week (0=Sunday)
+        List<List<Availability>> availabilitiesByDay = new ArrayList<>(7);
+        for (int day = 0; day < 7; day++) {
+            availabilitiesByDay.add(new ArrayList<>());
+        }
+        for (Availability availability : availabilityRepository.findByDoctorId(doctorId)) {
+            if (availability.getIsActive()) {
+                availabilitiesByDay.get(availability.getDayOfWeek()).add(availability);
+            }
+        }
+
+        // 2. All active appointments of the range in one query, grouped by date
+        Map<LocalDate, List<Appointment>> appointmentsByDate = appointmentRepository
+                .findActiveByDoctorAndDateBetween(doctorId, from, to).stream()
+                .collect(Collectors.groupingBy(Appointment::getAppointmentDate));
+
+        // 3. One occupancy bitmap per day
+        Map<LocalDate, DaySchedule> schedules = new HashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            schedules.put(date, new DaySchedule(
+                    availabilitiesByDay.get(date.getDayOfWeek().getValue() % 7),
+                    DayOccupancy.of(appointmentsByDate.getOrDefault(date, Collections.emptyList()))));
+        }
+        return schedules;
     }
 
 }
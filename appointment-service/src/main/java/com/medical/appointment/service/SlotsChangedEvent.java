@@ -0,0 +1,9 @@
+package com.medical.appointment.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a booking or cancellation changes the occupancy of a doctor-day.
+ */
+public record SlotsChangedEvent(Long doctorId, LocalDate date) {
+}
@@ -0,0 +1,203 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.WaitlistEntryDTO;
+import com.medical.appointment.dto.WaitlistInput;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.model.WaitlistEntry;
+import com.medical.appointment.repository.PatientRepository;
+import com.medical.appointment.repository.WaitlistRepository;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.enums.WaitlistStatus;
+import com.medical.common.exception.NotFoundException;
+import com.medical.common.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Cancellation waitlist. Patients wait for a slot of a doctor between two dates; when a cancellation
+ * frees a slot, the first patient in line whose range and consultation type fit gets a checkout hold
+ * on it (the offer) and can book it like any held slot. An offer that lapses unused is passed on to
+ * the next patient; a booked offer ends as BOOKED. Waiters and offers are rows of
+ * {@code waitlist_entries}, claimed with {@code FOR UPDATE SKIP LOCKED}, so any number of instances
+ * can offer freed slots and sweep lapsed offers without handing the same one out twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+
+    // Bounds the dates a waiter covers, and so how many freed slots can match them
+    static final int MAX_RANGE_DAYS = 31;
+    // Lapsed offers passed on per sweep; the rest wait for the next one
+    static final int SWEEP_BATCH_SIZE = 100;
+
+    private final WaitlistRepository waitlistRepository;
+    private final PatientRepository patientRepository;
+    private final SlotService slotService;
+    private final SlotHoldService slotHoldService;
+
+    @Transactional
+    public WaitlistEntryDTO join(Long userId, WaitlistInput input) {
+        Patient patient = patientRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Patient profile not found"));
+
+        if (input.getToDate().isBefore(input.getFromDate())) {
+            throw new ValidationException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(input.getFromDate(), input.getToDate()) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("Waitlist range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        if (input.getConsultationType() == ConsultationType.BOTH) {
+            throw new ValidationException("Consultation type must be IN_PERSON or ONLINE");
+        }
+        if (waitlistRepository.existsByPatientIdAndDoctorIdAndStatus(patient.getId(), input.getDoctorId(), WaitlistStatus.WAITING)) {
+            throw new ValidationException("Already on this doctor's waitlist");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setPatientId(patient.getId());
+        entry.setDoctorId(input.getDoctorId());
+        entry.setDateFrom(input.getFromDate());
+        entry.setDateTo(input.getToDate());
+        entry.setConsultationType(input.getConsultationType());
+        entry.setStatus(WaitlistStatus.WAITING);
+
+        return WaitlistEntryDTO.fromEntity(waitlistRepository.save(entry));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDTO> getEntries(Long userId) {
+        Patient patient = patientRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Patient profile not found"));
+        return waitlistRepository.findByPatientIdOrderByCreatedAtDesc(patient.getId()).stream()
+                .map(WaitlistEntryDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Leaves the waitlist. Declining a pending offer releases its hold and passes the slot on at once.
+     */
+    @Transactional
+    public WaitlistEntryDTO leave(Long userId, Long entryId) {
+        Patient patient = patientRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Patient profile not found"));
+        // Locked so a sweep cannot pass the offer on while it is being declined
+        WaitlistEntry entry = waitlistRepository.findByIdForUpdate(entryId)
+                .filter(found -> found.getPatientId().equals(patient.getId()))
+                .orElseThrow(() -> new NotFoundException("Waitlist entry not found"));
+
+        if (entry.getStatus() == WaitlistStatus.OFFERED) {
+            DoctorDay day = new DoctorDay(entry.getDoctorId(), entry.getOfferedDate());
+            // Not passed on when already booked or lapsed
+            if (slotHoldService.releaseIfHeld(entry.getHoldId(), patient.getId())) {
+                passOn(entry, day);
+            }
+        } else if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new ValidationException("Waitlist entry is no longer active");
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        return WaitlistEntryDTO.fromEntity(waitlistRepository.save(entry));
+    }
+
+    /**
+     * Runs once the cancellation has committed, so the slot is really free when it is offered.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSlotFreed(SlotFreedEvent event) {
+        offerNext(event.day(), event.start(), event.end(), event.patientId());
+    }
+
+    /**
+     * Closes the offer the patient has just booked, so it is neither swept nor passed on.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAppointmentBooked(AppointmentBookedEvent event) {
+        if (waitlistRepository.markOfferBooked(event.patientId(), event.doctorId(), event.date(), event.startTime()) > 0) {
+            log.info("Waitlist offer of patient {} booked as appointment {}", event.patientId(), event.appointmentId());
+        }
+    }
+
+    /**
+     * Passes on the slots of lapsed offers that were not booked, and expires ranges that have ended.
+     */
+    @Scheduled(fixedDelayString = "${appointments.waitlist.sweep-interval:PT30S}")
+    @Transactional
+    public void sweep() {
+        for (WaitlistEntry offer : waitlistRepository.lockLapsedOffers(Instant.now(), SWEEP_BATCH_SIZE)) {
+            offer.setStatus(WaitlistStatus.EXPIRED);
+            waitlistRepository.save(offer);
+            passOn(offer, new DoctorDay(offer.getDoctorId(), offer.getOfferedDate()));
+        }
+        waitlistRepository.expireEndedBefore(LocalDate.now());
+    }
+
+    /**
+     * Holds [start, end) for the first patient in line, if any.
+     */
+    void offerNext(DoctorDay day, int start, int end, Long excludedPatientId) {
+        LocalDate today = LocalDate.now();
+        if (day.date().isBefore(today)
+                || (day.date().equals(today) && start < DayOccupancy.ceilMinute(LocalTime.now()))) {
+            return;
+        }
+
+        // The freed slot can go to any consultation type its window accepts
+        DaySchedule schedule = slotService.getDaySchedule(day);
+        List<String> consultationTypes = new ArrayList<>(2);
+        for (ConsultationType consultationType : List.of(ConsultationType.IN_PERSON, ConsultationType.ONLINE)) {
+            if (schedule.slotEnd(start, consultationType) == end) {
+                consultationTypes.add(consultationType.name());
+            }
+        }
+        if (consultationTypes.isEmpty()) return;
+
+        Optional<WaitlistEntry> claimed = waitlistRepository.lockFirstWaiting(day.doctorId(), day.date(), consultationTypes, excludedPatientId);
+        if (claimed.isEmpty()) return;
+
+        WaitlistEntry entry = claimed.get();
+        // Refused without failing the transaction of the cancellation event
+        Optional<SlotHold> held = slotHoldService.holdIfFree(day, start, end, entry.getPatientId());
+        if (held.isEmpty()) {
+            // Someone else is checking the slot out: the waiter keeps their place
+            return;
+        }
+        SlotHold hold = held.get();
+        entry.setStatus(WaitlistStatus.OFFERED);
+        entry.setHoldId(hold.id());
+        entry.setOfferedDate(day.date());
+        entry.setOfferedStartTime(hold.startTime());
+        entry.setOfferExpiresAt(hold.expiresAt());
+        waitlistRepository.save(entry);
+        log.info("Waitlist entry {} offered doctor {} on {} at {}", entry.getId(), day.doctorId(), day.date(), hold.startTime());
+    }
+
+    /**
+     * Offers the slot of a closed offer to the next patient, unless it was booked in the meantime;
+     * a checkout hold taken on it since is caught when the slot is held for that patient.
+     */
+    private void passOn(WaitlistEntry offer, DoctorDay day) {
+        DaySchedule schedule = slotService.getDaySchedule(day);
+        int start = DayOccupancy.toMinute(offer.getOfferedStartTime());
+        int end = schedule.slotEnd(start, offer.getConsultationType());
+        if (end > start && schedule.isFree(start, end)) {
+            offerNext(day, start, end, offer.getPatientId());
+        }
+    }
+
+}
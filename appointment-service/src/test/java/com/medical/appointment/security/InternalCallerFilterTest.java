@@ -0,0 +1,49 @@
+package com.medical.appointment.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternalCallerFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_AuthenticatesCallsCarryingTheInternalToken() throws Exception {
+        Authentication authentication = filter("s3cret", "s3cret");
+
+        assertNotNull(authentication);
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_INTERNAL")));
+    }
+
+    @Test
+    void doFilter_IgnoresWrongOrMissingTokens() throws Exception {
+        assertNull(filter("s3cret", "guess"));
+        assertNull(filter("s3cret", null));
+    }
+
+    @Test
+    void doFilter_LetsNoCallInWithoutAConfiguredToken() throws Exception {
+        assertNull(filter("", ""));
+    }
+
+    private Authentication filter(String configuredToken, String sentToken) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments/1/info");
+        if (sentToken != null) {
+            request.addHeader(InternalCallerFilter.HEADER, sentToken);
+        }
+        new InternalCallerFilter(configuredToken).doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,99 @@
+package com.medical.appointment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AgendaExportServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 4);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Test
+    void export_CsvQuotesFieldsAndClosesTheCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(appointmentRepository.streamDtosByDoctorId(2L, AppointmentService.EARLIEST_DATE, DATE))
+                .thenReturn(Stream.of(appointment(1L, AppointmentStatus.CONFIRMED, "Suivi, \"annuel\"")).onClose(() -> closed.set(true)));
+
+        String csv = export(ExportFormat.CSV, null, DATE);
+
+        assertEquals("id,patient_id,doctor_id,appointment_date,start_time,end_time,consultation_type,status,reason,notes\n"
+                + "1,1,2,2024-03-04,09:00,09:30,IN_PERSON,CONFIRMED,\"Suivi, \"\"annuel\"\"\",\n", csv);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void export_IcsWritesOneEventPerAppointment() throws Exception {
+        AppointmentDTO lateShift = appointment(2L, AppointmentStatus.CANCELLED_BY_DOCTOR, null);
+        lateShift.setStartTime(LocalTime.of(23, 30));
+        lateShift.setEndTime(LocalTime.MIDNIGHT);
+        String longReason = "Contrôle; " + "x".repeat(100);
+        when(appointmentRepository.streamDtosByDoctorId(any(), any(), any()))
+                .thenReturn(Stream.of(appointment(1L, AppointmentStatus.PENDING, longReason), lateShift));
+
+        String ics = export(ExportFormat.ICS, DATE, DATE);
+
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("UID:appointment-1@medical-appointment-system\r\n"));
+        assertTrue(ics.contains("DTSTART:20240304T090000\r\nDTEND:20240304T093000\r\n"));
+        assertTrue(ics.contains("STATUS:TENTATIVE\r\n"));
+        assertTrue(ics.contains("DESCRIPTION:Contrôle\\; xxx"));
+        // Midnight end belongs to the next day
+        assertTrue(ics.contains("DTSTART:20240304T233000\r\nDTEND:20240305T000000\r\nSUMMARY"));
+        assertTrue(ics.contains("STATUS:CANCELLED\r\n"));
+        for (String line : ics.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75, line);
+        }
+    }
+
+    @Test
+    void validateRange_RejectsInvertedRange() {
+        AgendaExportService exportService = new AgendaExportService(appointmentRepository, new ObjectMapper());
+
+        assertThrows(ValidationException.class, () -> exportService.validateRange(DATE, DATE.minusDays(1)));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    private String export(ExportFormat format, LocalDate from, LocalDate to) throws Exception {
+        AgendaExportService exportService = new AgendaExportService(appointmentRepository, new ObjectMapper());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(2L, from, to, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private AppointmentDTO appointment(Long id, AppointmentStatus status, String reason) {
+        AppointmentDTO appointment = new AppointmentDTO();
+        appointment.setId(id);
+        appointment.setPatientId(1L);
+        appointment.setDoctorId(2L);
+        appointment.setAppointmentDate(DATE);
+        appointment.setStartTime(LocalTime.of(9, 0));
+        appointment.setEndTime(LocalTime.of(9, 30));
+        appointment.setConsultationType(ConsultationType.IN_PERSON);
+        appointment.setStatus(status);
+        appointment.setReason(reason);
+        return appointment;
+    }
+}
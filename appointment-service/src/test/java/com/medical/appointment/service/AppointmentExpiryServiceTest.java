@@ -0,0 +1,165 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.PatientRepository;
+import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentExpiryServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private SlotService slotService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AppointmentExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2026-03-01T12:00:00Z"), ZoneOffset.UTC);
+        expiryService = new AppointmentExpiryService(appointmentRepository, slotService, eventPublisher,
+                transactionManager, Duration.ofMinutes(30), 2, clock);
+    }
+
+    @Test
+    void sweep_ExpiresInBatchesUntilAShortBatch() {
+        Appointment first = pending(1L, 2L, 9);
+        Appointment second = pending(2L, 2L, 10);
+        Appointment third = pending(3L, 3L, 9);
+        when(appointmentRepository.lockPendingCreatedBefore(LocalDateTime.of(2026, 3, 1, 11, 30), 2))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        assertEquals(3, expiryService.sweep());
+
+        assertEquals(AppointmentStatus.EXPIRED, first.getStatus());
+        assertEquals(AppointmentStatus.EXPIRED, second.getStatus());
+        assertEquals(AppointmentStatus.EXPIRED, third.getStatus());
+        // One inventory refresh and cache invalidation per doctor-day, one waitlist offer per slot
+        verify(slotService).refreshInventory(new DoctorDay(2L, DATE));
+        verify(slotService).refreshInventory(new DoctorDay(3L, DATE));
+        verify(eventPublisher, times(2)).publishEvent(any(SlotsChangedEvent.class));
+        verify(eventPublisher).publishEvent(new SlotFreedEvent(new DoctorDay(2L, DATE), 540, 570, 10L));
+        verify(eventPublisher, times(3)).publishEvent(any(SlotFreedEvent.class));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void sweep_DoesNothingWithoutStaleAppointments() {
+        when(appointmentRepository.lockPendingCreatedBefore(any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, expiryService.sweep());
+
+        verify(appointmentRepository, times(1)).lockPendingCreatedBefore(any(), eq(2));
+        verifyNoInteractions(slotService, eventPublisher);
+    }
+
+    @Test
+    void sweep_FreesTheSlotForANewBooking() {
+        // Appointments table with the partial unique index uq_appointments_active_slot
+        Set<AppointmentStatus> released = EnumSet.of(AppointmentStatus.CANCELLED_BY_PATIENT,
+                AppointmentStatus.CANCELLED_BY_DOCTOR, AppointmentStatus.EXPIRED);
+        List<Appointment> rows = new ArrayList<>(List.of(pending(1L, 2L, 9)));
+        when(appointmentRepository.lockPendingCreatedBefore(any(), anyInt())).thenReturn(List.copyOf(rows));
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            boolean taken = rows.stream().anyMatch(row -> !released.contains(row.getStatus())
+                    && row.getDoctorId().equals(appointment.getDoctorId())
+                    && row.getAppointmentDate().equals(appointment.getAppointmentDate())
+                    && row.getStartTime().equals(appointment.getStartTime()));
+            if (taken) {
+                throw new DataIntegrityViolationException("uq_appointments_active_slot");
+            }
+            rows.add(appointment);
+            return appointment;
+        });
+
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        Patient patient = new Patient();
+        patient.setId(20L);
+        when(patientRepository.findByUserId(200L)).thenReturn(Optional.of(patient));
+        // The schedule check is left out: only the database constraint stands between the two bookings
+        when(slotService.getDaySchedule(new DoctorDay(2L, DATE)))
+                .thenReturn(new DaySchedule(List.of(availability(2L)), new DayOccupancy()));
+        AppointmentService appointmentService = new AppointmentService(appointmentRepository, patientRepository,
+                mock(AvailabilityRepository.class), slotService, mock(SlotHoldService.class), eventPublisher);
+        CreateAppointmentInput input = new CreateAppointmentInput();
+        input.setDoctorId(2L);
+        input.setAppointmentDate(DATE);
+        input.setStartTime(LocalTime.of(9, 0));
+        input.setConsultationType(ConsultationType.IN_PERSON);
+
+        assertThrows(ValidationException.class, () -> appointmentService.createAppointmentUnderLock(200L, input));
+
+        assertEquals(1, expiryService.sweep());
+        appointmentService.createAppointmentUnderLock(200L, input);
+
+        assertEquals(2, rows.size());
+        assertEquals(AppointmentStatus.EXPIRED, rows.get(0).getStatus());
+        assertEquals(AppointmentStatus.PENDING, rows.get(1).getStatus());
+        assertEquals(20L, rows.get(1).getPatientId());
+    }
+
+    private static Availability availability(Long doctorId) {
+        Availability availability = new Availability();
+        availability.setDoctorId(doctorId);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(12, 0));
+        availability.setSlotDuration(30);
+        availability.setConsultationType(ConsultationType.BOTH);
+        availability.setIsActive(true);
+        return availability;
+    }
+
+    private Appointment pending(Long id, Long doctorId, int hour) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id);
+        appointment.setPatientId(id * 10);
+        appointment.setDoctorId(doctorId);
+        appointment.setAppointmentDate(DATE);
+        appointment.setStartTime(LocalTime.of(hour, 0));
+        appointment.setEndTime(LocalTime.of(hour, 30));
+        appointment.setStatus(AppointmentStatus.PENDING);
+        return appointment;
+    }
+}
@@ -0,0 +1,201 @@
+package com.medical.appointment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.appointment.dto.ImportReport;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Doctor;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.DoctorRepository;
+import com.medical.appointment.repository.PatientRepository;
+import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentImportServiceTest {
+
+    // A past Monday: historical rows must not touch the slot inventory
+    private static final LocalDate MONDAY = LocalDate.of(2023, 3, 6);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+    @Mock
+    private PatientRepository patientRepository;
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private SlotService slotService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AppointmentImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        // Chunks of 2 rows, flushed every row, so a short file goes through several of each
+        importService = new AppointmentImportService(appointmentRepository, availabilityRepository,
+                patientRepository, doctorRepository, slotService, entityManager, transactionManager,
+                eventPublisher, new ObjectMapper(), 2, 1);
+
+        Availability availability = new Availability();
+        availability.setDoctorId(2L);
+        availability.setDayOfWeek(1);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(12, 0));
+        availability.setSlotDuration(30);
+        availability.setConsultationType(ConsultationType.BOTH);
+        availability.setIsActive(true);
+
+        Patient patient = new Patient();
+        patient.setId(1L);
+        Doctor doctor = new Doctor();
+        doctor.setId(2L);
+
+        lenient().when(patientRepository.findAllById(any())).thenReturn(List.of(patient));
+        lenient().when(doctorRepository.findAllById(any())).thenReturn(List.of(doctor));
+        lenient().when(availabilityRepository.findByDoctorIdIn(any())).thenReturn(List.of(availability));
+    }
+
+    @Test
+    void importAppointments_CsvWritesValidRowsAndReportsTheOthers() {
+        when(appointmentRepository.findActiveByDoctorIdInAndDateIn(any(), any())).thenReturn(Collections.emptyList());
+        String csv = "patient_id,doctor_id,appointment_date,start_time,consultation_type,status,reason\n"
+                + "1,2," + MONDAY + ",09:00,IN_PERSON,COMPLETED,\"Suivi, annuel\"\n"
+                + "1,2," + MONDAY + ",09:30,ONLINE,,\n"
+                + "1,2," + MONDAY + ",14:00,ONLINE,,\n"         // outside the 9:00-12:00 window
+                + "1,2,not-a-date,09:00,ONLINE,,\n"
+                + "1,2," + MONDAY.plusWeeks(1) + ",10:00,IN_PERSON,,\n";
+
+        ImportReport report = importService.importAppointments(stream(csv), ImportFormat.CSV);
+
+        assertEquals(5, report.getTotalRows());
+        assertEquals(3, report.getImportedRows());
+        assertEquals(2, report.getFailedRows());
+        assertEquals(List.of(4L, 5L), report.getErrors().stream().map(error -> error.getLine()).sorted().toList());
+
+        ArgumentCaptor<Appointment> persisted = ArgumentCaptor.forClass(Appointment.class);
+        verify(entityManager, times(3)).persist(persisted.capture());
+        assertEquals("Suivi, annuel", persisted.getAllValues().get(0).getReason());
+        assertEquals(AppointmentStatus.COMPLETED, persisted.getAllValues().get(0).getStatus());
+        assertEquals(LocalTime.of(10, 0), persisted.getAllValues().get(1).getEndTime());
+        // Without a status, not PENDING: the expiry sweep would cancel it
+        assertEquals(AppointmentStatus.CONFIRMED, persisted.getAllValues().get(1).getStatus());
+        verify(entityManager, atLeast(3)).clear();
+        // One availability query for the whole file, one occupancy query per chunk
+        verify(availabilityRepository, times(1)).findByDoctorIdIn(any());
+        verify(appointmentRepository, times(2)).findActiveByDoctorIdInAndDateIn(any(), any());
+        verifyNoInteractions(slotService);
+    }
+
+    @Test
+    void importAppointments_NdjsonRejectsConflicts() {
+        Appointment booked = new Appointment();
+        booked.setDoctorId(2L);
+        booked.setAppointmentDate(MONDAY);
+        booked.setStartTime(LocalTime.of(9, 0));
+        booked.setEndTime(LocalTime.of(9, 30));
+        when(appointmentRepository.findActiveByDoctorIdInAndDateIn(any(), any())).thenReturn(List.of(booked));
+        String ndjson = row("10:00", "CONFIRMED")
+                + row("10:00", "COMPLETED")                  // taken by the previous line
+                + row("09:00", "CONFIRMED")                  // taken in the database
+                + row("09:00", "CANCELLED_BY_PATIENT")       // cancelled rows occupy nothing
+                + row("11:00", "PENDING");                   // no payment in progress
+
+        ImportReport report = importService.importAppointments(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(2, report.getImportedRows());
+        assertEquals(List.of(2L, 3L, 5L), report.getErrors().stream().map(error -> error.getLine()).sorted().toList());
+        assertEquals("Slot is already booked", report.getErrors().stream()
+                .filter(error -> error.getLine() == 2L).findFirst().orElseThrow().getMessage());
+    }
+
+    @Test
+    void importAppointments_CancelledRowsShareTheirSlotWithoutRollingBackTheChunk() {
+        when(appointmentRepository.findActiveByDoctorIdInAndDateIn(any(), any())).thenReturn(Collections.emptyList());
+        // Database already holding a cancelled 10:00, with the partial unique index uq_appointments_active_slot
+        Appointment cancelled = new Appointment();
+        cancelled.setDoctorId(2L);
+        cancelled.setAppointmentDate(MONDAY);
+        cancelled.setStartTime(LocalTime.of(10, 0));
+        cancelled.setStatus(AppointmentStatus.CANCELLED_BY_DOCTOR);
+        List<Appointment> table = new ArrayList<>(List.of(cancelled));
+        doAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            if (isActive(appointment) && table.stream().anyMatch(row -> isActive(row)
+                    && row.getAppointmentDate().equals(appointment.getAppointmentDate())
+                    && row.getStartTime().equals(appointment.getStartTime()))) {
+                throw new DataIntegrityViolationException("uq_appointments_active_slot");
+            }
+            table.add(appointment);
+            return null;
+        }).when(entityManager).persist(any(Appointment.class));
+        String ndjson = row("09:00", "CANCELLED_BY_PATIENT")
+                + row("09:00", "EXPIRED")
+                + row("09:00", "CONFIRMED")
+                + row("10:00", "CONFIRMED");                 // cancelled in the database
+
+        ImportReport report = importService.importAppointments(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(4, report.getImportedRows());
+        assertEquals(0, report.getFailedRows());
+        assertEquals(5, table.size());
+    }
+
+    @Test
+    void importAppointments_FailedFlushRollsBackOnlyItsChunk() {
+        when(appointmentRepository.findActiveByDoctorIdInAndDateIn(any(), any())).thenReturn(Collections.emptyList());
+        doThrow(new DataIntegrityViolationException("duplicate")).doNothing().when(entityManager).flush();
+        String ndjson = row("09:00", "CONFIRMED") + row("09:30", "CONFIRMED") + row("10:00", "CONFIRMED");
+
+        ImportReport report = importService.importAppointments(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(1, report.getImportedRows());
+        assertEquals(2, report.getFailedRows());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Chunk rolled back"));
+    }
+
+    private static boolean isActive(Appointment appointment) {
+        return appointment.getStatus() != AppointmentStatus.CANCELLED_BY_PATIENT
+                && appointment.getStatus() != AppointmentStatus.CANCELLED_BY_DOCTOR
+                && appointment.getStatus() != AppointmentStatus.EXPIRED;
+    }
+
+    private String row(String startTime, String status) {
+        return "{\"patientId\":1,\"doctorId\":2,\"appointmentDate\":\"" + MONDAY + "\",\"startTime\":\"" + startTime
+                + "\",\"consultationType\":\"ONLINE\",\"status\":\"" + status + "\"}\n";
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
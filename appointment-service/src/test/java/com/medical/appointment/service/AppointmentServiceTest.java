@@ -1,7 +1,11 @@
 package com.medical.appointment.service;
 
+import com.medical.appointment.dto.AppointmentConnection;
 import com.medical.appointment.dto.AppointmentDTO;
 import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.appointment.dto.CreateAppointmentSeriesInput;
+import com.medical.appointment.dto.SlotHoldDTO;
+import com.medical.appointment.dto.SlotHoldInput;
 import com.medical.appointment.model.Appointment;
 import com.medical.appointment.model.Availability;
 import com.medical.appointment.model.Patient;
@@ -10,6 +14,7 @@ import com.medical.appointment.repository.AvailabilityRepository;
 import com.medical.appointment.repository.PatientRepository;
 import com.medical.common.enums.AppointmentStatus;
 import com.medical.common.enums.ConsultationType;
+import com.medical.common.exception.NotFoundException;
 import com.medical.common.exception.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,14 +22,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +50,12 @@ class AppointmentServiceTest {
     private PatientRepository patientRepository;
     @Mock
     private AvailabilityRepository availabilityRepository;
+    @Mock
+    private SlotService slotService;
+    @Mock
+    private SlotHoldService slotHoldService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private AppointmentService appointmentService;
@@ -85,6 +105,8 @@ class AppointmentServiceTest {
 
         assertNotNull(result);
         verify(appointmentRepository).save(any(Appointment.class));
+        verify(slotService).refreshInventory(new DoctorDay(2L, input.getAppointmentDate()));
+        verify(eventPublisher).publishEvent(any(SlotsChangedEvent.class));
     }
 
     @Test
@@ -107,10 +129,112 @@ class AppointmentServiceTest {
         when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.singletonList(existing));
 
         assertThrows(ValidationException.class, () -> appointmentService.createAppointment(100L, input));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createAppointment_HeldByAnotherPatient() {
+        when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient));
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.emptyList());
+        when(slotHoldService.isHeldByOther(new DoctorDay(2L, input.getAppointmentDate()), 600, 630, 1L)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> appointmentService.createAppointment(100L, input));
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    void createAppointmentUnderLock_DuplicateRejectedByConstraint() {
+        DoctorDay day = new DoctorDay(2L, input.getAppointmentDate());
+        when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient));
+        when(slotService.getDaySchedule(day)).thenReturn(new DaySchedule(List.of(availability), new DayOccupancy()));
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(ValidationException.class, () -> appointmentService.createAppointmentUnderLock(100L, input));
+        verify(appointmentRepository, never()).findActiveByDoctorAndDate(any(), any());
+        verify(slotService, never()).refreshInventory(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createAppointmentSeries_InsertsAllOccurrencesInOneBatch() {
+        CreateAppointmentSeriesInput seriesInput = seriesInput(4);
+        LocalDate lastDate = seriesInput.getFirstDate().plusWeeks(3);
+        when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient));
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDateBetween(2L, seriesInput.getFirstDate(), lastDate))
+                .thenReturn(Collections.emptyList());
+        when(appointmentRepository.saveAllAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<AppointmentDTO> result = appointmentService.createAppointmentSeries(100L, seriesInput);
+
+        assertEquals(4, result.size());
+        assertEquals(lastDate, result.get(3).getAppointmentDate());
+        assertEquals(LocalTime.of(10, 30), result.get(3).getEndTime());
+        verify(availabilityRepository, times(1)).findByDoctorIdAndDayOfWeek(any(), any());
+        verify(appointmentRepository, times(1)).saveAllAndFlush(any());
+        verify(appointmentRepository, never()).findActiveByDoctorAndDate(any(), any());
+        verify(eventPublisher, times(4)).publishEvent(any(SlotsChangedEvent.class));
+    }
+
+    @Test
+    void createAppointmentSeries_RejectsWholeSeriesOnConflict() {
+        CreateAppointmentSeriesInput seriesInput = seriesInput(4);
+        Appointment booked = new Appointment();
+        booked.setDoctorId(2L);
+        booked.setAppointmentDate(seriesInput.getFirstDate().plusWeeks(2));
+        booked.setStartTime(LocalTime.of(10, 0));
+        booked.setEndTime(LocalTime.of(10, 30));
+
+        when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient));
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDateBetween(any(), any(), any())).thenReturn(List.of(booked));
+
+        ValidationException error = assertThrows(ValidationException.class,
+                () -> appointmentService.createAppointmentSeries(100L, seriesInput));
+        assertTrue(error.getMessage().contains(booked.getAppointmentDate().toString()));
+        verify(appointmentRepository, never()).saveAllAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createAppointmentSeries_DuplicateRollsBackSeries() {
+        when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient));
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDateBetween(any(), any(), any())).thenReturn(Collections.emptyList());
+        when(appointmentRepository.saveAllAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThrows(ValidationException.class, () -> appointmentService.createAppointmentSeries(100L, seriesInput(3)));
+        verify(slotService, never()).refreshInventory(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void holdSlot_Success() {
+        SlotHoldInput holdInput = new SlotHoldInput();
+        holdInput.setDoctorId(2L);
+        holdInput.setAppointmentDate(input.getAppointmentDate());
+        holdInput.setStartTime(LocalTime.of(10, 0));
+        holdInput.setConsultationType(ConsultationType.ONLINE);
+        DoctorDay day = new DoctorDay(2L, input.getAppointmentDate());
+
+        when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient));
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.emptyList());
+        when(slotHoldService.hold(day, 600, 630, 1L))
+                .thenReturn(new SlotHold("hold-1", day, 600, 630, 1L, Instant.now().plusSeconds(600)));
+
+        SlotHoldDTO result = appointmentService.holdSlot(100L, holdInput);
+
+        assertEquals("hold-1", result.getHoldId());
+        assertEquals(LocalTime.of(10, 30), result.getEndTime());
     }
 
     @Test
     void cancelAppointment_Success() {
+        appointment.setAppointmentDate(input.getAppointmentDate());
+        appointment.setStartTime(LocalTime.of(10, 0));
+        appointment.setEndTime(LocalTime.of(10, 30));
         when(appointmentRepository.findById(1L)).thenReturn(Optional.of(appointment));
         when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient));
         when(appointmentRepository.save(any(Appointment.class))).thenReturn(appointment);
@@ -119,6 +243,9 @@ class AppointmentServiceTest {
 
         assertNotNull(result);
         assertEquals(AppointmentStatus.CANCELLED_BY_PATIENT, appointment.getStatus());
+        verify(slotService).refreshInventory(any(DoctorDay.class));
+        verify(eventPublisher).publishEvent(any(SlotsChangedEvent.class));
+        verify(eventPublisher).publishEvent(new SlotFreedEvent(new DoctorDay(2L, input.getAppointmentDate()), 600, 630, 1L));
     }
 
     @Test
@@ -132,4 +259,107 @@ class AppointmentServiceTest {
 
         assertThrows(ValidationException.class, () -> appointmentService.cancelAppointment(200L, 1L, "Reason"));
     }
+
+    @Test
+    void getAppointmentsByDoctor_FirstPageStartsAtFromDate() {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        when(appointmentRepository.findDoctorPage(eq(2L), any(), any(), eq(from), eq(LocalTime.MIDNIGHT), eq(0L), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(historyItem(10L, from, 9), historyItem(11L, from, 10), historyItem(12L, from, 11)));
+
+        AppointmentConnection page = appointmentService.getAppointmentsByDoctor(2L, from, null, null, null, 2);
+
+        assertEquals(2, page.getEdges().size()); // the third row only signals a next page
+        assertTrue(page.getPageInfo().getHasNextPage());
+        assertEquals(page.getEdges().get(1).getCursor(), page.getPageInfo().getEndCursor());
+        assertEquals(new AppointmentCursor(from, LocalTime.of(10, 0), 11L), AppointmentCursor.decode(page.getPageInfo().getEndCursor()));
+    }
+
+    @Test
+    void getAppointmentsByDoctor_ResumesAfterCursor() {
+        LocalDate date = LocalDate.of(2024, 3, 1);
+        String after = new AppointmentCursor(date, LocalTime.of(10, 0), 11L).encode();
+        when(appointmentRepository.findDoctorPage(eq(2L), any(), eq(EnumSet.of(AppointmentStatus.CONFIRMED)),
+                eq(date), eq(LocalTime.of(10, 0)), eq(11L), any()))
+                .thenReturn(List.of(historyItem(12L, date, 11)));
+
+        AppointmentConnection page = appointmentService.getAppointmentsByDoctor(2L, null, null,
+                EnumSet.of(AppointmentStatus.CONFIRMED), after, 2);
+
+        assertEquals(1, page.getEdges().size());
+        assertEquals(12L, page.getEdges().get(0).getNode().getId());
+        assertFalse(page.getPageInfo().getHasNextPage());
+    }
+
+    @Test
+    void getAppointmentsByPatient_RejectsInvalidPageRequests() {
+        assertThrows(ValidationException.class, () -> appointmentService.getAppointmentsByPatient(1L, null, null, null, null, 500));
+        assertThrows(ValidationException.class, () -> appointmentService.getAppointmentsByPatient(1L, null, null, null, "not-a-cursor", 10));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    void getAppointmentsByPatient_ReadsProjection() {
+        when(appointmentRepository.findDtosByPatientId(1L)).thenReturn(List.of(historyItem(10L, LocalDate.of(2024, 3, 1), 9)));
+
+        List<AppointmentDTO> result = appointmentService.getAppointmentsByPatient(1L);
+
+        assertEquals(1, result.size());
+        verify(appointmentRepository, never()).findByPatientId(any());
+    }
+
+    @Test
+    void confirmAppointment_RejectsExpiredAppointment() {
+        appointment.setStatus(AppointmentStatus.EXPIRED);
+        when(appointmentRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(appointment));
+
+        assertThrows(ValidationException.class, () -> appointmentService.confirmAppointment(1L));
+        verify(appointmentRepository, never()).save(any());
+    }
+
+    @Test
+    void getAppointmentInfos_QueriesDistinctIdsOnce() {
+        when(appointmentRepository.findInfoByIdIn(any())).thenReturn(List.of());
+
+        appointmentService.getAppointmentInfos(List.of(3L, 1L, 3L));
+
+        verify(appointmentRepository).findInfoByIdIn(new LinkedHashSet<>(List.of(3L, 1L)));
+    }
+
+    @Test
+    void getAppointmentInfos_RejectsOversizedBatches() {
+        List<Long> ids = LongStream.rangeClosed(1, AppointmentService.MAX_INFO_BATCH_SIZE + 1).boxed().toList();
+
+        assertThrows(ValidationException.class, () -> appointmentService.getAppointmentInfos(ids));
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    void getAppointmentById_NotFound() {
+        when(appointmentRepository.findDtoById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> appointmentService.getAppointmentById(99L));
+    }
+
+    private CreateAppointmentSeriesInput seriesInput(int occurrences) {
+        CreateAppointmentSeriesInput seriesInput = new CreateAppointmentSeriesInput();
+        seriesInput.setDoctorId(2L);
+        seriesInput.setFirstDate(input.getAppointmentDate());
+        seriesInput.setStartTime(LocalTime.of(10, 0));
+        seriesInput.setConsultationType(ConsultationType.IN_PERSON);
+        seriesInput.setOccurrences(occurrences);
+        seriesInput.setIntervalWeeks(1);
+        return seriesInput;
+    }
+
+    private AppointmentDTO historyItem(Long id, LocalDate date, int hour) {
+        AppointmentDTO item = new AppointmentDTO();
+        item.setId(id);
+        item.setPatientId(1L);
+        item.setDoctorId(2L);
+        item.setAppointmentDate(date);
+        item.setStartTime(LocalTime.of(hour, 0));
+        item.setEndTime(LocalTime.of(hour, 30));
+        item.setStatus(AppointmentStatus.CONFIRMED);
+        return item;
+    }
 }
@@ -0,0 +1,154 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.PatientRepository;
+import com.medical.appointment.repository.SlotInventoryRepository;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 1,000 patients racing for the 16 slots of one doctor-day in STRIPED mode.
+ * The repository mock behaves like the appointments table, unique constraint included.
+ */
+@ExtendWith(MockitoExtension.class)
+class BookingServiceStressTest {
+
+    private static final int ATTEMPTS = 1000;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private PatientRepository patientRepository;
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+    @Mock
+    private SlotInventoryRepository slotInventoryRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<LocalTime, Appointment> table = new ConcurrentHashMap<>();
+    private final AtomicInteger constraintViolations = new AtomicInteger();
+    private LocalDate date;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(1);
+
+        Availability availability = new Availability();
+        availability.setDoctorId(1L);
+        availability.setDayOfWeek(date.getDayOfWeek().getValue() % 7);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(17, 0)); // 16 slots
+        availability.setSlotDuration(30);
+        availability.setConsultationType(ConsultationType.BOTH);
+        availability.setIsActive(true);
+
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenAnswer(inv -> new ArrayList<>(table.values()));
+        when(patientRepository.findByUserId(any())).thenAnswer(inv -> {
+            Patient patient = new Patient();
+            patient.setId(inv.getArgument(0));
+            return Optional.of(patient);
+        });
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(inv -> {
+            Appointment appointment = inv.getArgument(0);
+            if (table.putIfAbsent(appointment.getStartTime(), appointment) != null) {
+                constraintViolations.incrementAndGet();
+                throw new DataIntegrityViolationException("appointments_doctor_id_appointment_date_start_time_key");
+            }
+            return appointment;
+        });
+
+        SlotCache slotCache = new SlotCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+        SlotHoldService slotHoldService = mock(SlotHoldService.class);
+        SlotService slotService = new SlotService(availabilityRepository, appointmentRepository, slotInventoryRepository, slotCache, slotHoldService);
+        // Stands in for the after-commit listener
+        doAnswer(inv -> {
+            slotCache.onSlotsChanged(inv.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(SlotsChangedEvent.class));
+
+        AppointmentService appointmentService = new AppointmentService(appointmentRepository, patientRepository,
+                availabilityRepository, slotService, slotHoldService, eventPublisher);
+        bookingService = new BookingService(appointmentService, slotService, new DoctorDayLocks(64), BookingMode.STRIPED, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void book_ConcurrentAttemptsOnOneDoctorDay() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            long userId = i + 1;
+            LocalTime startTime = LocalTime.of(9, 0).plusMinutes(30L * (i % 16));
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.book(userId, input(startTime));
+                    booked.incrementAndGet();
+                } catch (ValidationException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(16, booked.get());
+        assertEquals(ATTEMPTS - 16, rejected.get());
+        assertEquals(16, table.size());
+        // In-JVM serialization means losers are turned away by the cached schedule, never by the database
+        assertEquals(0, constraintViolations.get());
+        // The day is re-read once per successful booking (cache reload), not once per attempt
+        verify(appointmentRepository, atMost(17)).findActiveByDoctorAndDate(1L, date);
+    }
+
+    private CreateAppointmentInput input(LocalTime startTime) {
+        CreateAppointmentInput input = new CreateAppointmentInput();
+        input.setDoctorId(1L);
+        input.setAppointmentDate(date);
+        input.setStartTime(startTime);
+        input.setConsultationType(ConsultationType.IN_PERSON);
+        return input;
+    }
+}
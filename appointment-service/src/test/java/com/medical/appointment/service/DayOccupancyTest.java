@@ -0,0 +1,71 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.TimeSlot;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayOccupancyTest {
+
+    @Test
+    void occupy_SpansWordBoundaries() {
+        DayOccupancy occupancy = new DayOccupancy();
+        occupancy.occupy(60, 200); // crosses the 64 and 128 minute words
+
+        assertTrue(occupancy.isFree(0, 60));
+        assertFalse(occupancy.isFree(59, 61));
+        assertFalse(occupancy.isFree(127, 129));
+        assertFalse(occupancy.isFree(199, 200));
+        assertTrue(occupancy.isFree(200, 260));
+    }
+
+    @Test
+    void occupy_EndOfDay() {
+        DayOccupancy occupancy = new DayOccupancy();
+        occupancy.occupy(23 * 60, DayOccupancy.MINUTES_PER_DAY);
+
+        assertFalse(occupancy.isFree(DayOccupancy.MINUTES_PER_DAY - 1, DayOccupancy.MINUTES_PER_DAY));
+        assertTrue(occupancy.isFree(0, 23 * 60));
+    }
+
+    @Test
+    void appendSlots_MarksPartialOverlapAsTaken() {
+        Appointment appointment = new Appointment();
+        appointment.setStartTime(LocalTime.of(9, 15));
+        appointment.setEndTime(LocalTime.of(9, 45));
+
+        Availability availability = new Availability();
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(10, 30));
+        availability.setSlotDuration(30);
+
+        List<TimeSlot> slots = new ArrayList<>();
+        DayOccupancy.of(List.of(appointment)).appendSlots(availability, 0, slots);
+
+        assertEquals(3, slots.size());
+        assertFalse(slots.get(0).getIsAvailable()); // 9:00 overlaps 9:15
+        assertFalse(slots.get(1).getIsAvailable()); // 9:30 overlaps 9:45
+        assertTrue(slots.get(2).getIsAvailable());  // 10:00 is free
+        assertEquals(LocalTime.of(10, 30), slots.get(2).getEndTime());
+    }
+
+    @Test
+    void appendSlots_PastSlotsUnavailable() {
+        Availability availability = new Availability();
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(10, 0));
+        availability.setSlotDuration(30);
+
+        List<TimeSlot> slots = new ArrayList<>();
+        new DayOccupancy().appendSlots(availability, DayOccupancy.ceilMinute(LocalTime.of(9, 0, 30)), slots);
+
+        assertFalse(slots.get(0).getIsAvailable());
+        assertTrue(slots.get(1).getIsAvailable());
+    }
+}
@@ -0,0 +1,122 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.EarliestSlotDTO;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Doctor;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.DoctorRepository;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EarliestSlotFinderTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @InjectMocks
+    private EarliestSlotFinder earliestSlotFinder;
+
+    private LocalDate tomorrow;
+    private Doctor doctorA;
+    private Doctor doctorB;
+
+    @BeforeEach
+    void setUp() {
+        tomorrow = LocalDate.now().plusDays(1);
+        doctorA = doctor(1L);
+        doctorB = doctor(2L);
+    }
+
+    @Test
+    void findEarliest_MergesDoctorsInChronologicalOrder() {
+        Appointment booked = new Appointment();
+        booked.setDoctorId(1L);
+        booked.setAppointmentDate(tomorrow);
+        booked.setStartTime(LocalTime.of(9, 0));
+        booked.setEndTime(LocalTime.of(9, 30));
+
+        when(doctorRepository.searchDoctors("Dermatologue", "Lyon")).thenReturn(List.of(doctorA, doctorB));
+        when(availabilityRepository.findByDoctorIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                availability(1L, LocalTime.of(9, 0), LocalTime.of(10, 0), ConsultationType.BOTH),
+                availability(2L, LocalTime.of(9, 30), LocalTime.of(10, 30), ConsultationType.IN_PERSON)));
+        when(appointmentRepository.findActiveByDoctorIdInAndDateBetween(any(), any(), any()))
+                .thenReturn(Collections.singletonList(booked));
+
+        List<EarliestSlotDTO> slots = earliestSlotFinder.findEarliest("Dermatologue", "Lyon", null, 2, 3);
+
+        assertEquals(3, slots.size());
+        assertEquals(1L, slots.get(0).getDoctorId()); // 9:00 is booked, 9:30 wins the tie on doctor id
+        assertEquals(LocalTime.of(9, 30), slots.get(0).getStartTime());
+        assertEquals(2L, slots.get(1).getDoctorId());
+        assertEquals(LocalTime.of(9, 30), slots.get(1).getStartTime());
+        assertEquals(2L, slots.get(2).getDoctorId());
+        assertEquals(LocalTime.of(10, 0), slots.get(2).getStartTime());
+        assertEquals(tomorrow, slots.get(2).getDate());
+    }
+
+    @Test
+    void findEarliest_FiltersConsultationType() {
+        when(doctorRepository.searchDoctors(null, null)).thenReturn(List.of(doctorA, doctorB));
+        when(availabilityRepository.findByDoctorIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                availability(1L, LocalTime.of(9, 0), LocalTime.of(10, 0), ConsultationType.IN_PERSON),
+                availability(2L, LocalTime.of(11, 0), LocalTime.of(12, 0), ConsultationType.ONLINE)));
+        when(appointmentRepository.findActiveByDoctorIdInAndDateBetween(any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        List<EarliestSlotDTO> slots = earliestSlotFinder.findEarliest(null, null, ConsultationType.ONLINE, 2, 1);
+
+        assertEquals(1, slots.size());
+        assertEquals(2L, slots.get(0).getDoctorId());
+        assertEquals(LocalTime.of(11, 0), slots.get(0).getStartTime());
+    }
+
+    @Test
+    void findEarliest_RejectsTooLongHorizon() {
+        assertThrows(ValidationException.class, () -> earliestSlotFinder.findEarliest(null, null, null, 365, 10));
+        verifyNoInteractions(doctorRepository);
+    }
+
+    private Doctor doctor(Long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setSpecialty("Dermatologue");
+        doctor.setCity("Lyon");
+        return doctor;
+    }
+
+    private Availability availability(Long doctorId, LocalTime start, LocalTime end, ConsultationType type) {
+        Availability availability = new Availability();
+        availability.setDoctorId(doctorId);
+        availability.setDayOfWeek(tomorrow.getDayOfWeek().getValue() % 7);
+        availability.setStartTime(start);
+        availability.setEndTime(end);
+        availability.setSlotDuration(30);
+        availability.setConsultationType(type);
+        availability.setIsActive(true);
+        return availability;
+    }
+}
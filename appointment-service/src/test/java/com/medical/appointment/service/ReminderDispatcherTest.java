@@ -0,0 +1,171 @@
+package com.medical.appointment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.appointment.dto.ReminderDTO;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.common.enums.ConsultationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderDispatcherTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate TOMORROW = TODAY.plusDays(1);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private NotificationClient notificationClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock(TODAY.atTime(8, 0).toInstant(ZoneOffset.UTC));
+    // Rows served by the mocked window query
+    private final List<ReminderDTO> appointments = new ArrayList<>();
+    private ReminderDispatcher reminderDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(appointmentRepository.findReminderWindow(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.<LocalDate>getArgument(0).atTime(invocation.<LocalTime>getArgument(1));
+            LocalDateTime to = invocation.<LocalDate>getArgument(2).atTime(invocation.<LocalTime>getArgument(3));
+            Collection<ConsultationType> consultationTypes = invocation.getArgument(4);
+            return appointments.stream()
+                    .filter(row -> consultationTypes.contains(row.getConsultationType()))
+                    .filter(row -> {
+                        LocalDateTime start = row.getAppointmentDate().atTime(row.getStartTime());
+                        return !start.isBefore(from) && start.isBefore(to);
+                    })
+                    .toList();
+        });
+        reminderDispatcher = new ReminderDispatcher(appointmentRepository, notificationClient, new ObjectMapper(), transactionManager,
+                Duration.ofHours(24), Duration.ofMinutes(15), Duration.ofMinutes(15), Duration.ofSeconds(1), 200, clock);
+    }
+
+    @Test
+    void tick_SendsEachDueReminderOnceAndSkipsCancelledAppointments() {
+        appointments.add(reminder(1L, TOMORROW, LocalTime.of(8, 10), ConsultationType.IN_PERSON));
+        appointments.add(reminder(2L, TOMORROW, LocalTime.of(8, 12), ConsultationType.IN_PERSON));
+        // Appointment 2 is cancelled after its window was loaded
+        when(appointmentRepository.lockUnsentAppointmentReminders(anyList())).thenReturn(List.of(1L));
+
+        reminderDispatcher.tick();
+        verify(notificationClient, never()).sendBatch(anyList());
+
+        clock.advance(Duration.ofMinutes(15));
+        reminderDispatcher.tick();
+        clock.advance(Duration.ofMinutes(15));
+        reminderDispatcher.tick();
+
+        List<NotificationClient.Notification> sent = sentNotifications();
+        assertEquals(1, sent.size());
+        assertEquals("patient1@example.com", sent.get(0).recipient());
+        assertEquals("APPOINTMENT_REMINDER", sent.get(0).template());
+        assertTrue(sent.get(0).variables().contains("\"time\":\"08:10\""));
+        verify(appointmentRepository).markAppointmentRemindersSent(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void tick_SkipsRemindersClaimedByAnotherInstance() {
+        appointments.add(reminder(5L, TOMORROW, LocalTime.of(8, 10), ConsultationType.IN_PERSON));
+        when(appointmentRepository.lockUnsentAppointmentReminders(List.of(5L))).thenReturn(List.of());
+
+        reminderDispatcher.tick();
+        clock.advance(Duration.ofMinutes(15));
+        reminderDispatcher.tick();
+
+        assertTrue(sentNotifications().isEmpty());
+        verify(appointmentRepository, never()).markAppointmentRemindersSent(any(), any());
+    }
+
+    @Test
+    void onAppointmentBooked_SchedulesBookingsMadeAfterTheirWindowWasLoaded() {
+        reminderDispatcher.tick();
+
+        ReminderDTO booked = reminder(3L, TOMORROW, LocalTime.of(8, 5), ConsultationType.ONLINE);
+        when(appointmentRepository.findReminders(List.of(3L))).thenReturn(List.of(booked));
+        when(appointmentRepository.lockUnsentAppointmentReminders(List.of(3L))).thenReturn(List.of(3L));
+        reminderDispatcher.onAppointmentBooked(new AppointmentBookedEvent(3L, 2L, 10L, TOMORROW, LocalTime.of(8, 5)));
+
+        clock.advance(Duration.ofMinutes(6));
+        reminderDispatcher.tick();
+
+        List<NotificationClient.Notification> sent = sentNotifications();
+        assertEquals(1, sent.size());
+        assertEquals("APPOINTMENT_REMINDER", sent.get(0).template());
+        assertTrue(sent.get(0).variables().contains("\"onlineConsultation\":true"));
+    }
+
+    @Test
+    void onAppointmentBooked_IgnoresBookingsBeyondTheLoadedWindows() {
+        reminderDispatcher.tick();
+
+        reminderDispatcher.onAppointmentBooked(new AppointmentBookedEvent(4L, 2L, 10L, TOMORROW.plusDays(1), LocalTime.of(9, 0)));
+
+        verify(appointmentRepository, never()).findReminders(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<NotificationClient.Notification> sentNotifications() {
+        ArgumentCaptor<List<NotificationClient.Notification>> batches = ArgumentCaptor.forClass(List.class);
+        verify(notificationClient, atLeast(0)).sendBatch(batches.capture());
+        return batches.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private ReminderDTO reminder(Long id, LocalDate date, LocalTime startTime, ConsultationType consultationType) {
+        return new ReminderDTO(id, date, startTime, consultationType, "Jean", "Dupont", "patient" + id + "@example.com",
+                "Marie", "Martin", "Cardiologie", "12 rue de la Paix", "Paris");
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
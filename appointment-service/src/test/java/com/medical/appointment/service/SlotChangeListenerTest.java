@@ -0,0 +1,68 @@
+package com.medical.appointment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotChangeListenerTest {
+
+    @Mock
+    private SlotCache slotCache;
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    private SlotChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new SlotChangeListener(slotCache, slotHoldService, "jdbc:postgresql://localhost:1/none", "user", "pass",
+                Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(4));
+    }
+
+    @Test
+    void apply_AppointmentChangeInvalidatesTheDoctorDay() {
+        listener.apply("7:2026-03-02");
+
+        SlotsChangedEvent event = new SlotsChangedEvent(7L, LocalDate.of(2026, 3, 2));
+        verify(slotCache).onSlotsChanged(event);
+        verify(slotHoldService).onSlotsChanged(event);
+        verify(slotCache, never()).invalidateDoctor(any());
+    }
+
+    @Test
+    void apply_AvailabilityChangeInvalidatesEveryDayOfTheDoctor() {
+        listener.apply("7");
+
+        verify(slotCache).invalidateDoctor(7L);
+        verifyNoInteractions(slotHoldService);
+    }
+
+    @Test
+    void apply_IgnoresMalformedPayloads() {
+        listener.apply("7:yesterday");
+        listener.apply("");
+
+        verifyNoInteractions(slotCache, slotHoldService);
+    }
+
+    @Test
+    void poll_BacksOffExponentiallyWhileTheDatabaseIsDown() {
+        assertFalse(listener.poll());
+        assertEquals(1000, listener.nextBackoff());
+        assertFalse(listener.poll());
+        assertEquals(2000, listener.nextBackoff());
+        assertEquals(4000, listener.nextBackoff());
+        assertEquals(4000, listener.nextBackoff());
+        verifyNoInteractions(slotCache, slotHoldService);
+    }
+}
@@ -0,0 +1,169 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.model.SlotHoldEntry;
+import com.medical.appointment.repository.SlotHoldRepository;
+import com.medical.common.exception.NotFoundException;
+import com.medical.common.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotHoldServiceTest {
+
+    @Mock
+    private SlotHoldRepository slotHoldRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MutableClock clock = new MutableClock();
+    private SlotHoldService slotHoldService;
+    private DoctorDay day;
+
+    @BeforeEach
+    void setUp() {
+        slotHoldService = new SlotHoldService(slotHoldRepository, eventPublisher, Duration.ofMinutes(10), 100, clock);
+        day = new DoctorDay(1L, LocalDate.now().plusDays(1));
+    }
+
+    @Test
+    void hold_DropsLapsedAndOwnHoldsOfTheDayBeforeInserting() {
+        when(slotHoldRepository.insertIfFree(anyString(), eq(1L), eq(day.date()), eq(540), eq(570), eq(10L), any())).thenReturn(1);
+
+        SlotHold hold = slotHoldService.hold(day, 540, 570, 10L);
+
+        InOrder inOrder = inOrder(slotHoldRepository);
+        inOrder.verify(slotHoldRepository).deleteLapsedOrOwnedBy(1L, day.date(), 10L, clock.instant());
+        inOrder.verify(slotHoldRepository).insertIfFree(hold.id(), 1L, day.date(), 540, 570, 10L, clock.instant().plus(Duration.ofMinutes(10)));
+        verify(eventPublisher).publishEvent(new SlotsChangedEvent(1L, day.date()));
+    }
+
+    @Test
+    void hold_RejectsOverlapFromAnotherPatient() {
+        // The exclusion constraint skipped the row
+        when(slotHoldRepository.insertIfFree(anyString(), anyLong(), any(), anyInt(), anyInt(), anyLong(), any())).thenReturn(0);
+
+        assertThrows(ValidationException.class, () -> slotHoldService.hold(day, 555, 585, 11L));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void holdIfFree_EmptyInsteadOfThrowing() {
+        Instant expiresAt = clock.instant().plus(Duration.ofMinutes(3));
+        when(slotHoldRepository.insertIfFree(anyString(), anyLong(), any(), anyInt(), anyInt(), anyLong(), eq(expiresAt))).thenReturn(0);
+
+        assertTrue(slotHoldService.holdIfFree(day, 540, 570, 11L, expiresAt).isEmpty());
+    }
+
+    @Test
+    void activeHolds_ReadOncePerDayUntilTheDayChanges() {
+        when(slotHoldRepository.findActive(1L, day.date(), clock.instant())).thenReturn(List.of(entry(10L, clock.instant().plusSeconds(600))));
+
+        assertEquals(1, slotHoldService.activeHolds(day).size());
+        assertEquals(1, slotHoldService.activeHolds(day).size());
+        verify(slotHoldRepository, times(1)).findActive(any(), any(), any());
+
+        slotHoldService.onSlotsChanged(new SlotsChangedEvent(1L, day.date()));
+        slotHoldService.activeHolds(day);
+        verify(slotHoldRepository, times(2)).findActive(any(), any(), any());
+    }
+
+    @Test
+    void activeHolds_SkipExpiredHolds() {
+        when(slotHoldRepository.findActive(1L, day.date(), clock.instant())).thenReturn(List.of(entry(10L, clock.instant().plusSeconds(600))));
+        assertEquals(1, slotHoldService.activeHolds(day).size());
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertTrue(slotHoldService.activeHolds(day).isEmpty());
+    }
+
+    @Test
+    void release_OnlyByOwner() {
+        SlotHoldEntry entry = entry(10L, clock.instant().plusSeconds(600));
+        when(slotHoldRepository.findById("hold-1")).thenReturn(Optional.of(entry));
+
+        assertThrows(NotFoundException.class, () -> slotHoldService.release("hold-1", 11L));
+        verify(slotHoldRepository, never()).delete(any());
+
+        slotHoldService.release("hold-1", 10L);
+        verify(slotHoldRepository).delete(entry);
+        verify(eventPublisher).publishEvent(new SlotsChangedEvent(1L, day.date()));
+    }
+
+    @Test
+    void releaseFor_PublishesOnlyWhenAHoldWasDropped() {
+        when(slotHoldRepository.deleteByPatient(1L, day.date(), 10L)).thenReturn(0);
+        slotHoldService.releaseFor(day, 10L);
+        verifyNoInteractions(eventPublisher);
+
+        when(slotHoldRepository.deleteByPatient(1L, day.date(), 10L)).thenReturn(1);
+        slotHoldService.releaseFor(day, 10L);
+        verify(eventPublisher).publishEvent(new SlotsChangedEvent(1L, day.date()));
+    }
+
+    @Test
+    void isHeldByOther_ReadsTheDatabase() {
+        when(slotHoldRepository.existsHeldByOther(1L, day.date(), 540, 570, 11L, clock.instant())).thenReturn(true);
+
+        assertTrue(slotHoldService.isHeldByOther(day, 540, 570, 11L));
+        assertFalse(slotHoldService.isHeldByOther(day, 540, 570, 10L));
+    }
+
+    private SlotHoldEntry entry(Long patientId, Instant expiresAt) {
+        SlotHoldEntry entry = new SlotHoldEntry();
+        entry.setId("hold-1");
+        entry.setDoctorId(day.doctorId());
+        entry.setHoldDate(day.date());
+        entry.setStartMinute(540);
+        entry.setEndMinute(570);
+        entry.setPatientId(patientId);
+        entry.setExpiresAt(expiresAt);
+        return entry;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.now();
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.medical.appointment.service;
 
+import com.medical.appointment.dto.FreeSlotDTO;
+import com.medical.appointment.dto.SlotCalendarDTO;
 import com.medical.appointment.dto.TimeSlot;
 import com.medical.appointment.model.Appointment;
 import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.SlotInventory;
 import com.medical.appointment.repository.AppointmentRepository;
 import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.SlotInventoryRepository;
+import com.medical.common.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collections;
@@ -19,6 +29,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +39,12 @@ class SlotServiceTest {
     private AvailabilityRepository availabilityRepository;
     @Mock
     private AppointmentRepository appointmentRepository;
+    @Mock
+    private SlotInventoryRepository slotInventoryRepository;
+    @Spy
+    private SlotCache slotCache = new SlotCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+    @Mock
+    private SlotHoldService slotHoldService;
 
     @InjectMocks
     private SlotService slotService;
@@ -73,4 +90,133 @@ class SlotServiceTest {
         assertFalse(slots.get(0).getIsAvailable()); // 9:00 is booked
         assertTrue(slots.get(1).getIsAvailable());  // 9:30 is free
     }
+
+    @Test
+    void getAvailableSlots_HeldSlotUnavailable() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.emptyList());
+
+        heldDuringCheckout(new DoctorDay(1L, date), 570, 600); // 9:30
+
+        List<TimeSlot> slots = slotService.getAvailableSlots(1L, date);
+
+        assertTrue(slots.get(0).getIsAvailable());
+        assertFalse(slots.get(1).getIsAvailable());
+    }
+
+    @Test
+    void getAvailableSlotsInRange_EncodesEachDay() {
+        LocalDate monday = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+        appointment.setAppointmentDate(monday);
+
+        when(availabilityRepository.findByDoctorId(1L)).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDateBetween(1L, monday, monday.plusDays(6)))
+                .thenReturn(Collections.singletonList(appointment));
+
+        SlotCalendarDTO calendar = slotService.getAvailableSlotsInRange(1L, monday, monday.plusDays(6));
+
+        assertEquals(7, calendar.getDays().size());
+        assertArrayEquals(new int[]{540, 570}, calendar.getDays().get(0).getStartMinutes());
+        assertEquals("01", calendar.getDays().get(0).getAvailability()); // 9:00 is booked
+        assertEquals(0, calendar.getDays().get(1).getStartMinutes().length); // no Tuesday rule
+        verify(availabilityRepository, never()).findByDoctorIdAndDayOfWeek(any(), any());
+    }
+
+    @Test
+    void getAvailableSlotsInRange_RejectsTooLongRange() {
+        LocalDate from = LocalDate.now();
+
+        assertThrows(ValidationException.class, () -> slotService.getAvailableSlotsInRange(1L, from, from.plusDays(31)));
+    }
+
+    @Test
+    void getAvailableSlots_ServedFromCacheUntilInvalidated() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.emptyList());
+
+        slotService.getAvailableSlots(1L, date);
+        slotService.getAvailableSlots(1L, date);
+        verify(appointmentRepository, times(1)).findActiveByDoctorAndDate(1L, date);
+
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.singletonList(appointment));
+        slotCache.onSlotsChanged(new SlotsChangedEvent(1L, date));
+
+        List<TimeSlot> slots = slotService.getAvailableSlots(1L, date);
+        assertFalse(slots.get(0).getIsAvailable());
+        verify(appointmentRepository, times(2)).findActiveByDoctorAndDate(1L, date);
+    }
+
+    @Test
+    void getAvailableSlotsInRange_LoadsOnlyMissingDays() {
+        LocalDate monday = LocalDate.now().plusWeeks(1).with(DayOfWeek.MONDAY);
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.emptyList());
+        when(availabilityRepository.findByDoctorId(1L)).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDateBetween(any(), any(), any())).thenReturn(Collections.emptyList());
+
+        slotService.getAvailableSlots(1L, monday); // Monday is now cached
+        slotService.getAvailableSlotsInRange(1L, monday, monday.plusDays(2));
+        slotService.getAvailableSlotsInRange(1L, monday, monday.plusDays(2));
+
+        verify(appointmentRepository, times(1)).findActiveByDoctorAndDateBetween(1L, monday.plusDays(1), monday.plusDays(2));
+    }
+
+    @Test
+    void slotsETag_DependsOnlyOnTheSlots() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(any(), any())).thenReturn(Collections.singletonList(availability));
+        when(appointmentRepository.findActiveByDoctorAndDate(any(), any())).thenReturn(Collections.emptyList());
+
+        String free = SlotService.slotsETag(slotService.getAvailableSlots(1L, date));
+        // Same slots built by another instance
+        assertEquals(free, SlotService.slotsETag(List.of(
+                new TimeSlot(LocalTime.of(9, 0), LocalTime.of(9, 30), true),
+                new TimeSlot(LocalTime.of(9, 30), LocalTime.of(10, 0), true))));
+
+        heldDuringCheckout(new DoctorDay(1L, date), 540, 570);
+        String held = SlotService.slotsETag(slotService.getAvailableSlots(1L, date));
+        assertNotEquals(free, held);
+
+        when(slotHoldService.activeHolds(new DoctorDay(1L, date))).thenReturn(List.of());
+        assertEquals(free, SlotService.slotsETag(slotService.getAvailableSlots(1L, date)));
+    }
+
+    @Test
+    void getFreeSlots_ReadsInventoryAndSkipsHeldSlots() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        when(slotInventoryRepository.findFree(eq(1L), eq(date), eq(date.plusDays(6)), any(), any()))
+                .thenReturn(List.of(inventorySlot(date, 9, 0), inventorySlot(date, 9, 30)));
+
+        heldDuringCheckout(new DoctorDay(1L, date), 570, 600); // 9:30
+
+        List<FreeSlotDTO> slots = slotService.getFreeSlots(1L, date, date.plusDays(6));
+
+        assertEquals(1, slots.size());
+        assertEquals(LocalTime.of(9, 0), slots.get(0).getStartTime());
+        verifyNoInteractions(availabilityRepository, appointmentRepository);
+    }
+
+    @Test
+    void getFreeSlots_RejectsRangeBeyondInventoryHorizon() {
+        LocalDate from = LocalDate.now();
+
+        assertThrows(ValidationException.class, () -> slotService.getFreeSlots(1L, from, from.plusDays(90)));
+        verifyNoInteractions(slotInventoryRepository);
+    }
+
+    private void heldDuringCheckout(DoctorDay day, int start, int end) {
+        when(slotHoldService.activeHolds(day)).thenReturn(List.of(new SlotHold("hold-7", day, start, end, 7L, Instant.now().plusSeconds(600))));
+    }
+
+    private SlotInventory inventorySlot(LocalDate date, int hour, int minute) {
+        SlotInventory slot = new SlotInventory();
+        slot.setDoctorId(1L);
+        slot.setSlotDate(date);
+        slot.setStartTime(LocalTime.of(hour, minute));
+        slot.setEndTime(LocalTime.of(hour, minute).plusMinutes(30));
+        slot.setTaken(false);
+        return slot;
+    }
 }
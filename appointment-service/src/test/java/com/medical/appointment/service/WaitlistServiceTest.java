@@ -0,0 +1,202 @@
+package com.medical.appointment.service;
+
+import com.medical.appointment.dto.WaitlistInput;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.model.WaitlistEntry;
+import com.medical.appointment.repository.PatientRepository;
+import com.medical.appointment.repository.WaitlistRepository;
+import com.medical.common.enums.ConsultationType;
+import com.medical.common.enums.WaitlistStatus;
+import com.medical.common.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    private static final DoctorDay DAY = new DoctorDay(2L, LocalDate.now().plusDays(3));
+    private static final int START = 600;
+    private static final int END = 630;
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+    @Mock
+    private PatientRepository patientRepository;
+    @Mock
+    private SlotService slotService;
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(patientRepository.findByUserId(100L)).thenReturn(Optional.of(patient(10L)));
+    }
+
+    @Test
+    void onSlotFreed_HoldsTheSlotForTheFirstPatientInLine() {
+        window(ConsultationType.BOTH);
+        grantHolds(Duration.ofMinutes(10));
+        WaitlistEntry first = entry(1L, 10L, ConsultationType.ONLINE);
+        when(waitlistRepository.lockFirstWaiting(2L, DAY.date(), List.of("IN_PERSON", "ONLINE"), 99L)).thenReturn(Optional.of(first));
+
+        waitlistService.onSlotFreed(new SlotFreedEvent(DAY, START, END, 99L));
+
+        assertEquals(WaitlistStatus.OFFERED, first.getStatus());
+        assertEquals(LocalTime.of(10, 0), first.getOfferedStartTime());
+        assertEquals("hold-10", first.getHoldId());
+        verify(slotHoldService).holdIfFree(DAY, START, END, 10L);
+        verify(waitlistRepository).save(first);
+    }
+
+    @Test
+    void onSlotFreed_ClaimsOnlyTheConsultationTypesOfTheWindow() {
+        window(ConsultationType.ONLINE);
+
+        waitlistService.onSlotFreed(new SlotFreedEvent(DAY, START, END, 11L));
+
+        verify(waitlistRepository).lockFirstWaiting(2L, DAY.date(), List.of("ONLINE"), 11L);
+        verifyNoInteractions(slotHoldService);
+    }
+
+    @Test
+    void onSlotFreed_LeavesTheWaiterInLineWhenTheSlotIsHeld() {
+        window(ConsultationType.BOTH);
+        WaitlistEntry first = entry(1L, 10L, ConsultationType.ONLINE);
+        when(waitlistRepository.lockFirstWaiting(any(), any(), any(), any())).thenReturn(Optional.of(first));
+        when(slotHoldService.holdIfFree(DAY, START, END, 10L)).thenReturn(Optional.empty());
+
+        waitlistService.onSlotFreed(new SlotFreedEvent(DAY, START, END, 99L));
+
+        assertEquals(WaitlistStatus.WAITING, first.getStatus());
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    @Test
+    void sweep_PassesALapsedOfferToTheNextPatient() {
+        window(ConsultationType.BOTH);
+        grantHolds(Duration.ofMinutes(10));
+        WaitlistEntry lapsed = offered(1L, 10L, Instant.now().minusSeconds(60));
+        WaitlistEntry next = entry(2L, 11L, ConsultationType.ONLINE);
+        when(waitlistRepository.lockLapsedOffers(any(), eq(WaitlistService.SWEEP_BATCH_SIZE))).thenReturn(List.of(lapsed));
+        when(waitlistRepository.lockFirstWaiting(2L, DAY.date(), List.of("IN_PERSON", "ONLINE"), 10L)).thenReturn(Optional.of(next));
+
+        waitlistService.sweep();
+
+        assertEquals(WaitlistStatus.EXPIRED, lapsed.getStatus());
+        assertEquals(WaitlistStatus.OFFERED, next.getStatus());
+        verify(waitlistRepository).expireEndedBefore(LocalDate.now());
+    }
+
+    @Test
+    void onAppointmentBooked_ClosesTheOfferBookedWithItsHold() {
+        waitlistService.onAppointmentBooked(new AppointmentBookedEvent(50L, 2L, 10L, DAY.date(), LocalTime.of(10, 0)));
+
+        verify(waitlistRepository).markOfferBooked(10L, 2L, DAY.date(), LocalTime.of(10, 0));
+    }
+
+    @Test
+    void leave_DecliningAnOfferPassesTheSlotOn() {
+        window(ConsultationType.BOTH);
+        grantHolds(Duration.ofMinutes(10));
+        WaitlistEntry declined = offered(1L, 10L, Instant.now().plusSeconds(300));
+        WaitlistEntry next = entry(2L, 11L, ConsultationType.ONLINE);
+        when(waitlistRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(declined));
+        when(slotHoldService.releaseIfHeld("hold-1", 10L)).thenReturn(true);
+        when(waitlistRepository.lockFirstWaiting(2L, DAY.date(), List.of("IN_PERSON", "ONLINE"), 10L)).thenReturn(Optional.of(next));
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        waitlistService.leave(100L, 1L);
+
+        assertEquals(WaitlistStatus.CANCELLED, declined.getStatus());
+        assertEquals(WaitlistStatus.OFFERED, next.getStatus());
+    }
+
+    @Test
+    void join_RejectsRangesLongerThanTheMaximum() {
+        WaitlistInput input = new WaitlistInput();
+        input.setDoctorId(2L);
+        input.setFromDate(DAY.date());
+        input.setToDate(DAY.date().plusDays(WaitlistService.MAX_RANGE_DAYS));
+        input.setConsultationType(ConsultationType.ONLINE);
+
+        assertThrows(ValidationException.class, () -> waitlistService.join(100L, input));
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    /**
+     * A free 9:00-12:00 window of the given type on DAY.
+     */
+    private void window(ConsultationType windowType) {
+        Availability availability = new Availability();
+        availability.setDoctorId(DAY.doctorId());
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(12, 0));
+        availability.setSlotDuration(30);
+        availability.setConsultationType(windowType);
+        availability.setIsActive(true);
+        when(slotService.getDaySchedule(DAY)).thenReturn(new DaySchedule(List.of(availability), new DayOccupancy()));
+    }
+
+    /**
+     * Every hold asked for is granted, for the given lifetime.
+     */
+    private void grantHolds(Duration lifetime) {
+        when(slotHoldService.holdIfFree(any(), anyInt(), anyInt(), any())).thenAnswer(invocation -> {
+            Long patientId = invocation.getArgument(3);
+            return Optional.of(new SlotHold("hold-" + patientId, invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2), patientId, Instant.now().plus(lifetime)));
+        });
+    }
+
+    /**
+     * An offer of DAY at START.
+     */
+    private WaitlistEntry offered(Long id, Long patientId, Instant expiresAt) {
+        WaitlistEntry entry = entry(id, patientId, ConsultationType.ONLINE);
+        entry.setStatus(WaitlistStatus.OFFERED);
+        entry.setHoldId("hold-" + id);
+        entry.setOfferedDate(DAY.date());
+        entry.setOfferedStartTime(DayOccupancy.toTime(START));
+        entry.setOfferExpiresAt(expiresAt);
+        return entry;
+    }
+
+    private static Patient patient(Long id) {
+        Patient patient = new Patient();
+        patient.setId(id);
+        return patient;
+    }
+
+    private WaitlistEntry entry(Long id, Long patientId, ConsultationType consultationType) {
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(id);
+        entry.setPatientId(patientId);
+        entry.setDoctorId(DAY.doctorId());
+        entry.setDateFrom(DAY.date().minusDays(1));
+        entry.setDateTo(DAY.date().plusDays(1));
+        entry.setConsultationType(consultationType);
+        entry.setStatus(WaitlistStatus.WAITING);
+        return entry;
+    }
+}
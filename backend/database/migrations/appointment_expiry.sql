@@ -0,0 +1,17 @@
+-- Expiration des rendez-vous non payés
+-- Un rendez-vous resté PENDING au-delà du délai de paiement (appointments.expiry.pending-timeout) passe à EXPIRED :
+-- son créneau redevient libre. appointment-service les traite par lots, les plus anciens d'abord, en
+-- verrouillant les lignes avec FOR UPDATE SKIP LOCKED (plusieurs instances peuvent balayer en même temps).
+
+ALTER TABLE appointments DROP CONSTRAINT IF EXISTS appointments_status_check;
+ALTER TABLE appointments ADD CONSTRAINT appointments_status_check
+    CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'COMPLETED', 'EXPIRED'));
+
+-- Index partiel : seuls les rendez-vous en attente de paiement, triés par date de création
+CREATE INDEX IF NOT EXISTS idx_appointments_pending ON appointments(created_at) WHERE status = 'PENDING';
+
+-- Un créneau expiré doit pouvoir être réservé à nouveau : l'unicité (médecin, date, heure) ne porte plus
+-- que sur les rendez-vous actifs (même index que waitlist.sql, créé par la première migration appliquée)
+ALTER TABLE appointments DROP CONSTRAINT IF EXISTS appointments_doctor_id_appointment_date_start_time_key;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_appointments_active_slot ON appointments(doctor_id, appointment_date, start_time)
+    WHERE status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'EXPIRED');
@@ -0,0 +1,13 @@
+-- Rappels de rendez-vous
+-- appointment-service lit les rendez-vous à venir par tranches de 15 minutes (une requête par tranche),
+-- un peu avant l'heure des rappels, puis les envoie par lots à notification-service.
+-- Cet index partiel sert ces lectures sans parcourir la table.
+-- Chaque instance charge les mêmes rendez-vous : un rappel n'est envoyé que par l'instance qui le réclame en
+-- renseignant sa colonne *_sent_at (lignes verrouillées), les autres le voient déjà envoyé et l'ignorent.
+
+CREATE INDEX IF NOT EXISTS idx_appointments_upcoming
+    ON appointments(appointment_date, start_time)
+    WHERE status IN ('PENDING', 'CONFIRMED');
+
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS reminder_sent_at TIMESTAMP;
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS consultation_reminder_sent_at TIMESTAMP;
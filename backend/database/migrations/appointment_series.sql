@@ -0,0 +1,7 @@
+-- Réservation de séries de rendez-vous
+-- appointment-service insère toutes les occurrences d'une série en lots JDBC (hibernate.jdbc.batch_size).
+-- Avec BIGSERIAL/IDENTITY, chaque INSERT doit renvoyer son id et ne peut pas être regroupé :
+-- l'entité Appointment réserve donc ses ids par blocs de 50 (allocationSize = 50), ce qui impose
+-- que la séquence avance du même pas.
+
+ALTER SEQUENCE appointments_id_seq INCREMENT BY 50;
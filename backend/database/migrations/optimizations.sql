@@ -12,6 +12,9 @@ CREATE INDEX IF NOT EXISTS idx_appointments_date ON appointments(appointment_dat
 CREATE INDEX IF NOT EXISTS idx_appointments_status ON appointments(status);
 CREATE INDEX IF NOT EXISTS idx_appointments_doctor_date ON appointments(doctor_id, appointment_date);
 CREATE INDEX IF NOT EXISTS idx_appointments_patient_date ON appointments(patient_id, appointment_date);
+-- Pagination par curseur de l'historique (appointment_date, start_time, id)
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_keyset ON appointments(doctor_id, appointment_date, start_time, id);
+CREATE INDEX IF NOT EXISTS idx_appointments_patient_keyset ON appointments(patient_id, appointment_date, start_time, id);
 
 -- Index pour les tables de médecins
 CREATE INDEX IF NOT EXISTS idx_doctors_specialty ON doctors(specialty);
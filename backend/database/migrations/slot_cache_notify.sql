@@ -0,0 +1,32 @@
+-- Invalidation du cache des créneaux sur toutes les instances
+-- appointment-service garde en mémoire les journées (médecin, date) déjà calculées. Chaque modification
+-- validée d'un rendez-vous ou d'une règle de disponibilité est publiée sur le canal slots_changed ;
+-- chaque instance l'écoute (LISTEN) sur une connexion dédiée et retire les journées concernées.
+-- PostgreSQL ne délivre les notifications qu'au COMMIT et fusionne les doublons d'une même transaction.
+
+CREATE OR REPLACE FUNCTION notify_slots_changed()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'availabilities' THEN
+        PERFORM pg_notify('slots_changed', COALESCE(NEW.doctor_id, OLD.doctor_id)::text);
+        RETURN NULL;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM pg_notify('slots_changed', OLD.doctor_id || ':' || to_char(OLD.appointment_date, 'YYYY-MM-DD'));
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM pg_notify('slots_changed', NEW.doctor_id || ':' || to_char(NEW.appointment_date, 'YYYY-MM-DD'));
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Seules les colonnes qui changent l'occupation du créneau (pas les notes ni le motif)
+DROP TRIGGER IF EXISTS notify_appointments_slots_changed ON appointments;
+CREATE TRIGGER notify_appointments_slots_changed
+    AFTER INSERT OR DELETE OR UPDATE OF doctor_id, appointment_date, start_time, end_time, status ON appointments
+    FOR EACH ROW EXECUTE FUNCTION notify_slots_changed();
+
+DROP TRIGGER IF EXISTS notify_availabilities_slots_changed ON availabilities;
+CREATE TRIGGER notify_availabilities_slots_changed AFTER INSERT OR UPDATE OR DELETE ON availabilities
+    FOR EACH ROW EXECUTE FUNCTION notify_slots_changed();
@@ -0,0 +1,54 @@
+-- Options de créneau pendant le paiement
+-- Une option (hold) réserve [start_minute, end_minute) d'une journée de médecin le temps du paiement.
+-- Stockées en base pour être vues de toutes les instances d'appointment-service ; chaque instance garde
+-- les options des journées affichées en cache et le vide sur notification slots_changed.
+-- À exécuter après slot_cache_notify.sql.
+
+-- Égalité sur doctor_id / hold_date dans la contrainte d'exclusion GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE IF NOT EXISTS slot_holds (
+    id VARCHAR(36) PRIMARY KEY,
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id) ON DELETE CASCADE,
+    hold_date DATE NOT NULL,
+    start_minute INTEGER NOT NULL,
+    end_minute INTEGER NOT NULL,
+    patient_id BIGINT NOT NULL REFERENCES patients(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CHECK (end_minute > start_minute),
+    -- Deux options d'une même journée ne se chevauchent jamais, quelle que soit l'instance qui les pose ;
+    -- les options échues sont supprimées avant chaque nouvelle option de la journée
+    CONSTRAINT ex_slot_holds_overlap EXCLUDE USING gist (
+        doctor_id WITH =, hold_date WITH =, int4range(start_minute, end_minute) WITH &&)
+);
+
+-- Purge périodique des options échues
+CREATE INDEX IF NOT EXISTS idx_slot_holds_expires ON slot_holds(expires_at);
+
+-- Les options changent aussi les créneaux affichés : publiées sur slots_changed comme les rendez-vous
+CREATE OR REPLACE FUNCTION notify_slots_changed()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'availabilities' THEN
+        PERFORM pg_notify('slots_changed', COALESCE(NEW.doctor_id, OLD.doctor_id)::text);
+        RETURN NULL;
+    END IF;
+    IF TG_TABLE_NAME = 'slot_holds' THEN
+        PERFORM pg_notify('slots_changed', COALESCE(NEW.doctor_id, OLD.doctor_id) || ':'
+            || to_char(COALESCE(NEW.hold_date, OLD.hold_date), 'YYYY-MM-DD'));
+        RETURN NULL;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM pg_notify('slots_changed', OLD.doctor_id || ':' || to_char(OLD.appointment_date, 'YYYY-MM-DD'));
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM pg_notify('slots_changed', NEW.doctor_id || ':' || to_char(NEW.appointment_date, 'YYYY-MM-DD'));
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+DROP TRIGGER IF EXISTS notify_slot_holds_slots_changed ON slot_holds;
+CREATE TRIGGER notify_slot_holds_slots_changed AFTER INSERT OR DELETE ON slot_holds
+    FOR EACH ROW EXECUTE FUNCTION notify_slots_changed();
@@ -0,0 +1,27 @@
+-- Inventaire de créneaux matérialisé
+-- Les règles de disponibilité sont dépliées en créneaux concrets sur un horizon glissant (90 jours par défaut).
+-- doctor-service génère les créneaux d'une règle à sa création et prolonge l'horizon chaque nuit ainsi qu'à
+-- chaque démarrage : les règles existant avant cette migration sont dépliées dès le redémarrage qui la suit ;
+-- la suppression d'une règle supprime ses créneaux (ON DELETE CASCADE).
+-- appointment-service met à jour is_taken à chaque réservation et annulation.
+
+CREATE TABLE IF NOT EXISTS slot_inventory (
+    id BIGSERIAL PRIMARY KEY,
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id) ON DELETE CASCADE,
+    availability_id BIGINT NOT NULL REFERENCES availabilities(id) ON DELETE CASCADE,
+    slot_date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    consultation_type VARCHAR(50) NOT NULL CHECK (consultation_type IN ('IN_PERSON', 'ONLINE', 'BOTH')),
+    is_taken BOOLEAN NOT NULL DEFAULT false,
+    UNIQUE(availability_id, slot_date, start_time)
+);
+
+-- Rafraîchissement de is_taken pour une journée d'un médecin
+CREATE INDEX IF NOT EXISTS idx_slot_inventory_doctor_date ON slot_inventory(doctor_id, slot_date);
+
+-- Recherche des créneaux libres : index partiel, les créneaux pris n'y figurent pas
+CREATE INDEX IF NOT EXISTS idx_slot_inventory_free ON slot_inventory(doctor_id, slot_date, start_time) WHERE NOT is_taken;
+
+-- Chevauchement avec les rendez-vous actifs lors du calcul de is_taken
+CREATE INDEX IF NOT EXISTS idx_appointments_doctor_date ON appointments(doctor_id, appointment_date);
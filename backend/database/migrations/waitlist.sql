@@ -0,0 +1,44 @@
+-- Liste d'attente sur désistement
+-- Un patient s'inscrit pour un médecin, une plage de dates (31 jours au plus) et un type de consultation.
+-- À chaque annulation, appointment-service prend le premier inscrit compatible (FOR UPDATE SKIP LOCKED)
+-- et lui pose une option sur le créneau libéré le temps du paiement. Inscriptions et offres ne vivent
+-- qu'en base : plusieurs instances se partagent les annulations et les offres échues sans doublon.
+
+CREATE TABLE IF NOT EXISTS waitlist_entries (
+    id BIGSERIAL PRIMARY KEY,
+    patient_id BIGINT NOT NULL REFERENCES patients(id),
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id),
+    date_from DATE NOT NULL,
+    date_to DATE NOT NULL,
+    consultation_type VARCHAR(50) NOT NULL CHECK (consultation_type IN ('IN_PERSON', 'ONLINE')),
+    status VARCHAR(50) NOT NULL DEFAULT 'WAITING' CHECK (status IN ('WAITING', 'OFFERED', 'BOOKED', 'EXPIRED', 'CANCELLED')),
+    hold_id VARCHAR(36),
+    offered_date DATE,
+    offered_start_time TIME,
+    offer_expires_at TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CHECK (date_to >= date_from)
+);
+
+-- Expiration des inscriptions dont la plage est passée
+CREATE INDEX IF NOT EXISTS idx_waitlist_waiting ON waitlist_entries(date_to) WHERE status = 'WAITING';
+
+-- Premier inscrit en attente d'un médecin, par ordre d'inscription
+CREATE INDEX IF NOT EXISTS idx_waitlist_doctor_waiting ON waitlist_entries(doctor_id, id) WHERE status = 'WAITING';
+
+-- Offres échues à transmettre au suivant
+CREATE INDEX IF NOT EXISTS idx_waitlist_offered ON waitlist_entries(offer_expires_at) WHERE status = 'OFFERED';
+
+-- « Mes inscriptions » côté patient
+CREATE INDEX IF NOT EXISTS idx_waitlist_patient ON waitlist_entries(patient_id);
+
+-- Offre réservée par le patient : BOOKED (tables créées avant l'ajout de ce statut)
+ALTER TABLE waitlist_entries DROP CONSTRAINT IF EXISTS waitlist_entries_status_check;
+ALTER TABLE waitlist_entries ADD CONSTRAINT waitlist_entries_status_check
+    CHECK (status IN ('WAITING', 'OFFERED', 'BOOKED', 'EXPIRED', 'CANCELLED'));
+
+-- Un créneau libéré par une annulation doit pouvoir être réservé à nouveau : l'unicité
+-- (médecin, date, heure) ne porte plus que sur les rendez-vous actifs
+ALTER TABLE appointments DROP CONSTRAINT IF EXISTS appointments_doctor_id_appointment_date_start_time_key;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_appointments_active_slot ON appointments(doctor_id, appointment_date, start_time)
+    WHERE status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'EXPIRED');
@@ -0,0 +1,53 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.model.Appointment;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * AppointmentDTO.fromEntity over a result list, as done by the list endpoints.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar AppointmentDtoBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentDtoBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int appointmentCount;
+
+    private List<Appointment> appointments;
+
+    @Setup
+    public void setUp() {
+        appointments = new ArrayList<>(appointmentCount);
+        LocalDate date = LocalDate.now();
+        for (int i = 0; i < appointmentCount; i++) {
+            Appointment appointment = Schedules.appointment(1L + i % 20, (long) i, date.plusDays(i / 24),
+                    Schedules.DAY_START.plusMinutes(30L * (i % 24)), 30);
+            appointment.setId((long) i);
+            appointment.setCreatedAt(LocalDateTime.now());
+            appointment.setUpdatedAt(LocalDateTime.now());
+            appointments.add(appointment);
+        }
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> fromEntity() {
+        return appointments.stream()
+                .map(AppointmentDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+}
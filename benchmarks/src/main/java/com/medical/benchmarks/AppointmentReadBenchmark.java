@@ -0,0 +1,134 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Doctor;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.repository.AppointmentRepository;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A patient's appointment history read through Hibernate from an in-memory H2 database:
+ * - entities: managed entities in a read-write transaction, then AppointmentDTO.fromEntity (the former read path)
+ * - readOnlyEntities: the same with a read-only session and manual flush, as @Transactional(readOnly = true) sets up
+ * - projection: the constructor projection now used by AppointmentRepository.findDtosByPatientId
+ *
+ * Compare gc.alloc.rate.norm (bytes per call).
+ * Run with: java -jar benchmarks/target/benchmarks.jar AppointmentReadBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentReadBenchmark {
+
+    private static final Long PATIENT_ID = 1L;
+    private static final String ENTITY_QUERY = "SELECT a FROM Appointment a WHERE a.patientId = :patientId";
+
+    @Param({"100", "5000"})
+    private int appointmentCount;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Appointment.class)
+                .addAnnotatedClass(Patient.class)
+                .addAnnotatedClass(Doctor.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:appointments;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .buildSessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            Patient patient = new Patient();
+            patient.setId(PATIENT_ID);
+            patient.setUserId(PATIENT_ID);
+            session.persist(patient);
+            Doctor doctor = new Doctor();
+            doctor.setId(1L);
+            session.persist(doctor);
+
+            LocalDate firstDay = LocalDate.now().minusYears(2);
+            for (int i = 0; i < appointmentCount; i++) {
+                session.persist(Schedules.appointment(1L, PATIENT_ID, firstDay.plusDays(i / 16),
+                        Schedules.DAY_START.plusMinutes(30L * (i % 16)), 30));
+                if (i % 50 == 49) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> entities() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            List<AppointmentDTO> result = session.createQuery(ENTITY_QUERY, Appointment.class)
+                    .setParameter("patientId", PATIENT_ID)
+                    .getResultList().stream()
+                    .map(AppointmentDTO::fromEntity)
+                    .collect(Collectors.toList());
+            // Commit flushes, dirty-checking every loaded entity against its snapshot
+            transaction.commit();
+            return result;
+        }
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> readOnlyEntities() {
+        try (Session session = readOnlySession()) {
+            Transaction transaction = session.beginTransaction();
+            List<AppointmentDTO> result = session.createQuery(ENTITY_QUERY, Appointment.class)
+                    .setParameter("patientId", PATIENT_ID)
+                    .getResultList().stream()
+                    .map(AppointmentDTO::fromEntity)
+                    .collect(Collectors.toList());
+            transaction.commit();
+            return result;
+        }
+    }
+
+    @Benchmark
+    public List<AppointmentDTO> projection() {
+        try (Session session = readOnlySession()) {
+            Transaction transaction = session.beginTransaction();
+            List<AppointmentDTO> result = session.createQuery(AppointmentRepository.PATIENT_DTO_QUERY, AppointmentDTO.class)
+                    .setParameter("patientId", PATIENT_ID)
+                    .getResultList();
+            transaction.commit();
+            return result;
+        }
+    }
+
+    private Session readOnlySession() {
+        Session session = sessionFactory.openSession();
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return session;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.service.AppointmentService;
+import com.medical.appointment.service.BookingMode;
+import com.medical.appointment.service.BookingService;
+import com.medical.appointment.service.DoctorDayLocks;
+import com.medical.appointment.service.SlotCache;
+import com.medical.appointment.service.SlotHoldService;
+import com.medical.appointment.service.SlotService;
+import com.medical.appointment.service.SlotsChangedEvent;
+import com.medical.common.enums.ConsultationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1,000 concurrent booking attempts against the 16 slots of one doctor-day, per booking mode.
+ * Score is the time per attempt; repository calls are simulated with a fixed latency.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar BookingContentionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingContentionBenchmark {
+
+    private static final int ATTEMPTS = 1000;
+    private static final int THREADS = 64;
+
+    @Param({"CHECKED", "STRIPED"})
+    private BookingMode mode;
+
+    @Param({"0", "200"})
+    private long repositoryLatencyMicros;
+
+    private InMemoryRepositories repositories;
+    private SlotCache slotCache;
+    private BookingService bookingService;
+    private ExecutorService executor;
+    private List<CreateAppointmentInput> inputs;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        repositories = new InMemoryRepositories(TimeUnit.MICROSECONDS.toNanos(repositoryLatencyMicros));
+
+        Availability availability = new Availability();
+        availability.setDoctorId(1L);
+        availability.setDayOfWeek(date.getDayOfWeek().getValue() % 7);
+        availability.setStartTime(LocalTime.of(9, 0));
+        availability.setEndTime(LocalTime.of(17, 0));
+        availability.setSlotDuration(30);
+        availability.setConsultationType(ConsultationType.BOTH);
+        availability.setIsActive(true);
+        repositories.addAvailability(availability);
+
+        slotCache = new SlotCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10));
+        SlotHoldService slotHoldService = new SlotHoldService(repositories.slotHoldRepository(), event -> { }, Duration.ofMinutes(10), 1000);
+        SlotService slotService = new SlotService(repositories.availabilityRepository(),
+                repositories.appointmentRepository(), repositories.slotInventoryRepository(), slotCache, slotHoldService);
+        AppointmentService appointmentService = new AppointmentService(repositories.appointmentRepository(),
+                repositories.patientRepository(), repositories.availabilityRepository(), slotService, slotHoldService,
+                event -> {
+                    if (event instanceof SlotsChangedEvent changed) slotCache.onSlotsChanged(changed);
+                });
+        bookingService = new BookingService(appointmentService, slotService, new DoctorDayLocks(256), mode, Duration.ofSeconds(30));
+
+        inputs = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            CreateAppointmentInput input = new CreateAppointmentInput();
+            input.setDoctorId(1L);
+            input.setAppointmentDate(date);
+            input.setStartTime(LocalTime.of(9, 0).plusMinutes(30L * (i % 16)));
+            input.setConsultationType(ConsultationType.IN_PERSON);
+            inputs.add(input);
+        }
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetDay() {
+        repositories.clearAppointments();
+        slotCache.invalidateDoctor(1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ATTEMPTS)
+    public int bookOneDoctorDay() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            long userId = i + 1;
+            CreateAppointmentInput input = inputs.get(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.book(userId, input);
+                    return true;
+                } catch (RuntimeException e) {
+                    // Lost the race: validation error, or a unique-constraint violation in CHECKED mode
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int booked = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) booked++;
+        }
+        return booked;
+    }
+
+}
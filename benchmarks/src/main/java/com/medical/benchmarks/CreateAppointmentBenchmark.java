@@ -0,0 +1,82 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.dto.AppointmentDTO;
+import com.medical.appointment.dto.CreateAppointmentInput;
+import com.medical.appointment.service.AppointmentService;
+import com.medical.appointment.service.SlotCache;
+import com.medical.appointment.service.SlotHoldService;
+import com.medical.appointment.service.SlotService;
+import com.medical.appointment.service.SlotsChangedEvent;
+import com.medical.common.enums.ConsultationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking of the last slot of the day, the worst case for the availability loop, with
+ * {@code appointmentCount} earlier slots already taken. Saves are not retained, so every
+ * invocation sees the same day.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar CreateAppointmentBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateAppointmentBenchmark {
+
+    private static final Long DOCTOR_ID = 1L;
+    private static final int SLOT_DURATION = 30;
+
+    @Param({"1", "4", "12"})
+    private int windows;
+
+    @Param({"0", "12", "23"})
+    private int appointmentCount;
+
+    private AppointmentService appointmentService;
+    private CreateAppointmentInput input;
+
+    @Setup
+    public void setUp() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        InMemoryRepositories repositories = new InMemoryRepositories(0);
+        Schedules.windows(DOCTOR_ID, date, windows, SLOT_DURATION).forEach(repositories::addAvailability);
+        Schedules.booked(DOCTOR_ID, date, appointmentCount, SLOT_DURATION).forEach(repositories::addAppointment);
+        repositories.setRetainSaves(false);
+
+        SlotCache slotCache = new SlotCache(new SimpleMeterRegistry(), 1000, Duration.ofHours(1));
+        SlotHoldService slotHoldService = new SlotHoldService(repositories.slotHoldRepository(), event -> { }, Duration.ofMinutes(10), 1000);
+        SlotService slotService = new SlotService(repositories.availabilityRepository(),
+                repositories.appointmentRepository(), repositories.slotInventoryRepository(), slotCache, slotHoldService);
+        appointmentService = new AppointmentService(repositories.appointmentRepository(),
+                repositories.patientRepository(), repositories.availabilityRepository(), slotService, slotHoldService,
+                event -> {
+                    if (event instanceof SlotsChangedEvent changed) slotCache.onSlotsChanged(changed);
+                });
+
+        input = new CreateAppointmentInput();
+        input.setDoctorId(DOCTOR_ID);
+        input.setAppointmentDate(date);
+        input.setStartTime(Schedules.DAY_START.plusMinutes(Schedules.DAY_MINUTES - SLOT_DURATION));
+        input.setConsultationType(ConsultationType.IN_PERSON);
+        input.setReason("Consultation de suivi");
+    }
+
+    @Benchmark
+    public AppointmentDTO createAppointment() {
+        return appointmentService.createAppointment(1L, input);
+    }
+
+    @Benchmark
+    public AppointmentDTO createAppointmentUnderLock() {
+        // Every booking invalidates the day, so this includes reloading the cached schedule
+        return appointmentService.createAppointmentUnderLock(1L, input);
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.model.Patient;
+import com.medical.appointment.repository.AppointmentRepository;
+import com.medical.appointment.repository.AvailabilityRepository;
+import com.medical.appointment.repository.PatientRepository;
+import com.medical.appointment.repository.SlotHoldRepository;
+import com.medical.appointment.repository.SlotInventoryRepository;
+import com.medical.common.enums.AppointmentStatus;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Just enough of the appointment-service repositories, backed by maps, to drive the services
+ * without a database. Every repository call parks for {@code latencyNanos} to stand in for a
+ * round trip, and the appointments map enforces UNIQUE(doctor_id, appointment_date, start_time).
+ */
+public class InMemoryRepositories {
+
+    private record SlotKey(Long doctorId, LocalDate date, LocalTime startTime) {
+    }
+
+    private final Map<SlotKey, Appointment> appointments = new ConcurrentHashMap<>();
+    private final Map<Long, List<Availability>> availabilitiesByDoctor = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final long latencyNanos;
+    private volatile boolean retainSaves = true;
+
+    public InMemoryRepositories(long latencyNanos) {
+        this.latencyNanos = latencyNanos;
+    }
+
+    public void addAvailability(Availability availability) {
+        availabilitiesByDoctor.computeIfAbsent(availability.getDoctorId(), id -> new ArrayList<>()).add(availability);
+    }
+
+    public void addAppointment(Appointment appointment) {
+        appointment.setId(ids.incrementAndGet());
+        appointments.put(new SlotKey(appointment.getDoctorId(), appointment.getAppointmentDate(), appointment.getStartTime()), appointment);
+    }
+
+    /**
+     * When false, saves are acknowledged but not stored, so repeated bookings see the same day.
+     */
+    public void setRetainSaves(boolean retainSaves) {
+        this.retainSaves = retainSaves;
+    }
+
+    public void clearAppointments() {
+        appointments.clear();
+    }
+
+    public int appointmentCount() {
+        return appointments.size();
+    }
+
+    public AppointmentRepository appointmentRepository() {
+        return proxy(AppointmentRepository.class, (name, args) -> switch (name) {
+            case "findActiveByDoctorAndDate" -> findActive((Long) args[0], (LocalDate) args[1], (LocalDate) args[1]);
+            case "findActiveByDoctorAndDateBetween" -> findActive((Long) args[0], (LocalDate) args[1], (LocalDate) args[2]);
+            case "save", "saveAndFlush" -> {
+                Appointment appointment = (Appointment) args[0];
+                SlotKey key = new SlotKey(appointment.getDoctorId(), appointment.getAppointmentDate(), appointment.getStartTime());
+                if (!retainSaves) {
+                    yield appointment;
+                }
+                if (appointments.putIfAbsent(key, appointment) != null) {
+                    throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+                }
+                appointment.setId(ids.incrementAndGet());
+                yield appointment;
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private List<Appointment> findActive(Long doctorId, LocalDate from, LocalDate to) {
+        List<Appointment> active = new ArrayList<>();
+        for (Appointment appointment : appointments.values()) {
+            if (appointment.getDoctorId().equals(doctorId)
+                    && !appointment.getAppointmentDate().isBefore(from) && !appointment.getAppointmentDate().isAfter(to)
+                    && appointment.getStatus() != AppointmentStatus.CANCELLED_BY_PATIENT
+                    && appointment.getStatus() != AppointmentStatus.CANCELLED_BY_DOCTOR
+                    && appointment.getStatus() != AppointmentStatus.EXPIRED) {
+                active.add(appointment);
+            }
+        }
+        return active;
+    }
+
+    public AvailabilityRepository availabilityRepository() {
+        return proxy(AvailabilityRepository.class, (name, args) -> switch (name) {
+            case "findByDoctorIdAndDayOfWeek" -> {
+                List<Availability> matching = new ArrayList<>();
+                for (Availability availability : availabilitiesByDoctor.getOrDefault(args[0], Collections.emptyList())) {
+                    if (availability.getDayOfWeek().equals(args[1])) {
+                        matching.add(availability);
+                    }
+                }
+                yield matching;
+            }
+            case "findByDoctorId" -> new ArrayList<>(availabilitiesByDoctor.getOrDefault(args[0], Collections.emptyList()));
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    /**
+     * Inventory refreshes cost one round trip and touch nothing; free-slot listings are not benchmarked here.
+     */
+    public SlotInventoryRepository slotInventoryRepository() {
+        return proxy(SlotInventoryRepository.class, (name, args) -> switch (name) {
+            case "refreshTaken" -> 0;
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    /**
+     * Nobody holds a slot: hold checks and releases cost one round trip each and find nothing.
+     */
+    public SlotHoldRepository slotHoldRepository() {
+        return proxy(SlotHoldRepository.class, (name, args) -> switch (name) {
+            case "existsHeldByOther" -> false;
+            case "findActive" -> Collections.emptyList();
+            case "deleteByPatient" -> 0;
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    /**
+     * Every user id maps to the patient with the same id.
+     */
+    public PatientRepository patientRepository() {
+        return proxy(PatientRepository.class, (name, args) -> {
+            if (!name.equals("findByUserId")) {
+                throw new UnsupportedOperationException(name);
+            }
+            Patient patient = new Patient();
+            patient.setId((Long) args[0]);
+            patient.setUserId((Long) args[0]);
+            return Optional.of(patient);
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private <T> T proxy(Class<T> type, Handler handler) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return "InMemory" + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                default:
+                    if (latencyNanos > 0) {
+                        LockSupport.parkNanos(latencyNanos);
+                    }
+                    return handler.handle(method.getName(), args);
+            }
+        });
+        return type.cast(proxy);
+    }
+
+}
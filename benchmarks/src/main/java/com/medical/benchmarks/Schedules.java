@@ -0,0 +1,71 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.common.enums.AppointmentStatus;
+import com.medical.common.enums.ConsultationType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic doctor-days shared by the benchmarks.
+ */
+final class Schedules {
+
+    // Consultations are spread over 08:00-20:00
+    static final LocalTime DAY_START = LocalTime.of(8, 0);
+    static final int DAY_MINUTES = 12 * 60;
+
+    private Schedules() {
+    }
+
+    /**
+     * {@code windows} back-to-back availability windows of equal length covering the working day.
+     */
+    static List<Availability> windows(Long doctorId, LocalDate date, int windows, int slotDuration) {
+        int windowMinutes = DAY_MINUTES / windows;
+        List<Availability> availabilities = new ArrayList<>(windows);
+        for (int i = 0; i < windows; i++) {
+            Availability availability = new Availability();
+            availability.setId((long) i + 1);
+            availability.setDoctorId(doctorId);
+            availability.setDayOfWeek(date.getDayOfWeek().getValue() % 7);
+            availability.setStartTime(DAY_START.plusMinutes((long) i * windowMinutes));
+            availability.setEndTime(DAY_START.plusMinutes((long) (i + 1) * windowMinutes));
+            availability.setSlotDuration(slotDuration);
+            availability.setConsultationType(ConsultationType.BOTH);
+            availability.setIsActive(true);
+            availabilities.add(availability);
+        }
+        return availabilities;
+    }
+
+    /**
+     * The first {@code count} slots of the day, booked.
+     */
+    static List<Appointment> booked(Long doctorId, LocalDate date, int count, int slotDuration) {
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            appointments.add(appointment(doctorId, (long) i + 1, date,
+                    DAY_START.plusMinutes((long) i * slotDuration), slotDuration));
+        }
+        return appointments;
+    }
+
+    static Appointment appointment(Long doctorId, Long patientId, LocalDate date, LocalTime start, int duration) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctorId(doctorId);
+        appointment.setPatientId(patientId);
+        appointment.setAppointmentDate(date);
+        appointment.setStartTime(start);
+        appointment.setEndTime(start.plusMinutes(duration));
+        appointment.setConsultationType(ConsultationType.IN_PERSON);
+        appointment.setStatus(AppointmentStatus.CONFIRMED);
+        appointment.setReason("Consultation de suivi");
+        return appointment;
+    }
+
+}
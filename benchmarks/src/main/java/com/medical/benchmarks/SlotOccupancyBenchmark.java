@@ -0,0 +1,110 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.dto.TimeSlot;
+import com.medical.appointment.model.Appointment;
+import com.medical.appointment.model.Availability;
+import com.medical.appointment.service.DayOccupancy;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original slots x appointments overlap loop of SlotService with the
+ * DayOccupancy bitmap on one doctor-day.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar SlotOccupancyBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotOccupancyBenchmark {
+
+    @Param({"10", "15", "30"})
+    private int slotDuration;
+
+    @Param({"0.2", "0.9"})
+    private double bookedRatio;
+
+    private List<Availability> availabilities;
+    private List<Appointment> appointments;
+
+    @Setup
+    public void setUp() {
+        // 08:00-12:00 and 13:00-20:00, the densest schedules we see in production
+        availabilities = List.of(
+                availability(LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                availability(LocalTime.of(13, 0), LocalTime.of(20, 0)));
+
+        Random random = new Random(42);
+        appointments = new ArrayList<>();
+        for (Availability availability : availabilities) {
+            LocalTime current = availability.getStartTime();
+            while (!current.plusMinutes(slotDuration).isAfter(availability.getEndTime())) {
+                if (random.nextDouble() < bookedRatio) {
+                    Appointment appointment = new Appointment();
+                    appointment.setStartTime(current);
+                    appointment.setEndTime(current.plusMinutes(slotDuration));
+                    appointments.add(appointment);
+                }
+                current = current.plusMinutes(slotDuration);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<TimeSlot> nestedLoop() {
+        // Body of SlotService.getAvailableSlots before the occupancy bitmap
+        List<TimeSlot> slots = new ArrayList<>();
+        for (Availability availability : availabilities) {
+            if (!availability.getIsActive()) continue;
+
+            LocalTime current = availability.getStartTime();
+            LocalTime end = availability.getEndTime();
+            int duration = availability.getSlotDuration();
+
+            while (current.plusMinutes(duration).isBefore(end) || current.plusMinutes(duration).equals(end)) {
+                LocalTime slotEnd = current.plusMinutes(duration);
+
+                boolean isAvailable = true;
+                for (Appointment appt : appointments) {
+                    if (current.isBefore(appt.getEndTime()) && appt.getStartTime().isBefore(slotEnd)) {
+                        isAvailable = false;
+                        break;
+                    }
+                }
+
+                slots.add(new TimeSlot(current, slotEnd, isAvailable));
+                current = current.plusMinutes(duration);
+            }
+        }
+        return slots;
+    }
+
+    @Benchmark
+    public List<TimeSlot> occupancyBitmap() {
+        DayOccupancy occupancy = DayOccupancy.of(appointments);
+        List<TimeSlot> slots = new ArrayList<>();
+        for (Availability availability : availabilities) {
+            if (!availability.getIsActive()) continue;
+            occupancy.appendSlots(availability, 0, slots);
+        }
+        return slots;
+    }
+
+    private Availability availability(LocalTime start, LocalTime end) {
+        Availability availability = new Availability();
+        availability.setStartTime(start);
+        availability.setEndTime(end);
+        availability.setSlotDuration(slotDuration);
+        availability.setIsActive(true);
+        return availability;
+    }
+
+}
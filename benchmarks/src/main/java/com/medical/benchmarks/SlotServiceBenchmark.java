@@ -0,0 +1,67 @@
+package com.medical.benchmarks;
+
+import com.medical.appointment.dto.TimeSlot;
+import com.medical.appointment.service.SlotCache;
+import com.medical.appointment.service.SlotHoldService;
+import com.medical.appointment.service.SlotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SlotService.getAvailableSlots for one doctor-day, served from the slot cache (warm) or
+ * recomputed from the repositories on every call (cold).
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar SlotServiceBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotServiceBenchmark {
+
+    private static final Long DOCTOR_ID = 1L;
+
+    @Param({"1", "4", "12"})
+    private int windows;
+
+    @Param({"15", "30"})
+    private int slotDuration;
+
+    @Param({"0", "24"})
+    private int appointmentCount;
+
+    @Param({"true", "false"})
+    private boolean warmCache;
+
+    private SlotService slotService;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        date = LocalDate.now().plusDays(1);
+        InMemoryRepositories repositories = new InMemoryRepositories(0);
+        Schedules.windows(DOCTOR_ID, date, windows, slotDuration).forEach(repositories::addAvailability);
+        Schedules.booked(DOCTOR_ID, date, appointmentCount, slotDuration).forEach(repositories::addAppointment);
+
+        slotService = new SlotService(repositories.availabilityRepository(), repositories.appointmentRepository(),
+                repositories.slotInventoryRepository(),
+                new SlotCache(new SimpleMeterRegistry(), 1000, Duration.ofHours(1)),
+                new SlotHoldService(repositories.slotHoldRepository(), event -> { }, Duration.ofMinutes(10), 1000));
+    }
+
+    @Benchmark
+    public List<TimeSlot> getAvailableSlots() {
+        if (!warmCache) {
+            slotService.evictDoctorSlots(DOCTOR_ID);
+        }
+        return slotService.getAvailableSlots(DOCTOR_ID, date);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.medical.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to the replica pool and everything else to the primary.
+ * The read-only flag is only known once the transaction has started, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which defers picking the
+ * target until the first statement. While the replica lags more than allowed, reads stay on the primary.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagGuard.isReplicaUsable()
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.medical.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Streaming replica used for read-only transactions ({@code spring.datasource.replica.*}).
+ * Username and password default to the primary's.
+ */
+@Data
+@ConfigurationProperties(prefix = "spring.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+
+    // Beyond this replay lag, read-only transactions go back to the primary
+    private Duration maxLag = Duration.ofSeconds(2);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,93 @@
+package com.medical.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the replica's replay lag and says whether read-only transactions may use it.
+ * A verdict is only trusted for two check intervals, so a check stuck on an unreachable
+ * replica sends reads back to the primary instead of keeping a stale "usable".
+ */
+@Slf4j
+public class ReplicaLagGuard implements AutoCloseable {
+
+    // Zero when everything received has been replayed; otherwise the age of the last replayed transaction
+    static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private ScheduledExecutorService scheduler;
+
+    // System.nanoTime() until which the last passing check holds
+    private volatile long usableUntil = System.nanoTime();
+
+    public ReplicaLagGuard(DataSource replica, Duration maxLag, Duration checkInterval) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    public boolean isReplicaUsable() {
+        return System.nanoTime() - usableUntil < 0;
+    }
+
+    /**
+     * Measures the lag once; a failed measurement counts as too much lag.
+     */
+    public void check() {
+        long checkedAt = System.nanoTime();
+        boolean wasUsable = isReplicaUsable();
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            long lagMillis = Math.round(rs.getDouble(1) * 1000);
+            if (lagMillis <= maxLag.toMillis()) {
+                usableUntil = checkedAt + 2 * checkInterval.toNanos();
+                if (!wasUsable) {
+                    log.info("Replica lag {} ms, read-only transactions use the replica", lagMillis);
+                }
+            } else {
+                usableUntil = checkedAt;
+                if (wasUsable) {
+                    log.warn("Replica lag {} ms above {} ms, read-only transactions use the primary", lagMillis, maxLag.toMillis());
+                }
+            }
+        } catch (SQLException e) {
+            usableUntil = checkedAt;
+            if (wasUsable) {
+                log.warn("Replica lag check failed, read-only transactions use the primary: {}", e.getMessage());
+            }
+        }
+    }
+
+    public void start() {
+        check();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-guard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+}
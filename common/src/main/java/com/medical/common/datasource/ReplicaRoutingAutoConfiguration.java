@@ -0,0 +1,72 @@
+package com.medical.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single Boot datasource with a primary pool, a read-only replica pool and a routing
+ * datasource in front of them, as soon as {@code spring.datasource.replica.url} is set.
+ * Services without a replica URL keep Boot's default datasource.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({AbstractRoutingDataSource.class, HikariDataSource.class})
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+@EnableConfigurationProperties({DataSourceProperties.class, ReplicaDataSourceProperties.class})
+public class ReplicaRoutingAutoConfiguration {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primary, ReplicaDataSourceProperties replica) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primary.determineDriverClassName())
+                .url(replica.getUrl())
+                .username(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername())
+                .password(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaLagGuard replicaLagGuard(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                           ReplicaDataSourceProperties replica) {
+        ReplicaLagGuard lagGuard = new ReplicaLagGuard(replicaDataSource, replica.getMaxLag(), replica.getLagCheckInterval());
+        lagGuard.start();
+        return lagGuard;
+    }
+
+    // Lazy proxy: the target is chosen at the first statement, once the transaction's read-only flag is set
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagGuard replicaLagGuard) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagGuard));
+    }
+
+}
@@ -5,5 +5,6 @@ public enum AppointmentStatus {
     CONFIRMED,
     CANCELLED_BY_PATIENT,
     CANCELLED_BY_DOCTOR,
-    COMPLETED
+    COMPLETED,
+    EXPIRED
 }
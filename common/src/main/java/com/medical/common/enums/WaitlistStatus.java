@@ -0,0 +1,9 @@
+package com.medical.common.enums;
+
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED,
+    BOOKED,
+    EXPIRED,
+    CANCELLED
+}
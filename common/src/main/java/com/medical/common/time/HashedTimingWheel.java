@@ -0,0 +1,100 @@
+package com.medical.common.time;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, each holding the items due on a tick that
+ * hashes to it. Scheduling is O(1) and advancing the wheel only visits the buckets of the elapsed
+ * ticks, whatever the number of pending items. Items due more than one revolution ahead stay in
+ * their bucket and are skipped until their tick comes round.
+ * <p>
+ * Deadlines are epoch milliseconds, rounded up to the next tick; a deadline already past fires on
+ * the next {@link #advance}. Not thread-safe on its own; callers synchronize.
+ *
+ * @param <T> the scheduled item, e.g. a reminder
+ */
+public final class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final List<Entry<T>>[] buckets;
+    private final int mask;
+    // First tick not yet expired
+    private long currentTick;
+    private int size;
+
+    public HashedTimingWheel(Duration tick, int ticksPerWheel, long startMillis) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("Tick must be at least one millisecond");
+        }
+        if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("Ticks per wheel must be a power of two");
+        }
+        this.tickMillis = tick.toMillis();
+        this.buckets = newBuckets(ticksPerWheel);
+        this.mask = ticksPerWheel - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Generic arrays cannot be created directly; every bucket only ever receives a List<Entry<T>>
+    @SuppressWarnings("unchecked")
+    private static <T> List<Entry<T>>[] newBuckets(int size) {
+        return (List<Entry<T>>[]) new List<?>[size];
+    }
+
+    public void schedule(long deadlineMillis, T item) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick);
+        int index = (int) (tick & mask);
+        if (buckets[index] == null) {
+            buckets[index] = new ArrayList<>();
+        }
+        buckets[index].add(new Entry<>(tick, item));
+        size++;
+    }
+
+    /**
+     * Removes and returns the items due at or before {@code nowMillis}.
+     */
+    public List<T> advance(long nowMillis) {
+        long lastTick = Math.floorDiv(nowMillis, tickMillis);
+        if (lastTick < currentTick) {
+            return List.of();
+        }
+        List<T> due = new ArrayList<>();
+        if (lastTick - currentTick >= buckets.length) {
+            // Fell more than a revolution behind: one pass over every bucket
+            for (List<Entry<T>> bucket : buckets) {
+                expire(bucket, lastTick, due);
+            }
+        } else {
+            for (long tick = currentTick; tick <= lastTick; tick++) {
+                expire(buckets[(int) (tick & mask)], lastTick, due);
+            }
+        }
+        currentTick = lastTick + 1;
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void expire(List<Entry<T>> bucket, long lastTick, List<T> due) {
+        if (bucket == null || bucket.isEmpty()) return;
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Entry<T> entry = bucket.get(i);
+            if (entry.tick() <= lastTick) {
+                due.add(entry.item());
+                size--;
+            } else {
+                bucket.set(kept++, entry);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    private record Entry<T>(long tick, T item) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.medical.common.time;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable index of half-open {@code [start, end)} time-of-day intervals answering overlap queries.
+ * Intervals are kept sorted by start next to a running maximum of their ends, so that
+ * {@link #overlaps} is two binary-search steps and {@link #overlapping} only visits candidates
+ * whose start lies before the query end. An end before the start means the interval runs until
+ * midnight; empty intervals are ignored.
+ *
+ * @param <T> the indexed element, e.g. an availability window or an appointment
+ */
+public final class TimeIntervalIndex<T> {
+
+    private static final int END_OF_DAY = 24 * 60 * 60;
+
+    private final List<T> items;
+    private final int[] starts;
+    private final int[] ends;
+    // maxEnds[i] = max(ends[0..i]); non-decreasing
+    private final int[] maxEnds;
+
+    private TimeIntervalIndex(List<T> items, int[] starts, int[] ends) {
+        this.items = items;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new int[ends.length];
+        int max = 0;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    public static <T> TimeIntervalIndex<T> of(Collection<? extends T> elements,
+                                              Function<? super T, LocalTime> start,
+                                              Function<? super T, LocalTime> end) {
+        List<Entry<T>> entries = new ArrayList<>(elements.size());
+        for (T element : elements) {
+            int from = start.apply(element).toSecondOfDay();
+            int to = toEndSecond(from, end.apply(element));
+            if (to > from) {
+                entries.add(new Entry<>(element, from, to));
+            }
+        }
+        entries.sort(Comparator.comparingInt(Entry::start));
+
+        List<T> items = new ArrayList<>(entries.size());
+        int[] starts = new int[entries.size()];
+        int[] ends = new int[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Entry<T> entry = entries.get(i);
+            items.add(entry.element());
+            starts[i] = entry.start();
+            ends[i] = entry.end();
+        }
+        return new TimeIntervalIndex<>(Collections.unmodifiableList(items), starts, ends);
+    }
+
+    /**
+     * Whether any indexed interval shares at least one instant with {@code [start, end)}.
+     */
+    public boolean overlaps(LocalTime start, LocalTime end) {
+        int from = start.toSecondOfDay();
+        int to = toEndSecond(from, end);
+        if (to <= from) {
+            return false;
+        }
+        int candidates = countStartingBefore(to);
+        return candidates > 0 && maxEnds[candidates - 1] > from;
+    }
+
+    /**
+     * Indexed intervals sharing at least one instant with {@code [start, end)}, by ascending start.
+     */
+    public List<T> overlapping(LocalTime start, LocalTime end) {
+        int from = start.toSecondOfDay();
+        return collect(from, toEndSecond(from, end));
+    }
+
+    /**
+     * Indexed intervals that contain the given instant, by ascending start.
+     */
+    public List<T> containing(LocalTime time) {
+        int second = time.toSecondOfDay();
+        return collect(second, second + 1);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    private List<T> collect(int from, int to) {
+        if (to <= from) {
+            return Collections.emptyList();
+        }
+        List<T> result = null;
+        // Walk left from the last candidate; once the running max end is at or before the query start, nothing earlier overlaps
+        for (int i = countStartingBefore(to) - 1; i >= 0 && maxEnds[i] > from; i--) {
+            if (ends[i] > from) {
+                if (result == null) result = new ArrayList<>();
+                result.add(items.get(i));
+            }
+        }
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Number of intervals whose start is strictly before {@code second}.
+     */
+    private int countStartingBefore(int second) {
+        int index = Arrays.binarySearch(starts, second);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // Equal starts may be adjacent; step back to the first of them
+        while (index > 0 && starts[index - 1] == second) index--;
+        return index;
+    }
+
+    private static int toEndSecond(int startSecond, LocalTime end) {
+        int endSecond = end.toSecondOfDay();
+        return endSecond < startSecond ? END_OF_DAY : endSecond;
+    }
+
+    private record Entry<T>(T element, int start, int end) {
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.medical.common.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+    @Mock
+    private DataSource replica;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet lag;
+
+    private ReplicaLagGuard lagGuard;
+    private ReadReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        lenient().when(replicaConnection.createStatement()).thenReturn(statement);
+        lenient().when(statement.executeQuery(ReplicaLagGuard.LAG_QUERY)).thenReturn(lag);
+        lenient().when(lag.next()).thenReturn(true);
+
+        lagGuard = new ReplicaLagGuard(replica, Duration.ofSeconds(2), Duration.ofMinutes(1));
+        routing = new ReadReplicaRoutingDataSource(primary, replica, lagGuard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplicaWithinLag() throws SQLException {
+        when(lag.getDouble(1)).thenReturn(0.5);
+        lagGuard.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void writeTransaction_UsesPrimary() throws SQLException {
+        when(lag.getDouble(1)).thenReturn(0.0);
+        lagGuard.check();
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void readOnlyTransaction_FallsBackToPrimaryWhenReplicaLags() throws SQLException {
+        when(lag.getDouble(1)).thenReturn(0.0, 5.0);
+        lagGuard.check();
+        assertTrue(lagGuard.isReplicaUsable());
+
+        lagGuard.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertFalse(lagGuard.isReplicaUsable());
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void readOnlyTransaction_FallsBackToPrimaryWhenLagCheckFails() throws SQLException {
+        when(statement.executeQuery(ReplicaLagGuard.LAG_QUERY)).thenThrow(new SQLException("connection refused"));
+        lagGuard.check();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+    }
+}
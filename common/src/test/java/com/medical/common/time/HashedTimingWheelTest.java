@@ -0,0 +1,54 @@
+package com.medical.common.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofSeconds(1), 8, START);
+
+    @Test
+    void advance_FiresItemsOnceTheirTickHasPassed() {
+        wheel.schedule(START + 2_500, "a");
+        wheel.schedule(START + 1_000, "b");
+
+        assertEquals(List.of(), wheel.advance(START + 999));
+        assertEquals(List.of("b"), wheel.advance(START + 1_000));
+        // Rounded up to the next tick
+        assertEquals(List.of(), wheel.advance(START + 2_999));
+        assertEquals(List.of("a"), wheel.advance(START + 3_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_KeepsItemsOfLaterRevolutionsInTheirBucket() {
+        // Same bucket as START + 1s, one and two revolutions later
+        wheel.schedule(START + 9_000, "next");
+        wheel.schedule(START + 17_000, "after");
+        wheel.schedule(START + 1_000, "now");
+
+        assertEquals(List.of("now"), wheel.advance(START + 1_000));
+        assertEquals(List.of("next"), wheel.advance(START + 9_000));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void advance_CatchesUpAfterALongPause() {
+        wheel.schedule(START - 5_000, "late");
+        wheel.schedule(START + 3_000, "a");
+        wheel.schedule(START + 30_000, "b");
+        wheel.schedule(START + 60_000, "c");
+
+        List<String> due = wheel.advance(START + 30_000);
+
+        assertEquals(3, due.size());
+        assertTrue(due.containsAll(List.of("late", "a", "b")));
+        assertEquals(List.of("c"), wheel.advance(START + 60_000));
+    }
+}
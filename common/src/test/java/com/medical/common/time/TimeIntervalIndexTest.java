@@ -0,0 +1,60 @@
+package com.medical.common.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeIntervalIndexTest {
+
+    private record Window(String name, LocalTime start, LocalTime end) {
+    }
+
+    private final Window morning = new Window("morning", LocalTime.of(9, 0), LocalTime.of(12, 0));
+    private final Window shortCall = new Window("short", LocalTime.of(10, 0), LocalTime.of(10, 30));
+    private final Window afternoon = new Window("afternoon", LocalTime.of(14, 0), LocalTime.of(18, 0));
+    private final Window evening = new Window("evening", LocalTime.of(20, 0), LocalTime.MIDNIGHT);
+
+    private final TimeIntervalIndex<Window> index =
+            TimeIntervalIndex.of(List.of(afternoon, evening, shortCall, morning), Window::start, Window::end);
+
+    @Test
+    void overlaps_HalfOpenBounds() {
+        assertTrue(index.overlaps(LocalTime.of(11, 30), LocalTime.of(12, 30)));
+        assertFalse(index.overlaps(LocalTime.of(12, 0), LocalTime.of(14, 0))); // touches both neighbours
+        assertFalse(index.overlaps(LocalTime.of(8, 0), LocalTime.of(9, 0)));
+        assertTrue(index.overlaps(LocalTime.of(13, 0), LocalTime.of(15, 0)));
+    }
+
+    @Test
+    void overlapping_ReturnsEveryMatchByStart() {
+        assertEquals(List.of(morning, shortCall), index.overlapping(LocalTime.of(10, 15), LocalTime.of(10, 45)));
+        assertEquals(List.of(morning), index.overlapping(LocalTime.of(11, 0), LocalTime.of(13, 0)));
+        assertTrue(index.overlapping(LocalTime.of(18, 0), LocalTime.of(20, 0)).isEmpty());
+    }
+
+    @Test
+    void containing_LongIntervalSeenPastShorterOnes() {
+        // The short window ends before 11:00 but the morning window started earlier still contains it
+        assertEquals(List.of(morning), index.containing(LocalTime.of(11, 0)));
+        assertEquals(List.of(morning, shortCall), index.containing(LocalTime.of(10, 0)));
+        assertTrue(index.containing(LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void endAtMidnight_RunsUntilEndOfDay() {
+        assertEquals(List.of(evening), index.containing(LocalTime.of(23, 59)));
+        assertTrue(index.overlaps(LocalTime.of(23, 30), LocalTime.MIDNIGHT));
+    }
+
+    @Test
+    void emptyIntervals_AreIgnored() {
+        Window empty = new Window("empty", LocalTime.of(9, 0), LocalTime.of(9, 0));
+        TimeIntervalIndex<Window> withEmpty = TimeIntervalIndex.of(List.of(empty), Window::start, Window::end);
+
+        assertTrue(withEmpty.isEmpty());
+        assertFalse(index.overlaps(LocalTime.of(10, 0), LocalTime.of(10, 0)));
+    }
+}
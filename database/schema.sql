@@ -4,6 +4,9 @@ CREATE DATABASE medical_db;
 -- Connexion à la base de données
 \c medical_db;
 
+-- Égalité sur des colonnes scalaires dans les contraintes d'exclusion GiST (slot_holds)
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 -- Table des utilisateurs (commune)
 CREATE TABLE users (
     id BIGSERIAL PRIMARY KEY,
@@ -73,12 +76,62 @@ CREATE TABLE appointments (
     start_time TIME NOT NULL,
     end_time TIME NOT NULL,
     consultation_type VARCHAR(50) NOT NULL CHECK (consultation_type IN ('IN_PERSON', 'ONLINE')),
-    status VARCHAR(50) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'COMPLETED')),
+    status VARCHAR(50) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'COMPLETED', 'EXPIRED')),
     reason TEXT,
     notes TEXT,
+    -- Rappels déjà réclamés par une instance d'appointment-service
+    reminder_sent_at TIMESTAMP,
+    consultation_reminder_sent_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+-- Identifiants alloués par blocs de 50 (séquence « pooled » côté Hibernate) pour regrouper les INSERT en lots JDBC
+ALTER SEQUENCE appointments_id_seq INCREMENT BY 50;
+
+-- Table des créneaux matérialisés (règles de disponibilité dépliées sur un horizon glissant)
+CREATE TABLE slot_inventory (
+    id BIGSERIAL PRIMARY KEY,
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id) ON DELETE CASCADE,
+    availability_id BIGINT NOT NULL REFERENCES availabilities(id) ON DELETE CASCADE,
+    slot_date DATE NOT NULL,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    consultation_type VARCHAR(50) NOT NULL CHECK (consultation_type IN ('IN_PERSON', 'ONLINE', 'BOTH')),
+    is_taken BOOLEAN NOT NULL DEFAULT false,
+    UNIQUE(availability_id, slot_date, start_time)
+);
+
+-- Options de créneau pendant le paiement, partagées par toutes les instances ; deux options
+-- d'une même journée ne se chevauchent jamais
+CREATE TABLE slot_holds (
+    id VARCHAR(36) PRIMARY KEY,
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id) ON DELETE CASCADE,
+    hold_date DATE NOT NULL,
+    start_minute INTEGER NOT NULL,
+    end_minute INTEGER NOT NULL,
+    patient_id BIGINT NOT NULL REFERENCES patients(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CHECK (end_minute > start_minute),
+    CONSTRAINT ex_slot_holds_overlap EXCLUDE USING gist (
+        doctor_id WITH =, hold_date WITH =, int4range(start_minute, end_minute) WITH &&)
+);
+
+-- Liste d'attente sur désistement : un créneau libéré est réservé au premier patient en attente
+CREATE TABLE waitlist_entries (
+    id BIGSERIAL PRIMARY KEY,
+    patient_id BIGINT NOT NULL REFERENCES patients(id),
+    doctor_id BIGINT NOT NULL REFERENCES doctors(id),
+    date_from DATE NOT NULL,
+    date_to DATE NOT NULL,
+    consultation_type VARCHAR(50) NOT NULL CHECK (consultation_type IN ('IN_PERSON', 'ONLINE')),
+    status VARCHAR(50) NOT NULL DEFAULT 'WAITING' CHECK (status IN ('WAITING', 'OFFERED', 'BOOKED', 'EXPIRED', 'CANCELLED')),
+    hold_id VARCHAR(36),
+    offered_date DATE,
+    offered_start_time TIME,
+    offer_expires_at TIMESTAMP WITH TIME ZONE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    UNIQUE(doctor_id, appointment_date, start_time) -- Empêche la double réservation
+    CHECK (date_to >= date_from)
 );
 
 -- Table des paiements
@@ -119,11 +172,29 @@ CREATE TABLE refresh_tokens (
 );
 
 -- Index pour optimiser les requêtes
+-- Empêche la double réservation ; un rendez-vous annulé ou expiré libère son créneau
+CREATE UNIQUE INDEX uq_appointments_active_slot ON appointments(doctor_id, appointment_date, start_time)
+    WHERE status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'EXPIRED');
 CREATE INDEX idx_appointments_patient ON appointments(patient_id);
 CREATE INDEX idx_appointments_doctor ON appointments(doctor_id);
 CREATE INDEX idx_appointments_date ON appointments(appointment_date);
 CREATE INDEX idx_appointments_status ON appointments(status);
+-- Pagination par curseur de l'historique (appointment_date, start_time, id)
+CREATE INDEX idx_appointments_doctor_keyset ON appointments(doctor_id, appointment_date, start_time, id);
+CREATE INDEX idx_appointments_patient_keyset ON appointments(patient_id, appointment_date, start_time, id);
+-- Rappels : chargement des rendez-vous à venir par tranche horaire
+CREATE INDEX idx_appointments_upcoming ON appointments(appointment_date, start_time) WHERE status IN ('PENDING', 'CONFIRMED');
+-- Expiration des rendez-vous non payés
+CREATE INDEX idx_appointments_pending ON appointments(created_at) WHERE status = 'PENDING';
 CREATE INDEX idx_availabilities_doctor ON availabilities(doctor_id);
+-- Liste d'attente : expiration des plages passées, premier inscrit d'un médecin, offres échues
+CREATE INDEX idx_waitlist_waiting ON waitlist_entries(date_to) WHERE status = 'WAITING';
+CREATE INDEX idx_waitlist_doctor_waiting ON waitlist_entries(doctor_id, id) WHERE status = 'WAITING';
+CREATE INDEX idx_waitlist_offered ON waitlist_entries(offer_expires_at) WHERE status = 'OFFERED';
+CREATE INDEX idx_waitlist_patient ON waitlist_entries(patient_id);
+CREATE INDEX idx_slot_holds_expires ON slot_holds(expires_at);
+CREATE INDEX idx_slot_inventory_doctor_date ON slot_inventory(doctor_id, slot_date);
+CREATE INDEX idx_slot_inventory_free ON slot_inventory(doctor_id, slot_date, start_time) WHERE NOT is_taken;
 CREATE INDEX idx_doctors_specialty ON doctors(specialty);
 CREATE INDEX idx_doctors_city ON doctors(city);
 CREATE INDEX idx_patients_user ON patients(user_id);
@@ -157,6 +228,41 @@ CREATE TRIGGER update_appointments_updated_at BEFORE UPDATE ON appointments
 CREATE TRIGGER update_payments_updated_at BEFORE UPDATE ON payments
     FOR EACH ROW EXECUTE FUNCTION update_updated_at_column();
 
+-- Cache des créneaux : chaque modification validée est publiée sur le canal slots_changed
+-- (« medecin:date » pour un rendez-vous ou une option, « medecin » pour une règle de disponibilité) ; chaque instance
+-- d'appointment-service l'écoute et retire les journées concernées de son cache
+CREATE OR REPLACE FUNCTION notify_slots_changed()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'availabilities' THEN
+        PERFORM pg_notify('slots_changed', COALESCE(NEW.doctor_id, OLD.doctor_id)::text);
+        RETURN NULL;
+    END IF;
+    IF TG_TABLE_NAME = 'slot_holds' THEN
+        PERFORM pg_notify('slots_changed', COALESCE(NEW.doctor_id, OLD.doctor_id) || ':'
+            || to_char(COALESCE(NEW.hold_date, OLD.hold_date), 'YYYY-MM-DD'));
+        RETURN NULL;
+    END IF;
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM pg_notify('slots_changed', OLD.doctor_id || ':' || to_char(OLD.appointment_date, 'YYYY-MM-DD'));
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM pg_notify('slots_changed', NEW.doctor_id || ':' || to_char(NEW.appointment_date, 'YYYY-MM-DD'));
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER notify_appointments_slots_changed
+    AFTER INSERT OR DELETE OR UPDATE OF doctor_id, appointment_date, start_time, end_time, status ON appointments
+    FOR EACH ROW EXECUTE FUNCTION notify_slots_changed();
+
+CREATE TRIGGER notify_availabilities_slots_changed AFTER INSERT OR UPDATE OR DELETE ON availabilities
+    FOR EACH ROW EXECUTE FUNCTION notify_slots_changed();
+
+CREATE TRIGGER notify_slot_holds_slots_changed AFTER INSERT OR DELETE ON slot_holds
+    FOR EACH ROW EXECUTE FUNCTION notify_slots_changed();
+
 -- Données de test
 INSERT INTO users (email, password_hash, role) VALUES
 ('admin@medical.com', '$2a$12$LQv3c1yqBWVHxkd0LHAkCOYz6TtxMQJqhN8/LewY5GyYVvMpYssO2', 'ADMIN'), -- password: admin123
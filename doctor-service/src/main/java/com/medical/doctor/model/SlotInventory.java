@@ -0,0 +1,49 @@
+package com.medical.doctor.model;
+
+import com.medical.common.enums.ConsultationType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One concrete slot of an availability rule, materialized over the rolling horizon.
+ * Rows are written with native statements by {@link com.medical.doctor.repository.SlotInventoryRepository}.
+ */
+@Entity
+@Table(name = "slot_inventory", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"availability_id", "slot_date", "start_time"})
+})
+@Data
+@NoArgsConstructor
+public class SlotInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "availability_id", nullable = false)
+    private Long availabilityId;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "consultation_type", nullable = false)
+    private ConsultationType consultationType;
+
+    @Column(name = "is_taken", nullable = false)
+    private Boolean taken = false;
+
+}
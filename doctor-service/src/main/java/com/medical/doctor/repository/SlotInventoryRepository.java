@@ -0,0 +1,45 @@
+package com.medical.doctor.repository;
+
+import com.medical.doctor.model.SlotInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface SlotInventoryRepository extends JpaRepository<SlotInventory, Long> {
+
+    // Expands active rules into slots for every matching date of [from, to] (DB: 0=Sunday, like EXTRACT(DOW)).
+    // A slot is taken when an active appointment overlaps it; existing rows are left untouched.
+    String EXPAND_RULES =
+            "INSERT INTO slot_inventory (doctor_id, availability_id, slot_date, start_time, end_time, consultation_type, is_taken) " +
+            "SELECT av.doctor_id, av.id, CAST(d.day AS date), s.start_time, " +
+            "       s.start_time + av.slot_duration * INTERVAL '1 minute', av.consultation_type, " +
+            "       EXISTS (SELECT 1 FROM appointments a " +
+            "               WHERE a.doctor_id = av.doctor_id AND a.appointment_date = CAST(d.day AS date) " +
+            "                 AND a.status NOT IN ('CANCELLED_BY_PATIENT', 'CANCELLED_BY_DOCTOR', 'EXPIRED') " +
+            "                 AND a.start_time < s.start_time + av.slot_duration * INTERVAL '1 minute' " +
+            "                 AND a.end_time > s.start_time) " +
+            "FROM availabilities av " +
+            "CROSS JOIN generate_series(CAST(:from AS timestamp), CAST(:to AS timestamp), INTERVAL '1 day') AS d(day) " +
+            "CROSS JOIN LATERAL (SELECT av.start_time + n * av.slot_duration * INTERVAL '1 minute' AS start_time " +
+            "                    FROM generate_series(0, CAST(EXTRACT(EPOCH FROM av.end_time - av.start_time) AS integer) / 60 / av.slot_duration - 1) AS n) s " +
+            "WHERE av.is_active AND av.slot_duration > 0 AND EXTRACT(DOW FROM d.day) = av.day_of_week ";
+
+    @Modifying
+    @Query(value = EXPAND_RULES + "AND av.id = :availabilityId " +
+            "ON CONFLICT (availability_id, slot_date, start_time) DO NOTHING", nativeQuery = true)
+    int expandAvailability(Long availabilityId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = EXPAND_RULES +
+            "ON CONFLICT (availability_id, slot_date, start_time) DO NOTHING", nativeQuery = true)
+    int expandAllAvailabilities(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM slot_inventory WHERE slot_date < :date", nativeQuery = true)
+    int deleteBefore(LocalDate date);
+
+}
@@ -0,0 +1,53 @@
+package com.medical.doctor.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@Slf4j
+@Service
+public class AppointmentServiceClient {
+
+    private final RestTemplate restTemplate;
+    private final String appointmentServiceUrl;
+
+    public AppointmentServiceClient(RestTemplate restTemplate,
+                                    @Value("${appointment.service.url}") String appointmentServiceUrl) {
+        this.restTemplate = restTemplate;
+        this.appointmentServiceUrl = appointmentServiceUrl;
+    }
+
+    /**
+     * Asks appointment-service to drop its cached slots for the doctor, once the change is committed.
+     * A failed call is only logged: the cache entries still expire on their own.
+     */
+    @TransactionalEventListener
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        String url = appointmentServiceUrl + "/api/appointments/slots/cache/evict?doctorId=" + event.doctorId();
+        try {
+            restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>(forwardedAuthorization()), Void.class);
+        } catch (RestClientException e) {
+            log.warn("Could not evict cached slots of doctor {}: {}", event.doctorId(), e.getMessage());
+        }
+    }
+
+    // The doctor's own token, so the call passes appointment-service authentication
+    private HttpHeaders forwardedAuthorization() {
+        HttpHeaders headers = new HttpHeaders();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            String authorization = attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorization != null) {
+                headers.set(HttpHeaders.AUTHORIZATION, authorization);
+            }
+        }
+        return headers;
+    }
+}
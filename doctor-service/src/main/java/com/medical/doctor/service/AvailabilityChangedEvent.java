@@ -0,0 +1,7 @@
+package com.medical.doctor.service;
+
+/**
+ * Published when one of a doctor's availability rules is created or deleted.
+ */
+public record AvailabilityChangedEvent(Long doctorId) {
+}
@@ -2,6 +2,7 @@ package com.medical.doctor.service;
 
 import com.medical.common.exception.NotFoundException;
 import com.medical.common.exception.ValidationException;
+import com.medical.common.time.TimeIntervalIndex;
 import com.medical.doctor.dto.AvailabilityDTO;
 import com.medical.doctor.dto.CreateAvailabilityInput;
 import com.medical.doctor.model.Availability;
@@ -9,6 +10,7 @@ import com.medical.doctor.model.Doctor;
 import com.medical.doctor.repository.AvailabilityRepository;
 import com.medical.doctor.repository.DoctorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +23,8 @@ public class AvailabilityService {
 
     private final AvailabilityRepository availabilityRepository;
     private final DoctorRepository doctorRepository;
+    private final SlotInventoryService slotInventoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<AvailabilityDTO> getAvailabilities(Long doctorId) {
         return availabilityRepository.findByDoctorId(doctorId).stream()
@@ -44,6 +48,15 @@ public class AvailabilityService {
             throw new ValidationException("End time must be after start time");
         }
 
+        // Check the new window against the doctor's other active windows of that day
+        List<Availability> sameDay = availabilityRepository.findByDoctorIdAndDayOfWeek(doctor.getId(), input.getDayOfWeek()).stream()
+                .filter(Availability::getIsActive)
+                .collect(Collectors.toList());
+        if (TimeIntervalIndex.of(sameDay, Availability::getStartTime, Availability::getEndTime)
+                .overlaps(input.getStartTime(), input.getEndTime())) {
+            throw new ValidationException("Availability overlaps with an existing availability");
+        }
+
         Availability availability = new Availability();
         availability.setDoctorId(doctor.getId());
         availability.setDayOfWeek(input.getDayOfWeek());
@@ -54,10 +67,13 @@ public class AvailabilityService {
         availability.setIsActive(true);
 
         try {
+            // Still guards against a concurrent insert of the same window (unique doctor/day/start)
             availability = availabilityRepository.save(availability);
         } catch (Exception e) {
             throw new ValidationException("Availability overlaps with existing slot or invalid data");
         }
+        slotInventoryService.generateFor(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(doctor.getId()));
 
         return AvailabilityDTO.fromEntity(availability);
     }
@@ -74,7 +90,9 @@ public class AvailabilityService {
             throw new ValidationException("Not authorized to delete this availability");
         }
 
+        // Its slot inventory rows go with it (ON DELETE CASCADE)
         availabilityRepository.delete(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(doctor.getId()));
         return true;
     }
 
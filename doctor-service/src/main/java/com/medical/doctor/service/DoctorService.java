@@ -21,6 +21,8 @@ public class DoctorService {
     private final DoctorRepository doctorRepository;
     private final ObjectMapper objectMapper;
 
+    // Directory reads may be served by the read replica; a doctor's own profile stays on the primary
+    @Transactional(readOnly = true)
     public DoctorDTO getDoctorById(Long id) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Doctor not found"));
@@ -33,18 +35,21 @@ public class DoctorService {
         return DoctorDTO.fromEntity(doctor);
     }
 
+    @Transactional(readOnly = true)
     public List<DoctorDTO> getAllDoctors() {
         return doctorRepository.findAll().stream()
                 .map(DoctorDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<DoctorDTO> getDoctorsBySpecialty(String specialty) {
         return doctorRepository.findBySpecialty(specialty).stream()
                 .map(DoctorDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<DoctorDTO> searchDoctors(String specialty, String city) {
         return doctorRepository.searchDoctors(specialty, city).stream()
                 .map(DoctorDTO::fromEntity)
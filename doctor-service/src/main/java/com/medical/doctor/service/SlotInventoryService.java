@@ -0,0 +1,58 @@
+package com.medical.doctor.service;
+
+import com.medical.doctor.model.Availability;
+import com.medical.doctor.repository.SlotInventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps the materialized slot inventory in line with the availability rules over a rolling horizon.
+ * A new rule is expanded in the transaction that creates it; a deleted rule loses its slots through
+ * the foreign key cascade. A nightly run adds the day entering the horizon and drops past days.
+ */
+@Slf4j
+@Service
+public class SlotInventoryService {
+
+    private final SlotInventoryRepository slotInventoryRepository;
+    private final int horizonDays;
+
+    public SlotInventoryService(SlotInventoryRepository slotInventoryRepository,
+                                @Value("${slots.inventory.horizon-days:90}") int horizonDays) {
+        this.slotInventoryRepository = slotInventoryRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    @Transactional
+    public int generateFor(Availability availability) {
+        LocalDate today = LocalDate.now();
+        return slotInventoryRepository.expandAvailability(availability.getId(), today, lastDay(today));
+    }
+
+    /**
+     * Also run at startup, so rules that existed before the inventory (or were missed while the
+     * service was down) are expanded without waiting for the nightly run.
+     */
+    @Transactional
+    @Scheduled(cron = "${slots.inventory.refresh-cron:0 15 2 * * *}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void extendHorizon() {
+        LocalDate today = LocalDate.now();
+        int removed = slotInventoryRepository.deleteBefore(today);
+        // Re-expands the whole horizon: rows that already exist are skipped by the unique key
+        int added = slotInventoryRepository.expandAllAvailabilities(today, lastDay(today));
+        log.info("Slot inventory refreshed up to {}: {} slots added, {} past slots removed", lastDay(today), added, removed);
+    }
+
+    LocalDate lastDay(LocalDate today) {
+        return today.plusDays(horizonDays - 1L);
+    }
+
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalTime;
 import java.util.Collections;
@@ -32,6 +33,10 @@ class AvailabilityServiceTest {
     private AvailabilityRepository availabilityRepository;
     @Mock
     private DoctorRepository doctorRepository;
+    @Mock
+    private SlotInventoryService slotInventoryService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private AvailabilityService availabilityService;
@@ -74,6 +79,8 @@ class AvailabilityServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getDoctorId());
         verify(availabilityRepository).save(any(Availability.class));
+        verify(slotInventoryService).generateFor(availability);
+        verify(eventPublisher).publishEvent(new AvailabilityChangedEvent(1L));
     }
 
     @Test
@@ -82,6 +89,35 @@ class AvailabilityServiceTest {
         input.setEndTime(LocalTime.of(8, 0)); // End before start
 
         assertThrows(ValidationException.class, () -> availabilityService.createAvailability(100L, input));
+        verifyNoInteractions(slotInventoryService);
+    }
+
+    @Test
+    void createAvailability_OverlapsExistingWindow() {
+        when(doctorRepository.findByUserId(100L)).thenReturn(Optional.of(doctor));
+        availability.setStartTime(LocalTime.of(16, 0));
+        availability.setEndTime(LocalTime.of(19, 0));
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(1L, 1)).thenReturn(List.of(availability));
+
+        assertThrows(ValidationException.class, () -> availabilityService.createAvailability(100L, input));
+        verify(availabilityRepository, never()).save(any());
+    }
+
+    @Test
+    void createAvailability_AdjacentWindowAccepted() {
+        Availability evening = new Availability();
+        evening.setId(2L);
+        evening.setDoctorId(1L);
+        evening.setDayOfWeek(1);
+        evening.setStartTime(LocalTime.of(17, 0));
+        evening.setEndTime(LocalTime.of(20, 0));
+        evening.setIsActive(true);
+
+        when(doctorRepository.findByUserId(100L)).thenReturn(Optional.of(doctor));
+        when(availabilityRepository.findByDoctorIdAndDayOfWeek(1L, 1)).thenReturn(List.of(evening));
+        when(availabilityRepository.save(any(Availability.class))).thenReturn(availability);
+
+        assertNotNull(availabilityService.createAvailability(100L, input));
     }
 
     @Test
@@ -93,6 +129,7 @@ class AvailabilityServiceTest {
 
         assertTrue(result);
         verify(availabilityRepository).delete(availability);
+        verify(eventPublisher).publishEvent(new AvailabilityChangedEvent(1L));
     }
 
     @Test
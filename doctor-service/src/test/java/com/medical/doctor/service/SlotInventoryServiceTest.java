@@ -0,0 +1,50 @@
+package com.medical.doctor.service;
+
+import com.medical.doctor.model.Availability;
+import com.medical.doctor.repository.SlotInventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotInventoryServiceTest {
+
+    @Mock
+    private SlotInventoryRepository slotInventoryRepository;
+
+    private SlotInventoryService slotInventoryService;
+
+    @BeforeEach
+    void setUp() {
+        slotInventoryService = new SlotInventoryService(slotInventoryRepository, 90);
+    }
+
+    @Test
+    void generateFor_ExpandsRuleOverHorizon() {
+        Availability availability = new Availability();
+        availability.setId(5L);
+        LocalDate today = LocalDate.now();
+
+        slotInventoryService.generateFor(availability);
+
+        verify(slotInventoryRepository).expandAvailability(5L, today, today.plusDays(89));
+    }
+
+    @Test
+    void extendHorizon_DropsPastDaysThenExpandsAllRules() {
+        LocalDate today = LocalDate.now();
+
+        slotInventoryService.extendHorizon();
+
+        InOrder inOrder = inOrder(slotInventoryRepository);
+        inOrder.verify(slotInventoryRepository).deleteBefore(today);
+        inOrder.verify(slotInventoryRepository).expandAllAvailabilities(today, today.plusDays(89));
+    }
+}
@@ -2,7 +2,8 @@ import React from 'react';
 import { BrowserRouter as Router, Routes, Route, Navigate } from 'react-router-dom';
 import { ThemeProvider, createTheme } from '@mui/material/styles';
 import CssBaseline from '@mui/material/CssBaseline';
-import { ApolloProvider, ApolloClient, InMemoryCache } from '@apollo/client';
+import { ApolloProvider, ApolloClient, InMemoryCache, HttpLink } from '@apollo/client';
+import { createPersistedQueryLink } from '@apollo/client/link/persisted-queries';
 import { AuthProvider, useAuth } from './contexts/AuthContext';
 
 // Import des pages
@@ -35,9 +36,15 @@ const theme = createTheme({
   },
 });
 
+// Hash SHA-256 des requêtes persistées (APQ) : seul le hash est envoyé tant que le gateway connaît la requête
+const sha256 = async (query) => {
+  const digest = await crypto.subtle.digest('SHA-256', new TextEncoder().encode(query));
+  return Array.from(new Uint8Array(digest), (b) => b.toString(16).padStart(2, '0')).join('');
+};
+
 // Configuration du client Apollo pour GraphQL
 const client = new ApolloClient({
-  uri: 'http://localhost:8080/graphql',
+  link: createPersistedQueryLink({ sha256 }).concat(new HttpLink({ uri: 'http://localhost:8080/graphql' })),
   cache: new InMemoryCache(),
 });
 
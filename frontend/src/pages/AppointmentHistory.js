@@ -141,6 +141,8 @@ const AppointmentHistory = () => {
         return 'Annulé par le médecin';
       case 'COMPLETED':
         return 'Terminé';
+      case 'EXPIRED':
+        return 'Expiré';
       default:
         return status;
     }
@@ -214,6 +216,7 @@ const AppointmentHistory = () => {
                 <MenuItem value="CANCELLED_BY_PATIENT">Annulé par le patient</MenuItem>
                 <MenuItem value="CANCELLED_BY_DOCTOR">Annulé par le médecin</MenuItem>
                 <MenuItem value="COMPLETED">Terminé</MenuItem>
+                <MenuItem value="EXPIRED">Expiré</MenuItem>
               </Select>
             </FormControl>
           </Grid>
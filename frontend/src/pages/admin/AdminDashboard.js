@@ -146,6 +146,8 @@ const AdminDashboard = () => {
         return 'Annulé par le médecin';
       case 'COMPLETED':
         return 'Terminé';
+      case 'EXPIRED':
+        return 'Expiré';
       default:
         return status;
     }
@@ -148,6 +148,8 @@ const DoctorDashboard = () => {
         return 'Annulé';
       case 'COMPLETED':
         return 'Terminé';
+      case 'EXPIRED':
+        return 'Expiré';
       default:
         return status;
     }
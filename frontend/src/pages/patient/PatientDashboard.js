@@ -134,6 +134,8 @@ const PatientDashboard = () => {
         return 'Annulé par le médecin';
       case 'COMPLETED':
         return 'Terminé';
+      case 'EXPIRED':
+        return 'Expiré';
       default:
         return status;
     }
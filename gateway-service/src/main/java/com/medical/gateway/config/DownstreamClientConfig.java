@@ -0,0 +1,58 @@
+package com.medical.gateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Client HTTP des appels du gateway vers les services : non bloquant (Reactor Netty), connexions
+ * keep-alive réutilisées, une pool par service, avec délais de connexion et de réponse.
+ * <p>
+ * Les pools publient leurs métriques ({@code reactor.netty.connection.provider.active.connections},
+ * {@code pending.connections}...) : des connexions en attente signalent une pool saturée.
+ */
+@Configuration
+public class DownstreamClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider downstreamConnectionProvider(
+            @Value("${gateway.downstream.max-connections:500}") int maxConnections,
+            @Value("${gateway.downstream.pending-acquire-max-count:5000}") int pendingAcquireMaxCount,
+            @Value("${gateway.downstream.pending-acquire-timeout:PT5S}") Duration pendingAcquireTimeout,
+            @Value("${gateway.downstream.max-idle-time:PT15S}") Duration maxIdleTime) {
+        // Limites appliquées par service (une pool par adresse distante)
+        return ConnectionProvider.builder("gateway-downstream")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                // Sous le keep-alive de Tomcat côté services (20s), pour ne pas réutiliser une connexion qu'il vient de fermer
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient downstreamWebClient(WebClient.Builder builder,
+                                         ConnectionProvider downstreamConnectionProvider,
+                                         @Value("${gateway.downstream.connect-timeout:PT2S}") Duration connectTimeout,
+                                         @Value("${gateway.downstream.response-timeout:PT10S}") Duration responseTimeout,
+                                         @Value("${gateway.downstream.max-response-size:10MB}") DataSize maxResponseSize) {
+        HttpClient httpClient = HttpClient.create(downstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .keepAlive(true);
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxResponseSize.toBytes()))
+                .build();
+    }
+}
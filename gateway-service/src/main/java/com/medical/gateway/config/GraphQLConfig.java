@@ -0,0 +1,20 @@
+package com.medical.gateway.config;
+
+import com.medical.gateway.service.PersistedQueryStore;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class GraphQLConfig {
+
+    /**
+     * Documents analysés et validés réutilisés d'une requête à l'autre (requêtes persistées comprises)
+     */
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedQueryCustomizer(PersistedQueryStore persistedQueryStore) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(persistedQueryStore));
+    }
+}
@@ -0,0 +1,33 @@
+package com.medical.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache des réponses des requêtes publiques de l'annuaire ({@code graphql.response-cache.*}).
+ * Seules les requêtes dont tous les champs racine ont une durée de vie sont mises en cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "graphql.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+
+    // Durée de vie par champ racine ; une requête en sélectionnant plusieurs prend la plus courte.
+    // Aucune invalidation : c'est le retard maximal sur doctor-service, par instance du gateway
+    private Map<String, Duration> ttl = new HashMap<>(Map.of(
+            "doctorsBySpecialty", Duration.ofMinutes(1),
+            "searchDoctors", Duration.ofSeconds(30),
+            "doctorAvailabilities", Duration.ofSeconds(10)));
+
+    // Au-delà de sa durée de vie, une réponse reste servie pendant ce délai si doctor-service échoue
+    private Duration maxStale = Duration.ofMinutes(30);
+    // Délai laissé au service avant de servir la réponse périmée
+    private Duration staleTimeout = Duration.ofSeconds(2);
+
+}
@@ -0,0 +1,95 @@
+package com.medical.gateway.controller;
+
+import com.medical.gateway.service.GraphQLOperationRouter;
+import com.medical.gateway.service.GraphQLRoutingService;
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.graphql.support.DefaultExecutionGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exécute les requêtes reçues sur {@code /graphql} en les transmettant aux services : l'opération du client,
+ * telle qu'envoyée (après résolution APQ par {@link PersistedQueryFilter}), passe par
+ * {@link GraphQLRoutingService} qui la découpe par service, envoie les sous-requêtes en parallèle et fusionne
+ * leurs réponses. L'en-tête {@code Authorization} est transmis tel quel ; {@code Cache-Control: no-cache}
+ * contourne le cache de réponses.
+ * <p>
+ * L'introspection (GraphiQL) et les documents que le routeur refuse (syntaxe, champ inconnu...) sont laissés
+ * au moteur local, qui répond d'après le schéma du gateway.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GraphQLRoutingInterceptor implements WebGraphQlInterceptor {
+
+    private final GraphQLOperationRouter operationRouter;
+    private final GraphQLRoutingService routingService;
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        GraphQLOperationRouter.ParsedOperation operation;
+        try {
+            operation = operationRouter.parse(request.getDocument());
+        } catch (IllegalArgumentException e) {
+            log.debug("Requête laissée au moteur local : {}", e.getMessage());
+            return chain.next(request);
+        }
+        if (operation.rootFields().stream().allMatch(field -> field.startsWith("__"))) {
+            return chain.next(request);
+        }
+
+        String cacheControl = request.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL);
+        boolean bypassCache = cacheControl != null && cacheControl.contains("no-cache");
+        return routingService.route(operation, request.getVariables(),
+                        request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION), bypassCache)
+                .map(response -> new WebGraphQlResponse(
+                        new DefaultExecutionGraphQlResponse(request.toExecutionInput(), executionResult(response))));
+    }
+
+    /**
+     * Réponse fusionnée des services, sous la forme attendue par Spring GraphQL pour la sérialiser
+     */
+    private static ExecutionResult executionResult(Map<String, Object> response) {
+        List<GraphQLError> errors = new ArrayList<>();
+        if (response.get("errors") instanceof List<?> responseErrors) {
+            for (Object error : responseErrors) {
+                if (error instanceof Map<?, ?> map) {
+                    errors.add(error(map));
+                }
+            }
+        }
+        return ExecutionResult.newExecutionResult()
+                .data(response.get("data"))
+                .errors(errors)
+                .build();
+    }
+
+    /**
+     * Erreur renvoyée par un service. Ses {@code locations} renvoient au texte de la sous-requête, pas à
+     * celui du client : elles sont omises
+     */
+    @SuppressWarnings("unchecked")
+    private static GraphQLError error(Map<?, ?> error) {
+        GraphqlErrorBuilder<?> builder = GraphqlErrorBuilder.newError()
+                .message(String.valueOf(error.get("message")));
+        if (error.get("path") instanceof List<?> path) {
+            builder.path((List<Object>) path);
+        }
+        if (error.get("extensions") instanceof Map<?, ?> extensions) {
+            builder.extensions((Map<String, Object>) extensions);
+        }
+        return builder.build();
+    }
+}
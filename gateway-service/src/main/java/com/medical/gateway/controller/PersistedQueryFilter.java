@@ -0,0 +1,176 @@
+package com.medical.gateway.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.gateway.service.PersistedQueryStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requêtes persistées automatiques (APQ, protocole Apollo) sur {@code POST /graphql} : un client envoie
+ * d'abord le seul hash SHA-256 de sa requête dans {@code extensions.persistedQuery}. Si le gateway la
+ * connaît, le texte est replacé dans la requête avant son exécution ; sinon il répond
+ * {@code PersistedQueryNotFound} et le client la renvoie une fois avec son texte, qui est alors enregistré.
+ */
+@Component
+public class PersistedQueryFilter extends OncePerRequestFilter {
+
+    private static final byte[] MARKER = "persistedQuery".getBytes(StandardCharsets.UTF_8);
+    private static final TypeReference<Map<String, Object>> BODY = new TypeReference<>() {
+    };
+
+    private final PersistedQueryStore persistedQueryStore;
+    private final ObjectMapper objectMapper;
+    private final String graphQlPath;
+
+    public PersistedQueryFilter(PersistedQueryStore persistedQueryStore, ObjectMapper objectMapper,
+                                @Value("${spring.graphql.path:/graphql}") String graphQlPath) {
+        this.persistedQueryStore = persistedQueryStore;
+        this.objectMapper = objectMapper;
+        this.graphQlPath = graphQlPath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !request.getRequestURI().equals(request.getContextPath() + graphQlPath);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+
+        // Requête classique : transmise sans analyser le JSON
+        if (!contains(body, MARKER)) {
+            filterChain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        }
+
+        Map<String, Object> document = objectMapper.readValue(body, BODY);
+        Map<String, Object> extensions = document.get("extensions") instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+        String hash = PersistedQueryStore.persistedQueryHash(extensions);
+        if (hash == null) {
+            filterChain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        }
+        if (!Integer.valueOf(1).equals(((Map<?, ?>) extensions.get("persistedQuery")).get("version"))) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "PersistedQueryNotSupported", "PERSISTED_QUERY_NOT_SUPPORTED");
+            return;
+        }
+
+        if (document.get("query") instanceof String query && !query.isEmpty()) {
+            // Texte envoyé avec son hash : enregistré pour les prochaines fois
+            if (!persistedQueryStore.register(hash, query)) {
+                writeError(response, HttpServletResponse.SC_BAD_REQUEST, "provided sha does not match query", "BAD_USER_INPUT");
+                return;
+            }
+        } else {
+            String query = persistedQueryStore.getQuery(hash);
+            if (query == null) {
+                // Réponse attendue par le client pour renvoyer la requête avec son texte
+                writeError(response, HttpServletResponse.SC_OK, "PersistedQueryNotFound", "PERSISTED_QUERY_NOT_FOUND");
+                return;
+            }
+            document.put("query", query);
+            body = objectMapper.writeValueAsBytes(document);
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message, String code) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+            "errors", List.of(Map.of("message", message, "extensions", Map.of("code", code)))
+        ));
+    }
+
+    private static boolean contains(byte[] body, byte[] marker) {
+        outer:
+        for (int i = 0; i <= body.length - marker.length; i++) {
+            for (int j = 0; j < marker.length; j++) {
+                if (body[i + j] != marker[j]) continue outer;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Requête dont le corps, déjà lu par le filtre, est relu depuis un tableau d'octets
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
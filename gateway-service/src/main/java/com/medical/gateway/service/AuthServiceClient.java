@@ -3,8 +3,9 @@ package com.medical.gateway.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.Map;
 
@@ -13,18 +14,21 @@ import java.util.Map;
 @Slf4j
 public class AuthServiceClient {
 
-    private final RestTemplate restTemplate;
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE = new ParameterizedTypeReference<>() {
+    };
+
+    private final WebClient downstreamWebClient;
 
     @Value("${auth.service.url}")
     private String authServiceUrl;
 
     /**
-     * Récupère les informations d'un utilisateur par son email
+     * Récupère les informations d'un utilisateur par son email. Appel bloquant : utilisé par
+     * {@code UserDetailsService}, dont le contrat est synchrone.
      */
     public Map<String, Object> getUserInfo(String email) {
         try {
-            String url = authServiceUrl + "/api/auth/user-info?email=" + email;
-            return restTemplate.getForObject(url, Map.class);
+            return get(authServiceUrl + "/api/auth/user-info?email={email}", email);
         } catch (Exception e) {
             log.error("Erreur lors de la récupération des informations de l'utilisateur {}: {}", email, e.getMessage());
             throw new RuntimeException("Erreur lors de la récupération des informations de l'utilisateur", e);
@@ -36,8 +40,7 @@ public class AuthServiceClient {
      */
     public Map<String, Object> getUserInfoById(String userId) {
         try {
-            String url = authServiceUrl + "/api/auth/user-info?id=" + userId;
-            return restTemplate.getForObject(url, Map.class);
+            return get(authServiceUrl + "/api/auth/user-info?id={id}", userId);
         } catch (Exception e) {
             log.error("Erreur lors de la récupération des informations de l'utilisateur {}: {}", userId, e.getMessage());
             throw new RuntimeException("Erreur lors de la récupération des informations de l'utilisateur", e);
@@ -51,11 +54,16 @@ public class AuthServiceClient {
         try {
             String url = authServiceUrl + "/api/auth/validate-token";
             Map<String, Object> requestBody = Map.of("token", token);
-            Map<String, Object> response = restTemplate.postForObject(url, requestBody, Map.class);
+            Map<String, Object> response = downstreamWebClient.post().uri(url).bodyValue(requestBody)
+                    .retrieve().bodyToMono(RESPONSE).block();
             return Boolean.parseBoolean(response.get("valid").toString());
         } catch (Exception e) {
             log.error("Erreur lors de la validation du token: {}", e.getMessage());
             return false;
         }
     }
+
+    private Map<String, Object> get(String uriTemplate, Object... uriVariables) {
+        return downstreamWebClient.get().uri(uriTemplate, uriVariables).retrieve().bodyToMono(RESPONSE).block();
+    }
 }
@@ -0,0 +1,259 @@
+package com.medical.gateway.service;
+
+import com.medical.gateway.util.GraphQLUtil;
+import graphql.language.AstPrinter;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.Node;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Détermine le ou les services cibles d'une requête GraphQL à partir des champs racine de son
+ * opération. Une requête dont les champs racine relèvent de plusieurs services est découpée en une
+ * sous-opération par service, chacune avec les seuls fragments et variables qu'elle utilise.
+ * <p>
+ * Le document n'est analysé qu'une fois : il est conservé dans un cache LRU borné, indexé par le
+ * SHA-256 du texte de la requête, si bien qu'une opération déjà vue n'est ni re-analysée ni
+ * re-découpée.
+ */
+@Slf4j
+@Component
+public class GraphQLOperationRouter {
+
+    /**
+     * Champs racine (Query et Mutation) exposés par chaque service, tels que déclarés dans leurs schémas.
+     */
+    static final Map<String, String> FIELD_SERVICES = fieldServices(Map.of(
+            "auth", List.of("me", "user", "registerPatient", "registerDoctor", "login", "refreshToken", "logout"),
+            "patient", List.of("patient"),
+            "doctor", List.of("doctor", "doctorsBySpecialty", "searchDoctors", "doctorAvailabilities",
+                    "updateDoctorProfile", "createAvailability", "deleteAvailability"),
+            "appointment", List.of("appointment", "patientAppointments", "doctorAppointments",
+                    "patientAppointmentsConnection", "doctorAppointmentsConnection", "availableSlots",
+                    "createAppointment", "cancelAppointment", "confirmAppointment", "completeAppointment"),
+            "payment", List.of("payment", "appointmentPayments", "createPaymentSession", "confirmPayment", "processRefund"),
+            "video", List.of("consultation", "appointmentConsultation", "myConsultations",
+                    "createConsultation", "startConsultation", "joinConsultation", "endConsultation"),
+            "notification", List.of("notification", "notificationsByRecipient", "sendNotification",
+                    "sendBulkNotification", "sendNotificationBatch", "resendNotification")));
+
+    private static final String DEFAULT_SERVICE = "auth";
+
+    private final Map<String, ParsedOperation> cache;
+
+    public GraphQLOperationRouter(@Value("${graphql.routing.cache-size:1000}") int cacheSize) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedOperation> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Retourne l'opération analysée, depuis le cache si la requête a déjà été vue
+     */
+    public ParsedOperation parse(String query) {
+        String key = GraphQLUtil.sha256(query);
+        synchronized (cache) {
+            ParsedOperation cached = cache.get(key);
+            if (cached != null) return cached;
+        }
+        // Analyse hors verrou : deux requêtes identiques simultanées peuvent être analysées deux fois
+        ParsedOperation parsed = analyze(query);
+        synchronized (cache) {
+            cache.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private ParsedOperation analyze(String query) {
+        Document document;
+        try {
+            document = Parser.parse(query);
+        } catch (InvalidSyntaxException e) {
+            throw new IllegalArgumentException("Requête GraphQL invalide : " + e.getMessage(), e);
+        }
+
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operations.size() != 1) {
+            throw new IllegalArgumentException("La requête GraphQL doit contenir exactement une opération");
+        }
+        OperationDefinition operation = operations.get(0);
+        Map<String, FragmentDefinition> fragments = new LinkedHashMap<>();
+        for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+            fragments.put(fragment.getName(), fragment);
+        }
+
+        List<Field> fields = new ArrayList<>();
+        collectRootFields(operation.getSelectionSet(), fragments, fields, new HashSet<>());
+
+        // Champs racine regroupés par service, dans l'ordre de la requête
+        Map<String, List<Field>> fieldsByService = new LinkedHashMap<>();
+        List<Field> introspection = new ArrayList<>();
+        Set<String> rootFields = new LinkedHashSet<>();
+        for (Field field : fields) {
+            rootFields.add(field.getName());
+            // __typename, __schema... : répondus par n'importe quel service
+            if (field.getName().startsWith("__")) {
+                introspection.add(field);
+                continue;
+            }
+            String service = FIELD_SERVICES.get(field.getName());
+            if (service == null) {
+                throw new IllegalArgumentException("Champ GraphQL inconnu : " + field.getName());
+            }
+            fieldsByService.computeIfAbsent(service, s -> new ArrayList<>()).add(field);
+        }
+
+        List<SubOperation> subOperations = new ArrayList<>();
+        if (fieldsByService.size() <= 1) {
+            // Un seul service : la requête est transmise telle quelle
+            String service = fieldsByService.isEmpty() ? DEFAULT_SERVICE : fieldsByService.keySet().iterator().next();
+            subOperations.add(new SubOperation(service, query, variableNames(operation), responseKeys(fields)));
+        } else {
+            // Les mutations s'exécutent l'une après l'autre : pas de découpage en appels parallèles
+            if (operation.getOperation() != OperationDefinition.Operation.QUERY) {
+                throw new IllegalArgumentException("Une mutation GraphQL ne peut viser qu'un seul service : " + fieldsByService.keySet());
+            }
+            boolean first = true;
+            for (Map.Entry<String, List<Field>> entry : fieldsByService.entrySet()) {
+                List<Field> serviceFields = new ArrayList<>(entry.getValue());
+                if (first) {
+                    serviceFields.addAll(introspection);
+                    first = false;
+                }
+                subOperations.add(subOperation(entry.getKey(), operation, serviceFields, fragments));
+            }
+        }
+        log.debug("Opération {} routée vers {}", rootFields,
+                subOperations.stream().map(SubOperation::service).toList());
+        return new ParsedOperation(document, operation.getOperation(), Collections.unmodifiableSet(rootFields),
+                AstPrinter.printAstCompact(document), List.copyOf(subOperations));
+    }
+
+    /**
+     * Sous-opération ne gardant que les champs d'un service, avec les fragments et les variables qu'ils utilisent
+     */
+    private SubOperation subOperation(String service, OperationDefinition operation, List<Field> fields,
+                                      Map<String, FragmentDefinition> fragments) {
+        Set<String> fragmentNames = new LinkedHashSet<>();
+        Set<String> variables = new HashSet<>();
+        for (Field field : fields) {
+            collectReferences(field, fragments, fragmentNames, variables);
+        }
+
+        List<VariableDefinition> variableDefinitions = operation.getVariableDefinitions().stream()
+                .filter(definition -> variables.contains(definition.getName()))
+                .toList();
+        // Added one by one: Document.Builder.definitions only takes a raw List<Definition>
+        Document.Builder document = Document.newDocument()
+                .definition(operation.transform(builder -> builder
+                        .selectionSet(SelectionSet.newSelectionSet(new ArrayList<>(fields)).build())
+                        .variableDefinitions(variableDefinitions)));
+        fragmentNames.forEach(name -> document.definition(fragments.get(name)));
+
+        String query = AstPrinter.printAstCompact(document.build());
+        Set<String> variableNames = new LinkedHashSet<>();
+        variableDefinitions.forEach(definition -> variableNames.add(definition.getName()));
+        return new SubOperation(service, query, Collections.unmodifiableSet(variableNames), responseKeys(fields));
+    }
+
+    /**
+     * Champs racine de l'opération ; les fragments posés à la racine sont dépliés
+     */
+    private void collectRootFields(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments,
+                                   List<Field> fields, Set<String> visitedFragments) {
+        if (selectionSet == null) return;
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field field) {
+                fields.add(field);
+            } else if (selection instanceof InlineFragment inlineFragment) {
+                collectRootFields(inlineFragment.getSelectionSet(), fragments, fields, visitedFragments);
+            } else if (selection instanceof FragmentSpread spread && visitedFragments.add(spread.getName())) {
+                collectRootFields(fragment(fragments, spread.getName()).getSelectionSet(), fragments, fields, visitedFragments);
+            }
+        }
+    }
+
+    /**
+     * Fragments (y compris imbriqués) et variables référencés sous un nœud
+     */
+    private void collectReferences(Node<?> node, Map<String, FragmentDefinition> fragments,
+                                   Set<String> fragmentNames, Set<String> variables) {
+        if (node instanceof VariableReference variable) {
+            variables.add(variable.getName());
+        } else if (node instanceof FragmentSpread spread && fragmentNames.add(spread.getName())) {
+            collectReferences(fragment(fragments, spread.getName()), fragments, fragmentNames, variables);
+        }
+        for (Node<?> child : node.getChildren()) {
+            collectReferences(child, fragments, fragmentNames, variables);
+        }
+    }
+
+    private static FragmentDefinition fragment(Map<String, FragmentDefinition> fragments, String name) {
+        FragmentDefinition fragment = fragments.get(name);
+        if (fragment == null) {
+            throw new IllegalArgumentException("Fragment GraphQL inconnu : " + name);
+        }
+        return fragment;
+    }
+
+    private static Set<String> variableNames(OperationDefinition operation) {
+        Set<String> names = new LinkedHashSet<>();
+        operation.getVariableDefinitions().forEach(definition -> names.add(definition.getName()));
+        return Collections.unmodifiableSet(names);
+    }
+
+    private static List<String> responseKeys(List<Field> fields) {
+        return fields.stream().map(field -> field.getAlias() != null ? field.getAlias() : field.getName()).distinct().toList();
+    }
+
+    private static Map<String, String> fieldServices(Map<String, List<String>> fieldsByService) {
+        Map<String, String> fieldServices = new LinkedHashMap<>();
+        fieldsByService.forEach((service, fields) -> fields.forEach(field -> fieldServices.put(field, service)));
+        return Map.copyOf(fieldServices);
+    }
+
+    /**
+     * Opération analysée : le document, son type, les noms des champs racine, son texte normalisé (réimprimé
+     * depuis le document, indépendant de la mise en forme du client) et les appels à faire, un par service visé
+     */
+    public record ParsedOperation(Document document, OperationDefinition.Operation operation, Set<String> rootFields,
+                                  String normalizedQuery, List<SubOperation> subOperations) {
+    }
+
+    /**
+     * Partie d'une opération envoyée à un service : sa requête, les variables qu'elle déclare et les clés
+     * (alias ou nom de champ) qu'elle renseigne dans {@code data}
+     */
+    public record SubOperation(String service, String query, Set<String> variables, List<String> responseKeys) {
+    }
+}
@@ -1,16 +1,16 @@
 package com.medical.gateway.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,113 +18,112 @@ import java.util.Map;
 @Slf4j
 public class GraphQLRoutingService {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-
-    @Value("${auth.service.url}")
-    private String authServiceUrl;
-
-    @Value("${patient.service.url}")
-    private String patientServiceUrl;
-
-    @Value("${doctor.service.url}")
-    private String doctorServiceUrl;
-
-    @Value("${appointment.service.url}")
-    private String appointmentServiceUrl;
-
-    @Value("${payment.service.url}")
-    private String paymentServiceUrl;
-
-    @Value("${video.service.url}")
-    private String videoServiceUrl;
+    private final GraphQLServiceClient serviceClient;
+    private final GraphQLOperationRouter operationRouter;
+    private final ResponseCache responseCache;
 
-    @Value("${notification.service.url}")
-    private String notificationServiceUrl;
+    /**
+     * Route une requête GraphQL vers le service approprié. Une requête qui vise plusieurs services
+     * est découpée : les sous-requêtes partent en parallèle et leurs {@code data} et {@code errors}
+     * sont fusionnés, la latence est donc celle de l'appel le plus lent.
+     */
+    public Mono<Map<String, Object>> routeGraphQLRequest(String query, Map<String, Object> variables, String authToken) {
+        return routeGraphQLRequest(query, variables, authToken, false);
+    }
 
     /**
-     * Route une requête GraphQL vers le service approprié
+     * Comme {@link #routeGraphQLRequest(String, Map, String)} ; les requêtes publiques de l'annuaire
+     * passent par le cache de réponses, sauf si {@code bypassCache}
      */
-    public Map<String, Object> routeGraphQLRequest(String query, Map<String, Object> variables, String authToken) {
-        try {
-            // Analyser la requête pour déterminer le service cible
-            String serviceName = determineServiceFromQuery(query);
+    public Mono<Map<String, Object>> routeGraphQLRequest(String query, Map<String, Object> variables, String authToken,
+                                                         boolean bypassCache) {
+        // Router sur les champs racine de l'opération (document analysé mis en cache)
+        return route(operationRouter.parse(query), variables, authToken, bypassCache);
+    }
 
-            // Construire l'URL du service cible
-            String serviceUrl = getServiceUrl(serviceName);
+    /**
+     * Comme {@link #routeGraphQLRequest(String, Map, String, boolean)}, pour une opération déjà analysée
+     */
+    public Mono<Map<String, Object>> route(GraphQLOperationRouter.ParsedOperation operation, Map<String, Object> variables,
+                                           String authToken, boolean bypassCache) {
+        Duration ttl = responseCache.ttl(operation);
+        if (ttl != null) {
+            return responseCache.get(operation, ttl, variables, bypassCache,
+                    () -> execute(operation.subOperations(), variables, authToken));
+        }
 
-            // Préparer les en-têtes
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            if (authToken != null) {
-                headers.set("Authorization", authToken);
-            }
+        return execute(operation.subOperations(), variables, authToken);
+    }
 
-            // Construire le corps de la requête
-            Map<String, Object> requestBody = Map.of(
-                "query", query,
-                "variables", variables != null ? variables : Map.of()
-            );
+    private Mono<Map<String, Object>> execute(List<GraphQLOperationRouter.SubOperation> subOperations,
+                                              Map<String, Object> variables, String authToken) {
+        if (subOperations.size() == 1) {
+            return send(subOperations.get(0), variables, authToken);
+        }
 
-            // Envoyer la requête
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            return restTemplate.postForObject(serviceUrl + "/graphql", entity, Map.class);
+        return Flux.fromIterable(subOperations)
+                .flatMapSequential(subOperation -> send(subOperation, variables, authToken)
+                        .defaultIfEmpty(Map.of())
+                        .onErrorResume(e -> Mono.just(unavailable(subOperation))))
+                .collectList()
+                .map(responses -> merge(subOperations, responses));
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("Erreur lors du traitement de la requête GraphQL: {}", e.getMessage());
-            throw new RuntimeException("Erreur lors du traitement de la requête GraphQL", e);
+    /**
+     * Envoie une (sous-)requête à son service, avec les seules variables qu'elle déclare
+     */
+    private Mono<Map<String, Object>> send(GraphQLOperationRouter.SubOperation subOperation, Map<String, Object> variables,
+                                           String authToken) {
+        Map<String, Object> subVariables = new HashMap<>();
+        if (variables != null) {
+            variables.forEach((name, value) -> {
+                if (subOperation.variables().contains(name)) {
+                    subVariables.put(name, value);
+                }
+            });
         }
+        return serviceClient.execute(subOperation.service(), subOperation.query(), subVariables, authToken);
     }
 
     /**
-     * Détermine le service approprié en fonction de la requête GraphQL
+     * Réponse d'une sous-requête dont le service n'a pas répondu : une erreur par champ demandé
      */
-    private String determineServiceFromQuery(String query) {
-        // Simplification: analyse le nom de la mutation ou de la requête principale
-        String normalizedQuery = query.toLowerCase();
-
-        if (normalizedQuery.contains("register") || normalizedQuery.contains("login") || 
-            normalizedQuery.contains("logout") || normalizedQuery.contains("refreshtoken")) {
-            return "auth";
-        } else if (normalizedQuery.contains("patient")) {
-            return "patient";
-        } else if (normalizedQuery.contains("doctor") || normalizedQuery.contains("availability")) {
-            return "doctor";
-        } else if (normalizedQuery.contains("appointment") || normalizedQuery.contains("timeslot")) {
-            return "appointment";
-        } else if (normalizedQuery.contains("payment")) {
-            return "payment";
-        } else if (normalizedQuery.contains("consultation") || normalizedQuery.contains("video")) {
-            return "video";
-        } else if (normalizedQuery.contains("notification")) {
-            return "notification";
+    private Map<String, Object> unavailable(GraphQLOperationRouter.SubOperation subOperation) {
+        List<Object> errors = new ArrayList<>();
+        for (String key : subOperation.responseKeys()) {
+            errors.add(Map.of(
+                "message", "Service " + subOperation.service() + " indisponible",
+                "path", List.of(key)
+            ));
         }
-
-        // Par défaut, utiliser le service d'authentification
-        return "auth";
+        return Map.of("errors", errors);
     }
 
     /**
-     * Retourne l'URL du service spécifié
+     * Fusionne les réponses des sous-requêtes : leurs clés dans {@code data} (null si le service n'a rien
+     * renvoyé), dans l'ordre des sous-requêtes, et leurs erreurs
      */
-    private String getServiceUrl(String serviceName) {
-        switch (serviceName) {
-            case "auth":
-                return authServiceUrl;
-            case "patient":
-                return patientServiceUrl;
-            case "doctor":
-                return doctorServiceUrl;
-            case "appointment":
-                return appointmentServiceUrl;
-            case "payment":
-                return paymentServiceUrl;
-            case "video":
-                return videoServiceUrl;
-            case "notification":
-                return notificationServiceUrl;
-            default:
-                return authServiceUrl;
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> merge(List<GraphQLOperationRouter.SubOperation> subOperations,
+                                      List<Map<String, Object>> responses) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        List<Object> errors = new ArrayList<>();
+        for (int i = 0; i < subOperations.size(); i++) {
+            Map<String, Object> response = responses.get(i);
+            Map<String, Object> subData = response.get("data") instanceof Map<?, ?> map ? (Map<String, Object>) map : Map.of();
+            for (String key : subOperations.get(i).responseKeys()) {
+                data.put(key, subData.get(key));
+            }
+            if (response.get("errors") instanceof List<?> subErrors) {
+                errors.addAll(subErrors);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("data", data);
+        if (!errors.isEmpty()) {
+            result.put("errors", errors);
         }
+        return result;
     }
 }
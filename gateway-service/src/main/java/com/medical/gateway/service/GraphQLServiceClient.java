@@ -0,0 +1,95 @@
+package com.medical.gateway.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Envoie les requêtes GraphQL aux services, sans bloquer de thread pendant l'appel : les connexions
+ * (keep-alive, une pool par service) et les délais sont ceux du {@link WebClient} partagé.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GraphQLServiceClient {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE = new ParameterizedTypeReference<>() {
+    };
+
+    private final WebClient downstreamWebClient;
+
+    @Value("${auth.service.url}")
+    private String authServiceUrl;
+
+    @Value("${patient.service.url}")
+    private String patientServiceUrl;
+
+    @Value("${doctor.service.url}")
+    private String doctorServiceUrl;
+
+    @Value("${appointment.service.url}")
+    private String appointmentServiceUrl;
+
+    @Value("${payment.service.url}")
+    private String paymentServiceUrl;
+
+    @Value("${video.service.url}")
+    private String videoServiceUrl;
+
+    @Value("${notification.service.url}")
+    private String notificationServiceUrl;
+
+    /**
+     * Envoie une requête GraphQL au service indiqué et retourne sa réponse ({@code data}, {@code errors})
+     */
+    public Mono<Map<String, Object>> execute(String serviceName, String query, Map<String, Object> variables,
+                                             String authToken) {
+        return downstreamWebClient.post()
+                .uri(getServiceUrl(serviceName) + "/graphql")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (authToken != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authToken);
+                    }
+                })
+                .bodyValue(Map.of(
+                    "query", query,
+                    "variables", variables
+                ))
+                .retrieve()
+                .bodyToMono(RESPONSE)
+                .doOnError(e -> log.error("Erreur lors de l'appel au service {}: {}", serviceName, e.getMessage()));
+    }
+
+    /**
+     * Retourne l'URL du service spécifié
+     */
+    private String getServiceUrl(String serviceName) {
+        switch (serviceName) {
+            case "auth":
+                return authServiceUrl;
+            case "patient":
+                return patientServiceUrl;
+            case "doctor":
+                return doctorServiceUrl;
+            case "appointment":
+                return appointmentServiceUrl;
+            case "payment":
+                return paymentServiceUrl;
+            case "video":
+                return videoServiceUrl;
+            case "notification":
+                return notificationServiceUrl;
+            default:
+                return authServiceUrl;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.medical.gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.gateway.util.GraphQLUtil;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Requêtes GraphQL connues du gateway, indexées par le SHA-256 de leur texte : c'est le registre des
+ * requêtes persistées (APQ), qui permet aux clients de n'envoyer que le hash, et le cache des documents
+ * analysés et validés, réutilisés d'une requête à l'autre.
+ * <p>
+ * Les requêtes du manifeste (format {@code apollo-persisted-query-manifest}) sont chargées au démarrage
+ * et jamais évincées ; celles enregistrées par les clients le sont dans un cache LRU borné. Un client
+ * dont la requête a été évincée reçoit {@code PersistedQueryNotFound} et la renvoie en entier.
+ */
+@Slf4j
+@Component
+public class PersistedQueryStore implements PreparsedDocumentProvider {
+
+    private final Map<String, Entry> manifest = new HashMap<>();
+    private final Map<String, Entry> registered;
+
+    public PersistedQueryStore(ObjectMapper objectMapper,
+                               @Value("${graphql.persisted-queries.cache-size:5000}") int cacheSize,
+                               @Value("${graphql.persisted-queries.manifest:classpath:graphql/persisted-query-manifest.json}") Resource manifestResource)
+            throws IOException {
+        this.registered = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        if (manifestResource.exists()) {
+            try (InputStream in = manifestResource.getInputStream()) {
+                loadManifest(objectMapper.readTree(in));
+            }
+        }
+    }
+
+    /**
+     * Retourne le texte de la requête de ce hash, ou null si elle est inconnue
+     */
+    public String getQuery(String hash) {
+        Entry entry = entry(hash);
+        return entry != null ? entry.query : null;
+    }
+
+    /**
+     * Enregistre une requête envoyée en entier avec son hash ; false si le hash ne correspond pas au texte
+     */
+    public boolean register(String hash, String query) {
+        if (!GraphQLUtil.sha256(query).equalsIgnoreCase(hash)) {
+            return false;
+        }
+        String key = hash.toLowerCase();
+        if (!manifest.containsKey(key)) {
+            synchronized (registered) {
+                registered.putIfAbsent(key, new Entry(query));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Document analysé et validé de la requête : calculé à la première exécution puis réutilisé
+     */
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+                                                                     Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        // Hash APQ déjà vérifié par PersistedQueryFilter : le comparer au texte coûte moins que re-hacher
+        String key = persistedQueryHash(executionInput.getExtensions());
+        Entry entry = key != null ? entry(key) : null;
+        if (entry == null || !entry.query.equals(query)) {
+            key = GraphQLUtil.sha256(query);
+            entry = entry(key);
+        }
+        if (entry == null) {
+            entry = new Entry(query);
+            synchronized (registered) {
+                Entry existing = registered.putIfAbsent(key, entry);
+                if (existing != null) entry = existing;
+            }
+        }
+
+        PreparsedDocumentEntry document = entry.document;
+        if (document == null) {
+            document = parseAndValidateFunction.apply(executionInput);
+            // Une requête invalide n'est pas gardée : elle est ré-analysée pour renvoyer ses erreurs
+            if (!document.hasErrors()) {
+                entry.document = document;
+            }
+        }
+        return CompletableFuture.completedFuture(document);
+    }
+
+    /**
+     * Encore abstraite dans graphql-java 21 (supprimée en 22) ; graphql-java n'appelle que {@link #getDocumentAsync}
+     */
+    @Deprecated
+    @Override
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput,
+                                              Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentAsync(executionInput, parseAndValidateFunction).join();
+    }
+
+    int size() {
+        synchronized (registered) {
+            return manifest.size() + registered.size();
+        }
+    }
+
+    /**
+     * Hash de {@code extensions.persistedQuery.sha256Hash}, ou null si la requête n'est pas persistée
+     */
+    public static String persistedQueryHash(Map<String, Object> extensions) {
+        if (extensions != null && extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery
+                && persistedQuery.get("sha256Hash") instanceof String hash) {
+            return hash.toLowerCase();
+        }
+        return null;
+    }
+
+    private Entry entry(String hash) {
+        String key = hash.toLowerCase();
+        Entry entry = manifest.get(key);
+        if (entry != null) return entry;
+        synchronized (registered) {
+            return registered.get(key);
+        }
+    }
+
+    private void loadManifest(JsonNode root) {
+        for (JsonNode operation : root.path("operations")) {
+            String hash = operation.path("id").asText();
+            String query = operation.path("body").asText();
+            if (!GraphQLUtil.sha256(query).equalsIgnoreCase(hash)) {
+                throw new IllegalStateException("Manifeste de requêtes persistées : hash invalide pour " + operation.path("name").asText());
+            }
+            manifest.put(hash.toLowerCase(), new Entry(query));
+        }
+        log.info("{} requêtes persistées chargées depuis le manifeste", manifest.size());
+    }
+
+    private static final class Entry {
+
+        private final String query;
+        private volatile PreparsedDocumentEntry document;
+
+        private Entry(String query) {
+            this.query = query;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.medical.gateway.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medical.gateway.config.ResponseCacheProperties;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache des réponses des requêtes publiques de l'annuaire (médecins, disponibilités), identiques pour
+ * tous les utilisateurs. La clé est le texte normalisé de l'opération et ses variables, triées.
+ * <p>
+ * Une réponse est servie telle quelle pendant sa durée de vie. Ensuite elle est redemandée au service ;
+ * si celui-ci échoue ou ne répond pas dans le délai {@code stale-timeout}, la réponse périmée est servie,
+ * au plus {@code max-stale} après sa péremption.
+ * <p>
+ * Rien n'invalide une réponse avant son expiration : le gateway n'expose aucune mutation de l'annuaire, les
+ * modifications faites dans doctor-service ne sont visibles qu'à l'expiration, d'où des durées de vie courtes.
+ * Le cache est propre à chaque instance du gateway : deux instances peuvent servir des versions différentes
+ * pendant au plus une durée de vie.
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private final ResponseCacheProperties properties;
+    private final ObjectWriter variablesWriter;
+    private final Clock clock;
+    private final Cache<String, CachedResponse> cache;
+    private final Counter staleServed;
+
+    @Autowired
+    public ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, Clock.systemUTC());
+    }
+
+    ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry, Clock clock) {
+        this.properties = properties;
+        this.variablesWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.clock = clock;
+        Duration longestTtl = properties.getTtl().values().stream().max(Duration::compareTo).orElse(Duration.ZERO);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(longestTtl.plus(properties.getMaxStale()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "graphql-responses");
+        this.staleServed = meterRegistry.counter("graphql.response.cache.stale");
+    }
+
+    /**
+     * Durée de vie des réponses de l'opération, ou null si elle ne se met pas en cache
+     */
+    public Duration ttl(GraphQLOperationRouter.ParsedOperation operation) {
+        if (!properties.isEnabled() || operation.operation() != OperationDefinition.Operation.QUERY) {
+            return null;
+        }
+        Duration ttl = null;
+        for (String field : operation.rootFields()) {
+            if (field.startsWith("__")) continue;
+            Duration fieldTtl = properties.getTtl().get(field);
+            if (fieldTtl == null) return null;
+            if (ttl == null || fieldTtl.compareTo(ttl) < 0) ttl = fieldTtl;
+        }
+        return ttl;
+    }
+
+    /**
+     * Réponse de l'opération, depuis le cache si elle y est encore valable, sinon depuis {@code downstream}
+     * (avec repli sur la réponse périmée si le service échoue)
+     */
+    public Mono<Map<String, Object>> get(GraphQLOperationRouter.ParsedOperation operation, Duration ttl,
+                                         Map<String, Object> variables, boolean bypass,
+                                         Supplier<Mono<Map<String, Object>>> downstream) {
+        String key = key(operation, variables);
+        long now = clock.millis();
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && !bypass && now < cached.freshUntil()) {
+            return Mono.just(cached.response());
+        }
+
+        Mono<Map<String, Object>> response = downstream.get().doOnNext(fresh -> {
+            // Une réponse en erreur n'est pas gardée : l'erreur pourrait n'être que passagère
+            if (fresh.get("errors") == null && fresh.get("data") != null) {
+                long storedAt = clock.millis();
+                cache.put(key, new CachedResponse(fresh, storedAt + ttl.toMillis(),
+                        storedAt + ttl.plus(properties.getMaxStale()).toMillis()));
+            }
+        });
+        if (cached == null || now >= cached.staleUntil()) {
+            return response;
+        }
+        return response
+                .timeout(properties.getStaleTimeout())
+                .flatMap(fresh -> fresh.get("data") == null && fresh.get("errors") != null
+                        ? Mono.error(new IllegalStateException("Erreurs GraphQL : " + fresh.get("errors")))
+                        : Mono.just(fresh))
+                .onErrorResume(e -> {
+                    log.warn("Réponse périmée servie pour {} : {}", operation.rootFields(), e.toString());
+                    staleServed.increment();
+                    return Mono.just(cached.response());
+                });
+    }
+
+    private String key(GraphQLOperationRouter.ParsedOperation operation, Map<String, Object> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return operation.normalizedQuery();
+        }
+        try {
+            return operation.normalizedQuery() + '\n' + variablesWriter.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Variables GraphQL non sérialisables", e);
+        }
+    }
+
+    private record CachedResponse(Map<String, Object> response, long freshUntil, long staleUntil) {
+    }
+}
@@ -5,6 +5,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Map;
 
 @Component
@@ -40,4 +44,16 @@ public class GraphQLUtil {
         // Pour simplifier, nous retournons null et le service de routage gérera l'authentification
         return null;
     }
+
+    /**
+     * SHA-256 (hexadécimal, minuscules) du texte d'une requête : clé des caches de documents et des requêtes persistées
+     */
+    public static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package com.medical.gateway.controller;
+
+import com.medical.gateway.service.GraphQLOperationRouter;
+import com.medical.gateway.service.GraphQLRoutingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GraphQLRoutingInterceptorTest {
+
+    private static final String QUERY = "query($patientId: ID!) { me { id } patientAppointments(patientId: $patientId) { id } }";
+
+    @Mock
+    private GraphQLRoutingService routingService;
+    @Mock
+    private WebGraphQlInterceptor.Chain chain;
+
+    private GraphQLRoutingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new GraphQLRoutingInterceptor(new GraphQLOperationRouter(100), routingService);
+    }
+
+    @Test
+    void intercept_RoutesTheClientOperationWithItsVariablesAndToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, "Bearer token");
+        headers.set(HttpHeaders.CACHE_CONTROL, "no-cache");
+        when(routingService.route(any(), eq(Map.of("patientId", "7")), eq("Bearer token"), eq(true)))
+                .thenReturn(Mono.just(Map.of(
+                        "data", Map.of("me", Map.of("id", "1")),
+                        "errors", List.of(Map.of("message", "Service appointment indisponible",
+                                "path", List.of("patientAppointments"))))));
+
+        WebGraphQlResponse response = interceptor.intercept(request(QUERY, Map.of("patientId", "7"), headers), chain).block();
+
+        // Both root fields in one planned operation, split by the routing service
+        verify(routingService).route(argThat(operation -> operation.subOperations().size() == 2), any(), any(), anyBoolean());
+        verifyNoInteractions(chain);
+        assertEquals(Map.of("me", Map.of("id", "1")), response.getData());
+        assertEquals(1, response.getErrors().size());
+        assertEquals("Service appointment indisponible", response.getErrors().get(0).getMessage());
+        assertEquals(List.of("patientAppointments"), response.getErrors().get(0).getParsedPath());
+    }
+
+    @Test
+    void intercept_LeavesIntrospectionAndRejectedDocumentsToTheLocalEngine() {
+        when(chain.next(any())).thenReturn(Mono.empty());
+
+        interceptor.intercept(request("{ __schema { queryType { name } } }", Map.of(), new HttpHeaders()), chain).block();
+        interceptor.intercept(request("{ unknownField }", Map.of(), new HttpHeaders()), chain).block();
+
+        verify(chain, times(2)).next(any());
+        verifyNoInteractions(routingService);
+    }
+
+    private static WebGraphQlRequest request(String query, Map<String, Object> variables, HttpHeaders headers) {
+        return new WebGraphQlRequest(URI.create("http://localhost/graphql"), headers,
+                Map.of("query", query, "variables", variables), "1", Locale.FRANCE);
+    }
+}
@@ -0,0 +1,94 @@
+package com.medical.gateway.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.gateway.service.PersistedQueryStore;
+import com.medical.gateway.util.GraphQLUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistedQueryFilterTest {
+
+    private static final String ME = "query { me { id email role } }";
+    private static final String DOCTOR = "query { doctor(id: 1) { id lastName } }";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PersistedQueryFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Map<String, Object> manifest = Map.of("format", "apollo-persisted-query-manifest", "version", 1,
+                "operations", List.of(Map.of("id", GraphQLUtil.sha256(DOCTOR), "name", "Doctor", "type", "query", "body", DOCTOR)));
+        Resource manifestResource = new ByteArrayResource(objectMapper.writeValueAsBytes(manifest));
+        PersistedQueryStore store = new PersistedQueryStore(objectMapper, 100, manifestResource);
+        filter = new PersistedQueryFilter(store, objectMapper, "/graphql");
+    }
+
+    @Test
+    void unknownHash_AsksForTheQueryThenServesItFromItsHash() throws Exception {
+        String hash = GraphQLUtil.sha256(ME);
+
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(null, hash), notFound, chain);
+        assertNull(chain.getRequest());
+        assertTrue(notFound.getContentAsString().contains("PersistedQueryNotFound"));
+
+        // Sent again with its text: registered and executed
+        chain = new MockFilterChain();
+        filter.doFilter(request(ME, hash), new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+
+        chain = new MockFilterChain();
+        filter.doFilter(request(null, hash), new MockHttpServletResponse(), chain);
+        assertEquals(ME, forwardedQuery(chain));
+    }
+
+    @Test
+    void manifestQueries_AreKnownFromStartup() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(null, GraphQLUtil.sha256(DOCTOR)), new MockHttpServletResponse(), chain);
+
+        assertEquals(DOCTOR, forwardedQuery(chain));
+    }
+
+    @Test
+    void hashNotMatchingTheQuery_IsRejected() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(ME, GraphQLUtil.sha256(DOCTOR)), response, chain);
+
+        assertEquals(400, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    private MockHttpServletRequest request(String query, String hash) throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        if (query != null) {
+            body.put("query", query);
+        }
+        body.put("extensions", Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContentType("application/json");
+        request.setContent(objectMapper.writeValueAsBytes(body));
+        return request;
+    }
+
+    private String forwardedQuery(MockFilterChain chain) throws Exception {
+        byte[] body = chain.getRequest().getInputStream().readAllBytes();
+        return (String) objectMapper.readValue(new String(body, StandardCharsets.UTF_8), Map.class).get("query");
+    }
+}
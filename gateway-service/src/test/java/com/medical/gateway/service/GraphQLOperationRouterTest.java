@@ -0,0 +1,85 @@
+package com.medical.gateway.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphQLOperationRouterTest {
+
+    private final GraphQLOperationRouter router = new GraphQLOperationRouter(2);
+
+    @Test
+    void parse_RoutesOnRootFieldsOnly() {
+        // Selects patient fields but is an appointment query
+        assertEquals("appointment", service("query { appointment(id: 1) { id patientId patient { firstName } } }"));
+        assertEquals("doctor", service("query { doctorAvailabilities(doctorId: 2) { id dayOfWeek } }"));
+        assertEquals("auth", service("mutation { login(input: {email: \"a@b.fr\", password: \"x\"}) { accessToken } }"));
+        assertEquals("payment", service("{ appointmentPayments(appointmentId: 3) { id status } }"));
+    }
+
+    @Test
+    void parse_ForwardsSingleServiceQueriesUnchanged() {
+        String query = "query Mine { ...Consultations } fragment Consultations on Query { myConsultations { id } __typename }";
+
+        GraphQLOperationRouter.ParsedOperation operation = router.parse(query);
+
+        assertEquals(Set.of("myConsultations", "__typename"), operation.rootFields());
+        assertEquals(1, operation.subOperations().size());
+        assertEquals("video", operation.subOperations().get(0).service());
+        assertEquals(query, operation.subOperations().get(0).query());
+    }
+
+    @Test
+    void parse_SplitsQueriesSpanningServicesWithTheirOwnFragmentsAndVariables() {
+        String query = "query Dashboard($patientId: ID!, $unused: String) { me { ...UserFields } "
+                + "upcoming: patientAppointments(patientId: $patientId) { id } myConsultations { id } } "
+                + "fragment UserFields on User { id email }";
+
+        List<GraphQLOperationRouter.SubOperation> subOperations = router.parse(query).subOperations();
+
+        assertEquals(List.of("auth", "appointment", "video"),
+                subOperations.stream().map(GraphQLOperationRouter.SubOperation::service).toList());
+
+        GraphQLOperationRouter.SubOperation auth = subOperations.get(0);
+        assertEquals(List.of("me"), auth.responseKeys());
+        assertEquals(Set.of(), auth.variables());
+        assertTrue(auth.query().contains("fragment UserFields"));
+
+        GraphQLOperationRouter.SubOperation appointment = subOperations.get(1);
+        assertEquals(List.of("upcoming"), appointment.responseKeys());
+        assertEquals(Set.of("patientId"), appointment.variables());
+        assertFalse(appointment.query().contains("UserFields"));
+        assertFalse(appointment.query().contains("myConsultations"));
+    }
+
+    @Test
+    void parse_RejectsUnknownFieldsAndMutationsSpanningServices() {
+        assertThrows(IllegalArgumentException.class, () -> router.parse("{ unknownField { id } }"));
+        assertThrows(IllegalArgumentException.class,
+                () -> router.parse("mutation { logout(refreshToken: \"t\") cancelAppointment(id: 1) { id } }"));
+        assertThrows(IllegalArgumentException.class, () -> router.parse("{ patient(id: 1) { id }"));
+    }
+
+    @Test
+    void parse_ServesRepeatedQueriesFromABoundedCache() {
+        String first = "{ patient(id: 1) { id } }";
+        GraphQLOperationRouter.ParsedOperation parsed = router.parse(first);
+
+        assertSame(parsed, router.parse(first));
+
+        router.parse("{ doctor(id: 1) { id } }");
+        router.parse("{ payment(id: 1) { id } }");
+        assertEquals(2, router.cacheSize());
+        // Least recently used, so evicted and parsed again
+        assertNotSame(parsed, router.parse(first));
+    }
+
+    private String service(String query) {
+        List<GraphQLOperationRouter.SubOperation> subOperations = router.parse(query).subOperations();
+        assertEquals(1, subOperations.size());
+        return subOperations.get(0).service();
+    }
+}
@@ -0,0 +1,78 @@
+package com.medical.gateway.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GraphQLRoutingServiceTest {
+
+    @Mock
+    private GraphQLServiceClient serviceClient;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    private GraphQLRoutingService routingService;
+
+    @BeforeEach
+    void setUp() {
+        routingService = new GraphQLRoutingService(serviceClient, new GraphQLOperationRouter(100), responseCache);
+        // Nothing cached here; unstubbed, the mock would answer Duration.ZERO and route through the cache
+        lenient().when(responseCache.ttl(any())).thenReturn(null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void routeGraphQLRequest_CallsEachServiceConcurrentlyAndMergesTheirResponses() {
+        when(serviceClient.execute(eq("auth"), anyString(), eq(Map.of()), eq("Bearer token")))
+                .thenReturn(Mono.delay(Duration.ofMillis(300)).thenReturn(Map.of("data", Map.of("me", Map.of("id", "1")))));
+        when(serviceClient.execute(eq("appointment"), anyString(), eq(Map.of("patientId", "7")), any()))
+                .thenReturn(Mono.delay(Duration.ofMillis(300)).thenReturn(Map.of(
+                        "data", Map.of("patientAppointments", List.of()),
+                        "errors", List.of(Map.of("message", "partial")))));
+        when(serviceClient.execute(eq("video"), anyString(), any(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("video-service down")));
+
+        // Parsed on assembly; the first parse of the JVM loads the whole parser, so it is left out of the timing
+        Mono<Map<String, Object>> response = routingService.routeGraphQLRequest(
+                "query($patientId: ID!) { me { id } patientAppointments(patientId: $patientId) { id } myConsultations { id } }",
+                Map.of("patientId", "7"), "Bearer token");
+        long start = System.nanoTime();
+        Map<String, Object> result = response.block();
+        // Latency of the slowest call, not the sum
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 550);
+
+        Map<String, Object> data = (Map<String, Object>) result.get("data");
+        assertEquals(List.of("me", "patientAppointments", "myConsultations"), List.copyOf(data.keySet()));
+        assertEquals(Map.of("id", "1"), data.get("me"));
+        assertNull(data.get("myConsultations"));
+
+        List<Map<String, Object>> errors = (List<Map<String, Object>>) result.get("errors");
+        assertEquals(2, errors.size());
+        assertEquals("partial", errors.get(0).get("message"));
+        assertEquals(List.of("myConsultations"), errors.get(1).get("path"));
+    }
+
+    @Test
+    void routeGraphQLRequest_ForwardsSingleServiceQueriesAsIs() {
+        String query = "{ doctor(id: 1) { id } }";
+        when(serviceClient.execute("doctor", query, Map.of(), null)).thenReturn(Mono.just(Map.of("data", Map.of())));
+
+        assertEquals(Map.of("data", Map.of()), routingService.routeGraphQLRequest(query, null, null).block());
+        verify(serviceClient).execute("doctor", query, Map.of(), null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.medical.gateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.gateway.util.GraphQLUtil;
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistedQueryStoreTest {
+
+    private static final String ME = "query { me { id email } }";
+
+    @Test
+    void getDocumentAsync_ParsesAndValidatesEachQueryOnce() throws Exception {
+        PersistedQueryStore store = new PersistedQueryStore(new ObjectMapper(), 2, new ByteArrayResource(new byte[0]) {
+            @Override
+            public boolean exists() {
+                return false;
+            }
+        });
+        AtomicInteger parses = new AtomicInteger();
+        Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate = input -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+        };
+
+        PreparsedDocumentEntry first = store.getDocumentAsync(ExecutionInput.newExecutionInput(ME).build(), parseAndValidate).get();
+        PreparsedDocumentEntry second = store.getDocumentAsync(ExecutionInput.newExecutionInput(ME).build(), parseAndValidate).get();
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+        assertEquals(ME, store.getQuery(GraphQLUtil.sha256(ME)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.medical.gateway.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medical.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private static final String DOCTORS = "query { doctorsBySpecialty(specialty: \"CARDIOLOGY\") { id lastName } }";
+
+    private final GraphQLOperationRouter router = new GraphQLOperationRouter(100);
+    private final MutableClock clock = new MutableClock();
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setStaleTimeout(Duration.ofMillis(200));
+        responseCache = new ResponseCache(properties, new ObjectMapper(), new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void ttl_OnlyForQueriesWhoseRootFieldsAreAllCacheable() {
+        assertEquals(Duration.ofMinutes(1), responseCache.ttl(router.parse(DOCTORS)));
+        assertEquals(Duration.ofSeconds(30), responseCache.ttl(router.parse(
+                "query { doctorsBySpecialty(specialty: \"X\") { id } searchDoctors(city: \"Lyon\") { id } }")));
+        assertNull(responseCache.ttl(router.parse("query { me { id } }")));
+        assertNull(responseCache.ttl(router.parse("mutation { updateDoctorProfile(id: 1) { id } }")));
+    }
+
+    @Test
+    void get_ServesFreshResponsesFromCache() {
+        AtomicInteger calls = new AtomicInteger();
+
+        get(DOCTORS, false, () -> Mono.just(response("v" + calls.incrementAndGet())));
+        clock.advance(Duration.ofSeconds(50));
+        Map<String, Object> second = get(DOCTORS, false, () -> Mono.just(response("v" + calls.incrementAndGet())));
+
+        assertEquals(1, calls.get());
+        assertEquals(response("v1"), second);
+    }
+
+    @Test
+    void get_ServesStaleResponseWhenServiceFailsOrIsSlow() {
+        get(DOCTORS, false, () -> Mono.just(response("v1")));
+        clock.advance(Duration.ofMinutes(10));
+
+        assertEquals(response("v1"), get(DOCTORS, false, () -> Mono.error(new IllegalStateException("doctor-service down"))));
+        assertEquals(response("v1"), get(DOCTORS, false,
+                () -> Mono.just(Map.of("errors", List.of(Map.of("message", "Erreur interne"))))));
+        assertEquals(response("v1"), get(DOCTORS, false, () -> Mono.delay(Duration.ofSeconds(5)).thenReturn(response("v2"))));
+    }
+
+    @Test
+    void get_DoesNotServeStaleResponseBeyondMaxStale() {
+        get(DOCTORS, false, () -> Mono.just(response("v1")));
+        clock.advance(Duration.ofMinutes(40));
+
+        Mono<Map<String, Object>> failing = Mono.error(new IllegalStateException("doctor-service down"));
+        assertThrows(IllegalStateException.class, () -> get(DOCTORS, false, () -> failing));
+    }
+
+    @Test
+    void get_BypassRefreshesTheCachedResponse() {
+        get(DOCTORS, false, () -> Mono.just(response("v1")));
+
+        assertEquals(response("v2"), get(DOCTORS, true, () -> Mono.just(response("v2"))));
+        assertEquals(response("v2"), get(DOCTORS, false, () -> Mono.just(response("v3"))));
+    }
+
+    @Test
+    void get_KeysOnNormalizedQueryAndVariables() {
+        AtomicInteger calls = new AtomicInteger();
+        String query = "query($specialty: String!) { doctorsBySpecialty(specialty: $specialty) { id } }";
+
+        responseCache.get(router.parse(query), Duration.ofMinutes(5), Map.of("specialty", "X"), false,
+                () -> Mono.just(response("v" + calls.incrementAndGet()))).block();
+        responseCache.get(router.parse("query($specialty: String!) {\n  doctorsBySpecialty(specialty: $specialty) {\n    id\n  }\n}"),
+                Duration.ofMinutes(5), Map.of("specialty", "X"), false,
+                () -> Mono.just(response("v" + calls.incrementAndGet()))).block();
+        responseCache.get(router.parse(query), Duration.ofMinutes(5), Map.of("specialty", "Y"), false,
+                () -> Mono.just(response("v" + calls.incrementAndGet()))).block();
+
+        assertEquals(2, calls.get());
+    }
+
+    private Map<String, Object> get(String query, boolean bypass,
+                                    Supplier<Mono<Map<String, Object>>> downstream) {
+        GraphQLOperationRouter.ParsedOperation operation = router.parse(query);
+        return responseCache.get(operation, responseCache.ttl(operation), null, bypass, downstream).block();
+    }
+
+    private static Map<String, Object> response(String version) {
+        return Map.of("data", Map.of("doctorsBySpecialty", List.of(Map.of("id", version))));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-15T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.medical.notification.controller;
 
 import com.medical.notification.domain.Notification;
+import com.medical.notification.dto.NotificationBatchResultDTO;
 import com.medical.notification.dto.SendBulkNotificationDTO;
 import com.medical.notification.dto.SendNotificationDTO;
 import com.medical.notification.service.NotificationService;
@@ -61,6 +62,22 @@ public class NotificationController {
         return notificationService.sendBulkNotifications(dto.getRecipients(), dto.getType(), dto.getTemplate(), dto.getVariables());
     }
 
+    // Rappels envoyés par appointment-service, authentifié par InternalCallerFilter
+    @MutationMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'INTERNAL')")
+    public NotificationBatchResultDTO sendNotificationBatch(@Argument List<Map<String, Object>> inputs) {
+        List<SendNotificationDTO> dtos = inputs.stream()
+                .map(input -> SendNotificationDTO.builder()
+                        .recipient(input.get("recipient").toString())
+                        .type(com.medical.notification.domain.NotificationType.valueOf(input.get("type").toString()))
+                        .template(com.medical.notification.domain.NotificationTemplate.valueOf(input.get("template").toString()))
+                        .variables(input.containsKey("variables") ? input.get("variables").toString() : null)
+                        .build())
+                .toList();
+
+        return notificationService.sendNotificationBatch(dtos);
+    }
+
     @MutationMapping
     @PreAuthorize("hasRole('ADMIN')")
     public Notification resendNotification(@Argument Long id) {
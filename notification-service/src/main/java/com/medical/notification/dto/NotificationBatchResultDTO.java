@@ -0,0 +1,15 @@
+package com.medical.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationBatchResultDTO {
+    private int sent;
+    private int failed;
+}
@@ -0,0 +1,52 @@
+package com.medical.notification.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+
+/**
+ * Authentifie les appels d'appointment-service (lots de rappels), qui portent le jeton interne partagé
+ * au lieu d'un JWT utilisateur, avec le rôle INTERNAL. Aucun appel n'est accepté tant qu'aucun jeton n'est configuré.
+ */
+@Component
+public class InternalCallerFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Internal-Token";
+
+    private final byte[] token;
+
+    public InternalCallerFilter(@Value("${internal.token:}") String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String provided = request.getHeader(HEADER);
+        if (token.length > 0 && provided != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && MessageDigest.isEqual(token, provided.getBytes(StandardCharsets.UTF_8))) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    "internal",
+                    null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_INTERNAL"))
+            );
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+}
@@ -8,7 +8,9 @@ import com.medical.notification.domain.NotificationStatus;
 import com.medical.notification.domain.NotificationTemplate;
 import com.medical.notification.domain.NotificationType;
 import com.medical.notification.dto.EmailDTO;
+import com.medical.notification.dto.NotificationBatchResultDTO;
 import com.medical.notification.dto.SMSDTO;
+import com.medical.notification.dto.SendNotificationDTO;
 import com.medical.notification.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -122,6 +124,25 @@ public class NotificationService {
                 .toList();
     }
 
+    /**
+     * Envoie un lot de notifications différentes (rappels de rendez-vous) en une seule requête
+     */
+    @Transactional
+    public NotificationBatchResultDTO sendNotificationBatch(List<SendNotificationDTO> notifications) {
+        int sent = 0;
+        for (SendNotificationDTO dto : notifications) {
+            Notification notification = sendNotification(dto.getRecipient(), dto.getType(), dto.getTemplate(), dto.getVariables());
+            if (notification.getStatus() == NotificationStatus.SENT) {
+                sent++;
+            }
+        }
+        log.info("Lot de notifications traité: {} envoyées, {} en échec", sent, notifications.size() - sent);
+        return NotificationBatchResultDTO.builder()
+                .sent(sent)
+                .failed(notifications.size() - sent)
+                .build();
+    }
+
     /**
      * Renvoie une notification
      */
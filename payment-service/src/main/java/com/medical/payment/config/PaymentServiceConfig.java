@@ -1,5 +1,6 @@
 package com.medical.payment.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -8,7 +9,13 @@ import org.springframework.web.client.RestTemplate;
 public class PaymentServiceConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Value("${internal.token:}") String internalToken) {
+        RestTemplate restTemplate = new RestTemplate();
+        // Seul client : appointment-service, qui n'accepte les appels de service qu'avec le jeton interne
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().set("X-Internal-Token", internalToken);
+            return execution.execute(request, body);
+        });
+        return restTemplate;
     }
 }
@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -26,6 +28,15 @@ public class AppointmentServiceClient {
         return restTemplate.getForObject(url, Map.class);
     }
 
+    /**
+     * Récupère les informations de plusieurs rendez-vous en une requête (5000 au plus),
+     * pour les rapprochements ; les rendez-vous inconnus sont absents de la réponse
+     */
+    public List<Map<String, Object>> getAppointmentInfos(Collection<Long> appointmentIds) {
+        String url = appointmentServiceUrl + "/api/appointments/info/batch";
+        return restTemplate.postForObject(url, Map.of("ids", appointmentIds), List.class);
+    }
+
     /**
      * Notifie le service de rendez-vous qu'un paiement a été confirmé
      */
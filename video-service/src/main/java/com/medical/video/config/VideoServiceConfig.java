@@ -1,5 +1,6 @@
 package com.medical.video.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -16,8 +17,14 @@ import org.springframework.web.client.RestTemplate;
 public class VideoServiceConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(@Value("${internal.token:}") String internalToken) {
+        RestTemplate restTemplate = new RestTemplate();
+        // Seul client : appointment-service, qui n'accepte les appels de service qu'avec le jeton interne
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().set("X-Internal-Token", internalToken);
+            return execution.execute(request, body);
+        });
+        return restTemplate;
     }
 
     @Bean
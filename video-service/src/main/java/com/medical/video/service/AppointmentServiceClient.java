@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +44,14 @@ public class AppointmentServiceClient {
         return restTemplate.getForObject(url, Map.class);
     }
 
+    /**
+     * Récupère en une seule requête le médecin et le patient de plusieurs rendez-vous (5000 au plus)
+     */
+    public List<Map<String, Object>> getAppointmentInfos(Collection<Long> appointmentIds) {
+        String url = appointmentServiceUrl + "/api/appointments/info/batch";
+        return restTemplate.postForObject(url, Map.of("ids", appointmentIds), List.class);
+    }
+
     /**
      * Notifie le service de rendez-vous qu'une consultation a commencé
      */